@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xcsp.common.Utilities;
+import org.xcsp.parser.callbacks.SolutionChecker;
+
+/**
+ * Benchmarks for checking solutions (SolutionChecker) of instances from the directory instancesTest and of generated instances. Messages displayed by the
+ * checker are discarded during measurements.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CheckerBenchmark {
+
+	/** Solutions (taken from the unit tests) for some instances of the directory instancesTest. */
+	private static final Map<String, String> SOLUTIONS = new LinkedHashMap<>();
+
+	static {
+		SOLUTIONS.put("Sudoku-s01a-alldiff", "<instantiation type='solution'> <list> x[][] </list> <values> 8 4 5 6 3 2 1 7 9 7 3 2 9 1 8 6 5 4 1 9 6 7 4 "
+				+ "5 3 2 8 6 8 3 5 7 4 9 1 2 4 5 7 2 9 1 8 3 6 2 1 9 8 6 3 5 4 7 3 6 1 4 2 9 7 8 5 5 7 4 1 8 6 2 9 3 9 2 8 3 5 7 4 6 1 </values> </instantiation>");
+		SOLUTIONS.put("Knapsack-30-100-00", "<instantiation type='solution' cost='709'> <list> x[] </list> <values> 1 0 1 0 0 1 0 0 0 1 1 1 0 0 1 1 1 1 "
+				+ "0 0 0 1 0 0 1 0 0 0 0 0 </values> </instantiation>");
+		SOLUTIONS.put("Taillard-js-015-15-0", "<instantiation type='solution' cost='1319'> <list> s[][] e[] </list> <values> 0 94 160 170 223 422 437 "
+				+ "502 584 595 622 955 1047 1143 1223 218 292 344 544 610 667 745 753 760 851 930 948 999 1032 1131 0 203 382 520 633 683 793 814 821 875 943 "
+				+ "1025 1045 1084 1159 323 437 483 552 582 635 735 793 886 918 1009 1039 1095 1131 1310 0 78 101 122 182 218 247 342 441 520 596 913 955 1072 "
+				+ "1199 0 93 160 248 318 334 441 506 607 689 716 948 1101 1163 1177 0 18 117 137 141 484 552 584 690 820 943 986 1035 1072 1202 0 234 286 295 "
+				+ "370 431 622 763 825 831 942 1119 1199 1202 1259 0 85 122 232 323 438 525 607 690 886 942 1027 1035 1159 1295 94 115 174 362 422 463 480 546 "
+				+ "638 722 963 1032 1077 1159 1165 0 90 117 118 126 248 328 463 512 544 635 825 920 926 1164 0 49 126 431 582 635 638 722 756 784 844 918 1015 "
+				+ "1082 1165 29 141 239 342 362 417 450 483 560 610 715 813 903 1035 1227 0 28 90 141 217 234 323 382 606 833 903 930 999 1069 1213 182 285 328 "
+				+ "450 484 525 667 735 808 813 821 833 986 1163 1183 1306 1164 1227 1319 1295 1207 1268 1266 1310 1178 1237 1252 1271 1248 1280 </values> "
+				+ "</instantiation>");
+	}
+
+	private static final PrintStream SINK = new PrintStream(new OutputStream() {
+		@Override
+		public void write(int b) {
+		}
+	});
+
+	/** The standard output, replaced by a sink during measurements. */
+	private PrintStream out;
+
+	@Setup(Level.Trial)
+	public void muteOutput() {
+		out = System.out;
+		System.setOut(SINK);
+	}
+
+	@TearDown(Level.Trial)
+	public void restoreOutput() {
+		System.setOut(out);
+	}
+
+	@State(Scope.Benchmark)
+	public static class CorpusState {
+		@Param({ "Sudoku-s01a-alldiff", "Knapsack-30-100-00", "Taillard-js-015-15-0" })
+		public String instance;
+
+		String path;
+
+		byte[] solution;
+
+		@Setup
+		public void setup() {
+			path = Instances.pathOf(instance);
+			Utilities.control(SOLUTIONS.containsKey(instance), "No solution recorded for " + instance);
+			solution = SOLUTIONS.get(instance).getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class SyntheticState {
+		@Param({ "1000", "4000" })
+		public int size;
+
+		File file;
+
+		byte[] solution;
+
+		@Setup
+		public void setup() throws Exception {
+			String[] t = Instances.synthetic(size, 0);
+			file = File.createTempFile("synthetic-" + size + "-", ".xml");
+			file.deleteOnExit();
+			Files.write(file.toPath(), t[0].getBytes(StandardCharsets.UTF_8));
+			solution = t[1].getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	private static SolutionChecker check(String path, byte[] solution) throws Exception {
+		SolutionChecker checker = new SolutionChecker(path, new ByteArrayInputStream(solution), null, null, false);
+		Utilities.control(checker.violatedCtrs.isEmpty() && checker.invalidObjs.isEmpty(), "The solution should be valid for " + path);
+		return checker;
+	}
+
+	@Benchmark
+	public SolutionChecker check(CorpusState state) throws Exception {
+		return check(state.path, state.solution);
+	}
+
+	@Benchmark
+	public SolutionChecker checkSynthetic(SyntheticState state) throws Exception {
+		return check(state.file.getPath(), state.solution);
+	}
+}
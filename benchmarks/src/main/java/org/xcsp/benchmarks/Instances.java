@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.xcsp.common.Utilities;
+
+/**
+ * Static methods for accessing the instances of the directory instancesTest, and for generating synthetic (large) instances together with one of their
+ * solutions.
+ */
+public final class Instances {
+
+	/** The directory containing test instances; it can be set with the system property xcsp.instances. */
+	public static final String DIRECTORY = System.getProperty("xcsp.instances", ".." + File.separator + "instancesTest");
+
+	/** Returns the path of the (compressed) test instance with the specified name (without extension). */
+	public static String pathOf(String name) {
+		String path = DIRECTORY + File.separator + name + ".xml.lzma";
+		Utilities.control(new File(path).exists(), "Instance " + path + " not found (set the property xcsp.instances)");
+		return path;
+	}
+
+	/** Returns the document built from the specified XML text. */
+	public static Document documentOf(String xml) throws Exception {
+		return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Generates a synthetic instance involving n variables of domain 0..d-1 (with d = max(n,2)). Constraints are built around a random solution (which is
+	 * returned with the instance): binary intension constraints, ternary extension constraints, a sum and an objective.
+	 */
+	public static String[] synthetic(int n, long seed) {
+		Random random = new Random(seed);
+		int d = Math.max(n, 2);
+		int[] solution = new int[n];
+		for (int i = 0; i < n; i++)
+			solution[i] = random.nextInt(d);
+		StringBuilder sb = new StringBuilder("<instance format=\"XCSP3\" type=\"COP\">\n <variables>\n");
+		sb.append("  <array id=\"x\" size=\"[").append(n).append("]\"> 0..").append(d - 1).append(" </array>\n");
+		sb.append(" </variables>\n <constraints>\n");
+		for (int i = 0; i + 1 < n; i++) {
+			String op = solution[i] < solution[i + 1] ? "lt" : solution[i] > solution[i + 1] ? "gt" : "eq";
+			sb.append("  <intension> ").append(op).append("(x[").append(i).append("],x[").append(i + 1).append("]) </intension>\n");
+		}
+		int nTables = 8;
+		StringBuilder[] tables = new StringBuilder[nTables];
+		for (int t = 0; t < nTables; t++) {
+			tables[t] = new StringBuilder();
+			for (int k = 0; k < 50; k++)
+				tables[t].append("(").append(random.nextInt(d)).append(",").append(random.nextInt(d)).append(",").append(random.nextInt(d)).append(")");
+		}
+		for (int i = 0; i + 2 < n; i++) {
+			StringBuilder table = tables[i % nTables];
+			sb.append("  <extension>\n   <list> x[").append(i).append("] x[").append(i + 1).append("] x[").append(i + 2).append("] </list>\n");
+			sb.append("   <supports> ").append(table).append("(").append(solution[i]).append(",").append(solution[i + 1]).append(",")
+					.append(solution[i + 2]).append(") </supports>\n  </extension>\n");
+		}
+		long sum = 0;
+		for (int v : solution)
+			sum += v;
+		sb.append("  <sum>\n   <list> x[] </list>\n   <condition> (le,").append(sum).append(") </condition>\n  </sum>\n");
+		sb.append(" </constraints>\n <objectives>\n  <minimize type=\"sum\"> x[] </minimize>\n </objectives>\n</instance>\n");
+		StringBuilder values = new StringBuilder();
+		for (int v : solution)
+			values.append(v).append(" ");
+		String sol = "<instantiation type=\"solution\" cost=\"" + sum + "\"> <list> x[] </list> <values> " + values + "</values> </instantiation>";
+		return new String[] { sb.toString(), sol };
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.benchmarks;
+
+import java.io.File;
+import java.io.FileReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks (with the GC profiler, so as to report allocation rates), saves results in JSON (JMH format) and compares them with a baseline (a
+ * previously saved JSON file). The exit code is 1 if a regression is detected.
+ */
+public class Main {
+
+	private static final String BASELINE = "-baseline=", OUTPUT = "-output=", TOLERANCE = "-tolerance=", INCLUDE = "-include=";
+
+	private static void usage() {
+		System.out.println("Usage: java -jar benchmarks.jar [-include=<regexp>] [-output=<file>] [-baseline=<file>] [-tolerance=<percent>]");
+		System.out.println("  -include: the benchmarks to be run (all by default)");
+		System.out.println("  -output: the JSON file where results are saved (results.json by default)");
+		System.out.println("  -baseline: the JSON file containing the results to compare with");
+		System.out.println("  -tolerance: the percentage of throughput loss (or allocation increase) considered as a regression (10 by default)");
+		System.out.println("Alternatively, run java -cp benchmarks.jar org.openjdk.jmh.Main with the usual JMH options.");
+	}
+
+	/** Returns the key identifying the specified result of a JMH JSON file: the benchmark name followed by its parameters. */
+	private static String keyOf(JsonObject result) {
+		JsonObject params = result.getJsonObject("params");
+		String benchmark = result.getString("benchmark");
+		return params == null ? benchmark
+				: benchmark + params.entrySet().stream().map(e -> e.getKey() + "=" + ((javax.json.JsonString) e.getValue()).getString())
+						.collect(Collectors.joining(",", "[", "]"));
+	}
+
+	/** Returns, for each benchmark of the specified JMH JSON file, the throughput and the normalized allocation rate (in bytes per operation, or -1). */
+	static Map<String, double[]> load(File file) throws Exception {
+		Map<String, double[]> map = new LinkedHashMap<>();
+		try (JsonReader reader = Json.createReader(new FileReader(file))) {
+			JsonArray results = reader.readArray();
+			for (JsonValue value : results) {
+				JsonObject result = (JsonObject) value;
+				double score = result.getJsonObject("primaryMetric").getJsonNumber("score").doubleValue();
+				JsonObject secondaries = result.getJsonObject("secondaryMetrics");
+				JsonObject alloc = secondaries == null ? null : secondaries.getJsonObject("gc.alloc.rate.norm");
+				map.put(keyOf(result), new double[] { score, alloc == null ? -1 : alloc.getJsonNumber("score").doubleValue() });
+			}
+		}
+		return map;
+	}
+
+	/** Displays the comparison of current results with baseline ones, and returns the number of detected regressions. */
+	static int compare(Map<String, double[]> baseline, Map<String, double[]> current, double tolerance) {
+		int nRegressions = 0;
+		for (Entry<String, double[]> entry : current.entrySet()) {
+			double[] before = baseline.get(entry.getKey()), after = entry.getValue();
+			if (before == null) {
+				System.out.println("  NEW        " + entry.getKey());
+				continue;
+			}
+			double throughput = 100 * (after[0] - before[0]) / before[0];
+			double alloc = before[1] <= 0 || after[1] < 0 ? 0 : 100 * (after[1] - before[1]) / before[1];
+			boolean regression = throughput < -tolerance || alloc > tolerance;
+			if (regression)
+				nRegressions++;
+			System.out.println(String.format("  %-10s %s  throughput %+.1f%%  alloc/op %+.1f%%", regression ? "REGRESSION" : "OK", entry.getKey(), throughput, alloc));
+		}
+		return nRegressions;
+	}
+
+	public static void main(String[] args) throws Exception {
+		String include = ".*", output = "results.json", baseline = null;
+		double tolerance = 10;
+		for (String arg : args) {
+			if (arg.startsWith(INCLUDE))
+				include = arg.substring(INCLUDE.length());
+			else if (arg.startsWith(OUTPUT))
+				output = arg.substring(OUTPUT.length());
+			else if (arg.startsWith(BASELINE))
+				baseline = arg.substring(BASELINE.length());
+			else if (arg.startsWith(TOLERANCE))
+				tolerance = Double.parseDouble(arg.substring(TOLERANCE.length()));
+			else {
+				usage();
+				return;
+			}
+		}
+		Options options = new OptionsBuilder().include(include).addProfiler(GCProfiler.class).resultFormat(ResultFormatType.JSON).result(output).build();
+		new Runner(options).run();
+		if (baseline != null) {
+			System.out.println("\nComparison with " + baseline + " (tolerance " + tolerance + "%)");
+			int nRegressions = compare(load(new File(baseline)), load(new File(output)), tolerance);
+			System.out.println(nRegressions == 0 ? "No regression" : nRegressions + " regression(s)");
+			if (nRegressions > 0)
+				System.exit(1);
+		}
+	}
+}
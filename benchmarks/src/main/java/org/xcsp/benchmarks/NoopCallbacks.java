@@ -0,0 +1,585 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.benchmarks;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.xcsp.common.Condition;
+import org.xcsp.common.Types.TypeArithmeticOperator;
+import org.xcsp.common.Types.TypeConditionOperatorRel;
+import org.xcsp.common.Types.TypeConditionOperatorSet;
+import org.xcsp.common.Types.TypeEqNeOperator;
+import org.xcsp.common.Types.TypeFlag;
+import org.xcsp.common.Types.TypeLogicalOperator;
+import org.xcsp.common.Types.TypeObjective;
+import org.xcsp.common.Types.TypeOperatorRel;
+import org.xcsp.common.Types.TypeRank;
+import org.xcsp.common.Types.TypeUnaryArithmeticOperator;
+import org.xcsp.common.predicates.XNode;
+import org.xcsp.common.predicates.XNodeParent;
+import org.xcsp.common.structures.AbstractTuple;
+import org.xcsp.common.structures.Transition;
+import org.xcsp.parser.callbacks.XCallbacks2;
+import org.xcsp.parser.entries.XVariables.XVarInteger;
+import org.xcsp.parser.entries.XVariables.XVarSymbolic;
+
+/**
+ * An object XCallbacks2 whose callback functions do nothing, so as to measure the cost of parsing and loading alone.
+ */
+public class NoopCallbacks implements XCallbacks2 {
+
+	private Implem implem = new Implem(this);
+
+	@Override
+	public Implem implem() {
+		return implem;
+	}
+
+	@Override
+	public void buildVarInteger(XVarInteger x, int minValue, int maxValue) {
+	}
+
+	@Override
+	public void buildVarInteger(XVarInteger x, int[] values) {
+	}
+
+	@Override
+	public void buildCtrIntension(String id, XVarInteger[] scope, XNodeParent<XVarInteger> tree) {
+	}
+
+	@Override
+	public void buildCtrPrimitive(String id, XVarInteger x, TypeConditionOperatorRel op, int k) {
+	}
+
+	@Override
+	public void buildCtrPrimitive(String id, XVarInteger x, TypeConditionOperatorSet op, int[] t) {
+	}
+
+	@Override
+	public void buildCtrPrimitive(String id, XVarInteger x, TypeConditionOperatorSet op, int min, int max) {
+	}
+
+	@Override
+	public void buildCtrPrimitive(String id, XVarInteger x, TypeArithmeticOperator aop, int p, TypeConditionOperatorRel op, int k) {
+	}
+
+	@Override
+	public void buildCtrPrimitive(String id, XVarInteger x, TypeUnaryArithmeticOperator aop, XVarInteger y) {
+	}
+
+	@Override
+	public void buildCtrPrimitive(String id, XVarInteger x, TypeArithmeticOperator aop, XVarInteger y, TypeConditionOperatorRel op, int k) {
+	}
+
+	@Override
+	public void buildCtrPrimitive(String id, XVarInteger x, TypeArithmeticOperator aop, int p, TypeConditionOperatorRel op, XVarInteger y) {
+	}
+
+	@Override
+	public void buildCtrPrimitive(String id, XVarInteger x, TypeArithmeticOperator aop, XVarInteger y, TypeConditionOperatorRel op, XVarInteger z) {
+	}
+
+	@Override
+	public void buildCtrLogic(String id, TypeLogicalOperator lop, XVarInteger[] vars) {
+	}
+
+	@Override
+	public void buildCtrLogic(String id, XVarInteger x, TypeEqNeOperator op, TypeLogicalOperator lop, XVarInteger[] vars) {
+	}
+
+	@Override
+	public void buildCtrLogic(String id, XVarInteger x, XVarInteger y, TypeConditionOperatorRel op, int k) {
+	}
+
+	@Override
+	public void buildCtrLogic(String id, XVarInteger x, XVarInteger y, TypeConditionOperatorRel op, XVarInteger z) {
+	}
+
+	@Override
+	public void buildCtrExtension(String id, XVarInteger x, int[] values, boolean positive, Set<TypeFlag> flags) {
+	}
+
+	@Override
+	public void buildCtrExtension(String id, XVarInteger[] list, int[][] tuples, boolean positive, Set<TypeFlag> flags) {
+	}
+
+	@Override
+	public void buildCtrExtension(String id, XVarInteger[] list, AbstractTuple[] tuples, boolean positive, Set<TypeFlag> flags) {
+	}
+
+	@Override
+	public void buildCtrRegular(String id, XVarInteger[] list, Transition[] transitions, String startState, String[] finalStates) {
+	}
+
+	@Override
+	public void buildCtrMDD(String id, XVarInteger[] list, Transition[] transitions) {
+	}
+
+	@Override
+	public void buildCtrAllDifferent(String id, XVarInteger[] list) {
+	}
+
+	@Override
+	public void buildCtrAllDifferent(String id, XNode<XVarInteger>[] trees) {
+	}
+
+	@Override
+	public void buildCtrAllDifferentExcept(String id, XVarInteger[] list, int[] except) {
+	}
+
+	@Override
+	public void buildCtrAllDifferentExcept(String id, XNode<XVarInteger>[] trees, int[] except) {
+	}
+
+	@Override
+	public void buildCtrAllDifferentList(String id, XVarInteger[][] lists) {
+	}
+
+	@Override
+	public void buildCtrAllDifferentList(String id, XVarInteger[][] lists, int[][] except) {
+	}
+
+	@Override
+	public void buildCtrAllDifferentMatrix(String id, XVarInteger[][] matrix) {
+	}
+
+	@Override
+	public void buildCtrAllDifferentMatrix(String id, XVarInteger[][] matrix, int[] except) {
+	}
+
+	@Override
+	public void buildCtrAllEqual(String id, XVarInteger[] list) {
+	}
+
+	@Override
+	public void buildCtrAllEqual(String id, XNode<XVarInteger>[] trees) {
+	}
+
+	@Override
+	public void buildCtrAllEqualExcept(String id, XVarInteger[] list, int[] except) {
+	}
+
+	@Override
+	public void buildCtrAllEqualExcept(String id, XNode<XVarInteger>[] trees, int[] except) {
+	}
+
+	@Override
+	public void buildCtrOrdered(String id, XVarInteger[] list, TypeOperatorRel operator) {
+	}
+
+	@Override
+	public void buildCtrOrdered(String id, XVarInteger[] list, int[] lengths, TypeOperatorRel operator) {
+	}
+
+	@Override
+	public void buildCtrOrdered(String id, XVarInteger[] list, XVarInteger[] lengths, TypeOperatorRel operator) {
+	}
+
+	@Override
+	public void buildCtrLex(String id, XVarInteger[] list, int[] limit, TypeOperatorRel operator) {
+	}
+
+	@Override
+	public void buildCtrLex(String id, XVarInteger[][] lists, TypeOperatorRel operator) {
+	}
+
+	@Override
+	public void buildCtrLexMatrix(String id, XVarInteger[][] matrix, TypeOperatorRel operator) {
+	}
+
+	@Override
+	public void buildCtrPrecedence(String id, XVarInteger[] list) {
+	}
+
+	@Override
+	public void buildCtrPrecedence(String id, XVarInteger[] list, int[] values, boolean covered) {
+	}
+
+	@Override
+	public void buildCtrSum(String id, XVarInteger[] list, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrSum(String id, XVarInteger[] list, int[] coeffs, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrSum(String id, XVarInteger[] list, XVarInteger[] coeffs, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrSum(String id, XNode<XVarInteger>[] trees, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrSum(String id, XNode<XVarInteger>[] trees, int[] coeffs, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrSum(String id, XNode<XVarInteger>[] trees, XVarInteger[] coeffs, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrCount(String id, XVarInteger[] list, int[] values, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrCount(String id, XNode<XVarInteger>[] trees, int[] values, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrCount(String id, XVarInteger[] list, XVarInteger[] values, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrAtLeast(String id, XVarInteger[] list, int value, int k) {
+	}
+
+	@Override
+	public void buildCtrAtMost(String id, XVarInteger[] list, int value, int k) {
+	}
+
+	@Override
+	public void buildCtrExactly(String id, XVarInteger[] list, int value, int k) {
+	}
+
+	@Override
+	public void buildCtrExactly(String id, XVarInteger[] list, int value, XVarInteger k) {
+	}
+
+	@Override
+	public void buildCtrAmong(String id, XVarInteger[] list, int[] values, int k) {
+	}
+
+	@Override
+	public void buildCtrAmong(String id, XVarInteger[] list, int[] values, XVarInteger k) {
+	}
+
+	@Override
+	public void buildCtrNValues(String id, XVarInteger[] list, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrNValuesExcept(String id, XVarInteger[] list, int[] except, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrNValues(String id, XNode<XVarInteger>[] trees, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrNotAllEqual(String id, XVarInteger[] list) {
+	}
+
+	@Override
+	public void buildCtrCardinality(String id, XVarInteger[] list, boolean closed, int[] values, XVarInteger[] occurs) {
+	}
+
+	@Override
+	public void buildCtrCardinality(String id, XVarInteger[] list, boolean closed, int[] values, int[] occurs) {
+	}
+
+	@Override
+	public void buildCtrCardinality(String id, XVarInteger[] list, boolean closed, int[] values, int[] occursMin, int[] occursMax) {
+	}
+
+	@Override
+	public void buildCtrCardinality(String id, XVarInteger[] list, boolean closed, XVarInteger[] values, XVarInteger[] occurs) {
+	}
+
+	@Override
+	public void buildCtrCardinality(String id, XVarInteger[] list, boolean closed, XVarInteger[] values, int[] occurs) {
+	}
+
+	@Override
+	public void buildCtrCardinality(String id, XVarInteger[] list, boolean closed, XVarInteger[] values, int[] occursMin, int[] occursMax) {
+	}
+
+	@Override
+	public void buildCtrMaximum(String id, XVarInteger[] list, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrMaximum(String id, XVarInteger[] list, int startIndex, XVarInteger index, TypeRank rank, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrMaximum(String id, XNode<XVarInteger>[] trees, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrMinimum(String id, XVarInteger[] list, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrMinimum(String id, XVarInteger[] list, int startIndex, XVarInteger index, TypeRank rank, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrMinimum(String id, XNode<XVarInteger>[] trees, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrMaximumArg(String id, XVarInteger[] list, TypeRank rank, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrMaximumArg(String id, XNode<XVarInteger>[] trees, TypeRank rank, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrMinimumArg(String id, XVarInteger[] list, TypeRank rank, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrMinimumArg(String id, XNode<XVarInteger>[] trees, TypeRank rank, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrElement(String id, XVarInteger[] list, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrElement(String id, XVarInteger[] list, int startIndex, XVarInteger index, TypeRank rank, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrElement(String id, int[] list, int startIndex, XVarInteger index, TypeRank rank, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrElement(String id, int[][] matrix, int startRowIndex, XVarInteger rowIndex, int startColIndex, XVarInteger colIndex, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrElement(String id, XVarInteger[][] matrix, int startRowIndex, XVarInteger rowIndex, int startColIndex, XVarInteger colIndex, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrElement(String id, XVarInteger[] list, int value, XVarInteger reifiedBy) {
+	}
+
+	@Override
+	public void buildCtrElement(String id, XNode<XVarInteger>[] trees, int value, XVarInteger reifiedBy) {
+	}
+
+	@Override
+	public void buildCtrElement(String id, XVarInteger[] list, XNode<XVarInteger> value, XVarInteger reifiedBy) {
+	}
+
+	@Override
+	public void buildCtrElement(String id, XNode<XVarInteger>[] trees, XNode<XVarInteger> value, XVarInteger reifiedBy) {
+	}
+
+	@Override
+	public void buildCtrChannel(String id, XVarInteger[] list, int startIndex) {
+	}
+
+	@Override
+	public void buildCtrChannel(String id, XVarInteger[] list1, int startIndex1, XVarInteger[] list2, int startIndex2) {
+	}
+
+	@Override
+	public void buildCtrChannel(String id, XVarInteger[] list, int startIndex, XVarInteger value) {
+	}
+
+	@Override
+	public void buildCtrStretch(String id, XVarInteger[] list, int[] values, int[] widthsMin, int[] widthsMax) {
+	}
+
+	@Override
+	public void buildCtrStretch(String id, XVarInteger[] list, int[] values, int[] widthsMin, int[] widthsMax, int[][] patterns) {
+	}
+
+	@Override
+	public void buildCtrNoOverlap(String id, XVarInteger[] origins, int[] lengths, boolean zeroIgnored) {
+	}
+
+	@Override
+	public void buildCtrNoOverlap(String id, XVarInteger[] origins, XVarInteger[] lengths, boolean zeroIgnored) {
+	}
+
+	@Override
+	public void buildCtrNoOverlap(String id, XVarInteger[][] origins, int[][] lengths, boolean zeroIgnored) {
+	}
+
+	@Override
+	public void buildCtrNoOverlap(String id, XVarInteger[][] origins, XVarInteger[][] lengths, boolean zeroIgnored) {
+	}
+
+	@Override
+	public void buildCtrNoOverlap(String id, XVarInteger[] xs, XVarInteger[] ys, XVarInteger[] lx, int[] ly, boolean zeroIgnored) {
+	}
+
+	@Override
+	public void buildCtrCumulative(String id, XVarInteger[] origins, int[] lengths, int[] heights, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrCumulative(String id, XVarInteger[] origins, int[] lengths, XVarInteger[] heights, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrCumulative(String id, XVarInteger[] origins, XVarInteger[] lengths, int[] heights, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrCumulative(String id, XVarInteger[] origins, XVarInteger[] lengths, XVarInteger[] heights, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrCumulative(String id, XVarInteger[] origins, int[] lengths, XVarInteger[] ends, int[] heights, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrCumulative(String id, XVarInteger[] origins, int[] lengths, XVarInteger[] ends, XVarInteger[] heights, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrCumulative(String id, XVarInteger[] origins, XVarInteger[] lengths, XVarInteger[] ends, int[] heights, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrCumulative(String id, XVarInteger[] origins, XVarInteger[] lengths, XVarInteger[] ends, XVarInteger[] heights, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrBinPacking(String id, XVarInteger[] list, int[] sizes, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrBinPacking(String id, XVarInteger[] list, int[] sizes, int[] capacities, boolean loads) {
+	}
+
+	@Override
+	public void buildCtrBinPacking(String id, XVarInteger[] list, int[] sizes, XVarInteger[] capacities, boolean loads) {
+	}
+
+	@Override
+	public void buildCtrBinPacking(String id, XVarInteger[] list, int[] sizes, Condition[] conditions, int startIndex) {
+	}
+
+	@Override
+	public void buildCtrKnapsack(String id, XVarInteger[] list, int[] weights, Condition wcondition, int[] profits, Condition pcondition) {
+	}
+
+	@Override
+	public void buildCtrFlow(String id, XVarInteger[] list, int[] balance, int[][] arcs) {
+	}
+
+	@Override
+	public void buildCtrFlow(String id, XVarInteger[] list, int[] balance, int[][] arcs, int[] weights, Condition condition) {
+	}
+
+	@Override
+	public void buildCtrInstantiation(String id, XVarInteger[] list, int[] values) {
+	}
+
+	@Override
+	public void buildCtrClause(String id, XVarInteger[] pos, XVarInteger[] neg) {
+	}
+
+	@Override
+	public void buildCtrCircuit(String id, XVarInteger[] list, int startIndex) {
+	}
+
+	@Override
+	public void buildCtrCircuit(String id, XVarInteger[] list, int startIndex, int size) {
+	}
+
+	@Override
+	public void buildCtrCircuit(String id, XVarInteger[] list, int startIndex, XVarInteger size) {
+	}
+
+	@Override
+	public void buildCtrAdhoc(String id, String form, Map<String, Object> map) {
+	}
+
+	@Override
+	public void buildObjToMinimize(String id, XVarInteger x) {
+	}
+
+	@Override
+	public void buildObjToMaximize(String id, XVarInteger x) {
+	}
+
+	@Override
+	public void buildObjToMinimize(String id, XNodeParent<XVarInteger> tree) {
+	}
+
+	@Override
+	public void buildObjToMaximize(String id, XNodeParent<XVarInteger> tree) {
+	}
+
+	@Override
+	public void buildObjToMinimize(String id, TypeObjective type, XVarInteger[] list) {
+	}
+
+	@Override
+	public void buildObjToMaximize(String id, TypeObjective type, XVarInteger[] list) {
+	}
+
+	@Override
+	public void buildObjToMinimize(String id, TypeObjective type, XVarInteger[] list, int[] coeffs) {
+	}
+
+	@Override
+	public void buildObjToMaximize(String id, TypeObjective type, XVarInteger[] list, int[] coeffs) {
+	}
+
+	@Override
+	public void buildObjToMinimize(String id, TypeObjective type, XNode<XVarInteger>[] trees) {
+	}
+
+	@Override
+	public void buildObjToMaximize(String id, TypeObjective type, XNode<XVarInteger>[] trees) {
+	}
+
+	@Override
+	public void buildObjToMinimize(String id, TypeObjective type, XNode<XVarInteger>[] trees, int[] coeffs) {
+	}
+
+	@Override
+	public void buildObjToMaximize(String id, TypeObjective type, XNode<XVarInteger>[] trees, int[] coeffs) {
+	}
+
+	@Override
+	public void buildVarSymbolic(XVarSymbolic x, String[] values) {
+	}
+
+	@Override
+	public void buildCtrIntension(String id, XVarSymbolic[] scope, XNodeParent<XVarSymbolic> syntaxTreeRoot) {
+	}
+
+	@Override
+	public void buildCtrExtension(String id, XVarSymbolic x, String[] values, boolean positive, Set<TypeFlag> flags) {
+	}
+
+	@Override
+	public void buildCtrExtension(String id, XVarSymbolic[] list, String[][] tuples, boolean positive, Set<TypeFlag> flags) {
+	}
+
+	@Override
+	public void buildCtrAllDifferent(String id, XVarSymbolic[] list) {
+	}
+
+	@Override
+	public void buildAnnotationDecision(XVarInteger[] list) {
+	}
+
+	@Override
+	public void buildAnnotationValHeuristicStatic(XVarInteger[] list, int[] order) {
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.xcsp.common.Utilities;
+import org.xcsp.parser.XParser;
+
+/**
+ * Benchmarks for loading documents, parsing them (XParser) and loading instances (with callback functions doing nothing). Instances are taken from the
+ * directory instancesTest (parameter instance) or are generated (parameter size).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class CorpusState {
+		@Param({ "Sudoku-s01a-alldiff", "Knapsack-30-100-00", "Nonogram-001-table", "MagicSquare-6-mdd", "QuadraticAssignment-bur26a",
+				"Taillard-js-015-15-0", "Subisomorphism-A-10", "Sat-flat200-00-clause" })
+		public String instance;
+
+		String path;
+
+		Document document;
+
+		@Setup
+		public void setup() throws Exception {
+			path = Instances.pathOf(instance);
+			document = Utilities.loadDocument(path);
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class SyntheticState {
+		@Param({ "1000", "4000" })
+		public int size;
+
+		Document document;
+
+		@Setup
+		public void setup() throws Exception {
+			document = Instances.documentOf(Instances.synthetic(size, 0)[0]);
+		}
+	}
+
+	@Benchmark
+	public Document loadDocument(CorpusState state) throws Exception {
+		return Utilities.loadDocument(state.path);
+	}
+
+	@Benchmark
+	public XParser parse(CorpusState state) throws Exception {
+		return new XParser(state.document);
+	}
+
+	@Benchmark
+	public NoopCallbacks loadInstance(CorpusState state) throws Exception {
+		NoopCallbacks callbacks = new NoopCallbacks();
+		callbacks.loadInstance(state.document);
+		return callbacks;
+	}
+
+	@Benchmark
+	public XParser parseSynthetic(SyntheticState state) throws Exception {
+		return new XParser(state.document);
+	}
+
+	@Benchmark
+	public NoopCallbacks loadInstanceSynthetic(SyntheticState state) throws Exception {
+		NoopCallbacks callbacks = new NoopCallbacks();
+		callbacks.loadInstance(state.document);
+		return callbacks;
+	}
+}
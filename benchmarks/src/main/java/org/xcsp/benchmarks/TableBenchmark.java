@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xcsp.common.Constants;
+import org.xcsp.common.structures.Table;
+
+/**
+ * Benchmarks for building tables (sorting tuples and removing duplicates) and intersecting short tables (i.e., tables containing *). Tables are randomly
+ * generated: each value is * with the probability given by the parameter stars.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TableBenchmark {
+
+	private static final int ARITY = 4, DOMAIN = 100;
+
+	@Param({ "1000", "10000" })
+	public int size;
+
+	@Param({ "0.05", "0.2" })
+	public double stars;
+
+	int[][] tuples1, tuples2;
+
+	Table table1, table2;
+
+	private int[][] randomTuples(Random random) {
+		int[][] m = new int[size][ARITY];
+		for (int[] t : m)
+			for (int i = 0; i < ARITY; i++)
+				t[i] = random.nextDouble() < stars ? Constants.STAR : random.nextInt(DOMAIN);
+		return m;
+	}
+
+	@Setup
+	public void setup() {
+		Random random = new Random(0);
+		tuples1 = randomTuples(random);
+		tuples2 = randomTuples(random);
+		table1 = new Table().add(tuples1);
+		table2 = new Table().add(tuples2);
+	}
+
+	@Benchmark
+	public int[][] build() {
+		return new Table().add(tuples1).toArray();
+	}
+
+	@Benchmark
+	public Table intersection() {
+		return table1.intersectionWith(table2);
+	}
+}
@@ -0,0 +1,544 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.common;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.tukaani.xz.LZMAInputStream;
+import org.tukaani.xz.XZInputStream;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xcsp.common.Types.TypeAtt;
+import org.xcsp.common.Types.TypeChild;
+import org.xcsp.common.Types.TypeCtr;
+
+/**
+ * This class allows us to save and load XCSP3 instances in a compact binary form, so as to avoid tokenizing text when loading. The structure of the XML
+ * document (elements and attributes) is kept, and the content of each element is encoded according to its nature. All integers are encoded as varints (7 bits
+ * per byte, the most significant bit indicating that another byte follows), signed integers being zigzag-encoded beforehand. Any string (tag, attribute,
+ * token) is written once in a table, and then referred to by its position in the table. The format is:
+ *
+ * <pre>
+ * file       := MAGIC VERSION nStrings string* element
+ * string     := nBytes byte*                                          (UTF-8)
+ * element    := tag nAttributes (name value)* content
+ * content    := EMPTY
+ *             | ELEMENTS nElements element*
+ *             | MIXED nItems (0 element | 1 text)*
+ *             | TOKENS nTokens token*                                 (whitespace-separated tokens)
+ *             | INTEGERS nItems (2*zigzag(v) | 2*zigzag(a)+1 zigzag(b))*  (values v and intervals a..b)
+ *             | TABLE arity nTuples cell*                             (arity * nTuples cells: 0 for *, zigzag(v)+1 otherwise)
+ *             | EXPRESSION node                                       (functional expressions, as in intension)
+ * node       := OPERATOR name nSons node* | LEAF token | VALUE zigzag(v)
+ * </pre>
+ *
+ * When loading, the text of elements is rebuilt (with tokens separated by a single space), except for tables that are directly attached to their elements
+ * (see TUPLES), so that the parser can use them without any tokenization.
+ */
+public final class BinaryFormat {
+
+	/** The suffix of binary XCSP3 files (possibly followed by .gz, .xz or .lzma). */
+	public static final String SUFFIX = ".xcb";
+
+	/** The key used for attaching (as user data) the tuples of a table to an element <supports> or <conflicts> of a loaded document. */
+	public static final String TUPLES = "tuples";
+
+	private static final byte[] MAGIC = { 'X', 'C', 'B', '3' };
+
+	private static final int VERSION = 1;
+
+	private static final int EMPTY = 0, ELEMENTS = 1, MIXED = 2, TOKENS = 3, INTEGERS = 4, TABLE = 5, EXPRESSION = 6;
+
+	private static final int OPERATOR = 0, LEAF = 1, VALUE = 2;
+
+	/** Integers whose absolute value is greater than this limit are kept as tokens, so that encoded values never overflow. */
+	private static final long LIMIT = 1L << 60;
+
+	private static final Pattern INTEGER = Pattern.compile("-?\\d{1,18}");
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	/** The tuples of a table, as loaded from a binary file. Constants.STAR_LONG denotes *. */
+	public static final class Tuples {
+		/** The arity of the tuples. */
+		public final int arity;
+
+		/** The values of the tuples, one after the other: the ith tuple is given by the cells at positions i*arity to (i+1)*arity-1. */
+		public final long[] cells;
+
+		Tuples(int arity, long[] cells) {
+			this.arity = arity;
+			this.cells = cells;
+		}
+
+		/** Returns the number of tuples. */
+		public int size() {
+			return arity == 0 ? 0 : cells.length / arity;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < cells.length; i++)
+				sb.append(i % arity == 0 ? "(" : ",").append(cells[i] == Constants.STAR_LONG ? Constants.STAR_SYMBOL : String.valueOf(cells[i]))
+						.append(i % arity == arity - 1 ? ")" : "");
+			return sb.toString();
+		}
+	}
+
+	/**********************************************************************************************
+	 * Saving
+	 *********************************************************************************************/
+
+	private static class Writer {
+		private final Map<String, Integer> strings = new HashMap<>();
+
+		private final List<String> table = new ArrayList<>();
+
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 16);
+
+		private void writeVarLong(ByteArrayOutputStream out, long v) {
+			while ((v & ~0x7FL) != 0) {
+				out.write((int) ((v & 0x7F) | 0x80));
+				v >>>= 7;
+			}
+			out.write((int) v);
+		}
+
+		private void writeVarLong(long v) {
+			writeVarLong(body, v);
+		}
+
+		private void writeZigzag(long v) {
+			writeVarLong((v << 1) ^ (v >> 63));
+		}
+
+		private void writeString(String s) {
+			Integer i = strings.get(s);
+			if (i == null) {
+				strings.put(s, i = table.size());
+				table.add(s);
+			}
+			writeVarLong(i);
+		}
+
+		private void writeElement(Element element) {
+			writeString(element.getTagName());
+			NamedNodeMap attributes = element.getAttributes();
+			writeVarLong(attributes.getLength());
+			for (int i = 0; i < attributes.getLength(); i++) {
+				writeString(attributes.item(i).getNodeName());
+				writeString(attributes.item(i).getNodeValue());
+			}
+			List<Node> childs = new ArrayList<>();
+			boolean elements = false, texts = false;
+			for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling())
+				if (child.getNodeType() == Node.ELEMENT_NODE) {
+					childs.add(child);
+					elements = true;
+				} else if ((child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE)
+						&& child.getNodeValue().trim().length() > 0) {
+					childs.add(child);
+					texts = true;
+				}
+			if (elements && texts) {
+				writeVarLong(MIXED);
+				writeVarLong(childs.size());
+				for (Node child : childs)
+					if (child.getNodeType() == Node.ELEMENT_NODE) {
+						writeVarLong(0);
+						writeElement((Element) child);
+					} else {
+						writeVarLong(1);
+						writeString(child.getNodeValue().trim());
+					}
+			} else if (elements) {
+				writeVarLong(ELEMENTS);
+				writeVarLong(childs.size());
+				for (Node child : childs)
+					writeElement((Element) child);
+			} else if (texts)
+				writeText(element, element.getTextContent().trim());
+			else
+				writeVarLong(EMPTY);
+		}
+
+		private void writeText(Element element, String s) {
+			String tag = element.getTagName();
+			if ((tag.equals(TypeChild.supports.name()) || tag.equals(TypeChild.conflicts.name())) && s.charAt(0) == '(') {
+				Node parent = element.getParentNode();
+				if (parent instanceof Element && ((Element) parent).getTagName().equals(TypeCtr.extension.name())
+						&& ((Element) parent).getAttribute(TypeAtt.type.name()).length() == 0) {
+					long[] cells = table(s);
+					if (cells != null) {
+						int arity = s.substring(1, s.indexOf(')')).split(",", -1).length;
+						writeVarLong(TABLE);
+						writeVarLong(arity);
+						writeVarLong(cells.length / arity);
+						for (long cell : cells)
+							writeVarLong(cell == Constants.STAR_LONG ? 0 : ((cell << 1) ^ (cell >> 63)) + 1);
+						return;
+					}
+				}
+			}
+			if ((tag.equals(TypeCtr.intension.name()) || tag.equals(TypeChild.function.name())) && s.indexOf('(') != -1) {
+				Object tree = tree(s);
+				if (tree != null) {
+					writeVarLong(EXPRESSION);
+					writeTree(tree);
+					return;
+				}
+			}
+			String[] tokens = WHITESPACE.split(s);
+			long[] integers = integers(tokens);
+			if (integers != null) {
+				writeVarLong(INTEGERS);
+				writeVarLong(tokens.length);
+				for (int i = 0, j = 0; i < tokens.length; i++) {
+					boolean interval = tokens[i].indexOf("..") != -1;
+					long v = integers[j++];
+					writeVarLong((((v << 1) ^ (v >> 63)) << 1) | (interval ? 1 : 0));
+					if (interval)
+						writeZigzag(integers[j++]);
+				}
+				return;
+			}
+			writeVarLong(TOKENS);
+			writeVarLong(tokens.length);
+			for (String token : tokens)
+				writeString(token);
+		}
+
+		private void writeTree(Object tree) {
+			if (tree instanceof Object[]) {
+				Object[] t = (Object[]) tree;
+				writeVarLong(OPERATOR);
+				writeString((String) t[0]);
+				writeVarLong(t.length - 1);
+				for (int i = 1; i < t.length; i++)
+					writeTree(t[i]);
+			} else if (tree instanceof Long) {
+				writeVarLong(VALUE);
+				writeZigzag((Long) tree);
+			} else {
+				writeVarLong(LEAF);
+				writeString((String) tree);
+			}
+		}
+
+		private void save(Document document, OutputStream out) throws IOException {
+			writeElement(document.getDocumentElement());
+			ByteArrayOutputStream header = new ByteArrayOutputStream();
+			header.write(MAGIC);
+			writeVarLong(header, VERSION);
+			writeVarLong(header, table.size());
+			for (String s : table) {
+				byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+				writeVarLong(header, bytes.length);
+				header.write(bytes);
+			}
+			header.writeTo(out);
+			body.writeTo(out);
+			out.flush();
+		}
+	}
+
+	/** Returns the integer represented by the specified token if it can be encoded, or null. */
+	private static Long integer(String token) {
+		if (!INTEGER.matcher(token).matches())
+			return null;
+		long v = Long.parseLong(token);
+		return Math.abs(v) < LIMIT ? v : null;
+	}
+
+	/**
+	 * Returns the values of the specified tokens if they all represent integers or intervals (two values being given for an interval), or null.
+	 */
+	private static long[] integers(String[] tokens) {
+		long[] t = new long[tokens.length * 2];
+		int size = 0;
+		for (String token : tokens) {
+			int pos = token.indexOf("..");
+			Long v1 = integer(pos == -1 ? token : token.substring(0, pos)), v2 = pos == -1 ? v1 : integer(token.substring(pos + 2));
+			if (v1 == null || v2 == null)
+				return null;
+			t[size++] = v1;
+			if (pos != -1)
+				t[size++] = v2;
+		}
+		return Arrays.copyOf(t, size);
+	}
+
+	/** Returns the cells of the specified textual table (Constants.STAR_LONG for *) if it only contains integers and has tuples of the same arity, or null. */
+	private static long[] table(String s) {
+		if (s.charAt(s.length() - 1) != ')')
+			return null;
+		String[] tuples = s.substring(1, s.length() - 1).split("\\)\\s*\\(", -1);
+		int arity = tuples[0].split(",", -1).length;
+		long[] cells = new long[tuples.length * arity];
+		int size = 0;
+		for (String tuple : tuples) {
+			String[] toks = tuple.split(",", -1);
+			if (toks.length != arity)
+				return null;
+			for (String tok : toks) {
+				tok = tok.trim();
+				Long v = tok.equals(Constants.STAR_SYMBOL) ? Long.valueOf(Constants.STAR_LONG) : integer(tok);
+				if (v == null)
+					return null;
+				cells[size++] = v;
+			}
+		}
+		return cells;
+	}
+
+	/**
+	 * Returns a tree representing the specified functional expression, or null if the expression is not well-formed. A tree is either a token (String), a value
+	 * (Long) or an array whose first cell is the name of the operator and the other cells the sons.
+	 */
+	private static Object tree(String s) {
+		s = s.trim();
+		int left = s.indexOf('(');
+		if (left == -1) {
+			if (s.length() == 0 || WHITESPACE.matcher(s).find() || s.indexOf(')') != -1 || s.indexOf(',') != -1)
+				return null;
+			Long v = integer(s);
+			return v != null ? (Object) v : s;
+		}
+		String name = s.substring(0, left).trim();
+		if (name.length() == 0 || !name.chars().allMatch(c -> Character.isLetterOrDigit(c)) || s.charAt(s.length() - 1) != ')')
+			return null;
+		String content = s.substring(left + 1, s.length() - 1);
+		List<Object> list = new ArrayList<>();
+		list.add(name);
+		if (content.trim().length() > 0) {
+			int nOpens = 0, start = 0;
+			for (int i = 0; i <= content.length(); i++) {
+				char c = i == content.length() ? ',' : content.charAt(i);
+				if (c == '(')
+					nOpens++;
+				else if (c == ')' && --nOpens < 0)
+					return null;
+				else if (c == ',' && nOpens == 0) {
+					Object son = tree(content.substring(start, i));
+					if (son == null)
+						return null;
+					list.add(son);
+					start = i + 1;
+				}
+			}
+			if (nOpens != 0)
+				return null;
+		}
+		return list.toArray();
+	}
+
+	/**
+	 * Saves the specified XCSP3 document in binary form in the specified output stream. The stream is flushed but not closed.
+	 */
+	public static void save(Document document, OutputStream out) throws IOException {
+		new Writer().save(document, out);
+	}
+
+	/**********************************************************************************************
+	 * Loading
+	 *********************************************************************************************/
+
+	private static class Reader {
+		private final DataInputStream in;
+
+		private final Document document;
+
+		private final boolean textualTables;
+
+		private String[] table;
+
+		private Reader(InputStream in, boolean textualTables) throws Exception {
+			this.in = new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in, 1 << 16));
+			this.document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+			this.textualTables = textualTables;
+		}
+
+		private long readVarLong() throws IOException {
+			long v = 0;
+			for (int shift = 0;; shift += 7) {
+				int b = in.read();
+				if (b == -1)
+					throw new EOFException("Truncated binary XCSP3 file");
+				v |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+					return v;
+			}
+		}
+
+		private int readVarInt() throws IOException {
+			long v = readVarLong();
+			Utilities.control(0 <= v && v <= Integer.MAX_VALUE, "Bad binary XCSP3 file");
+			return (int) v;
+		}
+
+		private long readZigzag() throws IOException {
+			long v = readVarLong();
+			return (v >>> 1) ^ -(v & 1);
+		}
+
+		private String readString() throws IOException {
+			return table[readVarInt()];
+		}
+
+		private Element readElement() throws IOException {
+			Element element = document.createElement(readString());
+			for (int i = readVarInt(); i > 0; i--)
+				element.setAttribute(readString(), readString());
+			int content = readVarInt();
+			if (content == ELEMENTS) {
+				for (int i = readVarInt(); i > 0; i--)
+					element.appendChild(readElement());
+			} else if (content == MIXED) {
+				for (int i = readVarInt(); i > 0; i--)
+					element.appendChild(readVarInt() == 0 ? readElement() : document.createTextNode(readString()));
+			} else if (content == TOKENS) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = readVarInt(); i > 0; i--)
+					sb.append(readString()).append(i > 1 ? " " : "");
+				element.appendChild(document.createTextNode(sb.toString()));
+			} else if (content == INTEGERS) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = readVarInt(); i > 0; i--) {
+					long v = readVarLong();
+					long first = ((v >>> 1) >>> 1) ^ -((v >>> 1) & 1);
+					sb.append(first);
+					if ((v & 1) == 1)
+						sb.append("..").append(readZigzag());
+					sb.append(i > 1 ? " " : "");
+				}
+				element.appendChild(document.createTextNode(sb.toString()));
+			} else if (content == TABLE) {
+				int arity = readVarInt(), nTuples = readVarInt();
+				long[] cells = new long[Math.multiplyExact(arity, nTuples)];
+				for (int i = 0; i < cells.length; i++) {
+					long v = readVarLong();
+					cells[i] = v == 0 ? Constants.STAR_LONG : ((v - 1) >>> 1) ^ -((v - 1) & 1);
+				}
+				Tuples tuples = new Tuples(arity, cells);
+				element.setUserData(TUPLES, tuples, null);
+				if (textualTables)
+					element.appendChild(document.createTextNode(tuples.toString()));
+			} else if (content == EXPRESSION) {
+				StringBuilder sb = new StringBuilder();
+				readTree(sb);
+				element.appendChild(document.createTextNode(sb.toString()));
+			} else
+				Utilities.control(content == EMPTY, "Bad binary XCSP3 file");
+			return element;
+		}
+
+		private void readTree(StringBuilder sb) throws IOException {
+			int kind = readVarInt();
+			if (kind == OPERATOR) {
+				sb.append(readString()).append('(');
+				for (int i = readVarInt(); i > 0; i--) {
+					readTree(sb);
+					if (i > 1)
+						sb.append(',');
+				}
+				sb.append(')');
+			} else if (kind == VALUE)
+				sb.append(readZigzag());
+			else
+				sb.append(readString());
+		}
+
+		private Document load() throws IOException {
+			byte[] magic = new byte[MAGIC.length];
+			in.readFully(magic);
+			Utilities.control(Arrays.equals(magic, MAGIC), "Not a binary XCSP3 file");
+			int version = readVarInt();
+			Utilities.control(version == VERSION, "Unsupported version " + version + " of binary XCSP3 file");
+			table = new String[readVarInt()];
+			for (int i = 0; i < table.length; i++) {
+				byte[] bytes = new byte[readVarInt()];
+				in.readFully(bytes);
+				table[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+			document.appendChild(readElement());
+			return document;
+		}
+	}
+
+	/**
+	 * Loads the XCSP3 document saved in binary form in the specified input stream. If textualTables is false, tables are only attached (as user data, see
+	 * TUPLES) to their elements, and so, the document cannot be saved as is in XML form; otherwise, the text of tables is also rebuilt.
+	 */
+	public static Document load(InputStream in, boolean textualTables) throws Exception {
+		return new Reader(in, textualTables).load();
+	}
+
+	/**
+	 * Loads the XCSP3 document saved in binary form in the specified input stream. Tables are only attached (as user data, see TUPLES) to their elements.
+	 */
+	public static Document load(InputStream in) throws Exception {
+		return load(in, false);
+	}
+
+	/** Returns true if the specified file name denotes a binary XCSP3 file (possibly compressed). Only the extension of the file name is considered. */
+	public static boolean isBinary(String fileName) {
+		return Stream.of("", ".gz", ".xz", ".lzma").anyMatch(ext -> fileName.endsWith(SUFFIX + ext));
+	}
+
+	/**
+	 * Loads the XCSP3 document saved in binary form in the specified file, which can be compressed (the extension .gz, .xz or .lzma being then used). If
+	 * textualTables is false, tables are only attached (as user data, see TUPLES) to their elements; otherwise, the text of tables is also rebuilt.
+	 */
+	public static Document load(String fileName, boolean textualTables) throws Exception {
+		InputStream in = new BufferedInputStream(new FileInputStream(fileName), 1 << 16);
+		if (fileName.endsWith(".gz"))
+			in = new GZIPInputStream(in, 1 << 16);
+		else if (fileName.endsWith(".xz"))
+			in = new XZInputStream(in);
+		else if (fileName.endsWith(".lzma"))
+			in = new LZMAInputStream(in);
+		try (InputStream is = in) {
+			return load(is, textualTables);
+		}
+	}
+
+	/**
+	 * Loads the XCSP3 document saved in binary form in the specified file, which can be compressed (the extension .gz, .xz or .lzma being then used). Tables
+	 * are only attached (as user data, see TUPLES) to their elements.
+	 */
+	public static Document load(String fileName) throws Exception {
+		return load(fileName, false);
+	}
+}
@@ -21,9 +21,13 @@ import static org.xcsp.common.Constants.PLUS_INFINITY;
 import static org.xcsp.common.Constants.PLUS_INFINITY_STRING;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.lang.reflect.Array;
 import java.math.BigInteger;
@@ -402,7 +406,7 @@ public class Utilities {
 	public static Object control(boolean condition, String message) {
 		if (!condition) {
 			System.out.println("\n\nFatal Error: " + message);
-			throw new RuntimeException();
+			throw new RuntimeException(message);
 			// System.exit(1);
 		}
 		return null;
@@ -652,18 +656,91 @@ public class Utilities {
 	// ***** Methods for XML
 	// ************************************************************************
 
-	/** Method that loads an XML document, using the specified file name. */
+	/**
+	 * Method that loads an XML document, using the specified file name. Binary XCSP3 files (see BinaryFormat) are also accepted, the text of their tables
+	 * being rebuilt so that the document can be saved or converted as any other one.
+	 */
 	public static Document loadDocument(String fileName) throws Exception {
 		Utilities.control(new File(fileName).exists(), "Filename " + fileName + " not found\n");
-		if (fileName.endsWith("xml.bz2") || fileName.endsWith("xml.lzma")) {
-			Process p = Runtime.getRuntime().exec((fileName.endsWith("xml.bz2") ? "bunzip2 -c " : "lzma -c -d ") + fileName);
-			Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(p.getInputStream());
-			p.waitFor();
-			return document;
-		} else
+		if (BinaryFormat.isBinary(fileName))
+			return BinaryFormat.load(fileName, true);
+		if (fileName.endsWith("xml.bz2") || fileName.endsWith("xml.lzma"))
+			return decompress(fileName, in -> DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in)); // parsed while decompressed
+		else
 			return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new FileInputStream(new File(fileName)));
 	}
 
+	private static void copy(InputStream in, ByteArrayOutputStream out) throws IOException {
+		byte[] buffer = new byte[1 << 16];
+		for (int n = in.read(buffer); n != -1; n = in.read(buffer))
+			out.write(buffer, 0, n);
+	}
+
+	/** Interface for reading a stream, possibly throwing a checked exception. */
+	private interface StreamReader<T> {
+		T read(InputStream in) throws Exception;
+	}
+
+	/**
+	 * Returns the content of the specified compressed file (xml.lzma or xml.bz2), after decompression by means of an external tool. An exception (with the
+	 * error output of the tool) is thrown if the tool cannot be run or fails.
+	 */
+	public static byte[] decompress(String fileName) throws Exception {
+		return decompress(fileName, in -> {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			copy(in, out);
+			return out.toByteArray();
+		});
+	}
+
+	/**
+	 * Returns the result of the specified reader applied to the output of the external tool decompressing the specified file (xml.lzma or xml.bz2), as it is
+	 * produced. The exit status of the tool is checked once the reader is done: an exception with the error output of the tool is thrown if it failed, even
+	 * if the reader itself failed (on a truncated output, for example).
+	 */
+	private static <T> T decompress(String fileName, StreamReader<T> reader) throws Exception {
+		Utilities.control(fileName.endsWith("xml.bz2") || fileName.endsWith("xml.lzma"), "Not a compressed file " + fileName);
+		Utilities.control(new File(fileName).exists(), "Filename " + fileName + " not found\n");
+		String[] command = fileName.endsWith("xml.bz2") ? new String[] { "bunzip2", "-c", fileName } : new String[] { "lzma", "-c", "-d", fileName };
+		Process p;
+		try {
+			p = new ProcessBuilder(command).start();
+		} catch (IOException e) {
+			throw new IOException("Unable to run " + command[0] + " for decompressing " + fileName + " (" + e.getMessage() + ")", e);
+		}
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		Thread errReader = new Thread(() -> { // the error output is drained concurrently so that the tool cannot block on it
+			try (InputStream in = p.getErrorStream()) {
+				copy(in, err);
+			} catch (IOException e) {
+			}
+		});
+		errReader.start();
+		T result = null;
+		Exception failure = null;
+		try (InputStream in = p.getInputStream()) {
+			try {
+				result = reader.read(new FilterInputStream(in) {
+					@Override
+					public void close() { // the stream is closed below (parsers close the streams they read)
+					}
+				});
+			} catch (Exception e) {
+				failure = e;
+			}
+			byte[] buffer = new byte[1 << 16];
+			while (in.read(buffer) != -1) // the rest of the output (if any) is consumed so that the tool can terminate normally
+				;
+		}
+		int status = p.waitFor();
+		errReader.join();
+		if (status != 0) // if the reader failed too, it was most likely because the output was truncated
+			throw new IOException(command[0] + " failed (exit status " + status + ") when decompressing " + fileName + ": " + err.toString().trim(), failure);
+		if (failure != null)
+			throw failure;
+		return result;
+	}
+
 	public static void save(Document document, PrintWriter out) {
 		try {
 			Transformer transformer = TransformerFactory.newInstance().newTransformer();
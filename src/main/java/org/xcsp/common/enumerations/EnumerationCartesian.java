@@ -10,9 +10,9 @@ package org.xcsp.common.enumerations;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -24,7 +24,7 @@ import org.xcsp.common.Utilities;
  */
 public class EnumerationCartesian extends EnumerationAbstract {
 
-	private static Map<String, int[][]> cacheOfTuples;
+	private static final Map<String, int[][]> cacheOfTuples = new ConcurrentHashMap<>(); // concurrent because instances can be generated in parallel
 
 	/**
 	 * Returns an array with all tuples of the specified length such that for each tuple:
@@ -45,8 +45,6 @@ public class EnumerationCartesian extends EnumerationAbstract {
 	 * @return an array with all tuples of the specified length that respect a sum equality and an allDifferent restriction
 	 */
 	public static int[][] tuplesWithDiffValuesSummingTo(int limit, int nValues, int tupleLength, int offset) {
-		if (cacheOfTuples == null)
-			cacheOfTuples = new LinkedHashMap<>();
 		String key = limit + "_" + nValues + "_" + tupleLength + "_" + offset;
 		int[][] tuples = cacheOfTuples.get(key);
 		if (tuples != null)
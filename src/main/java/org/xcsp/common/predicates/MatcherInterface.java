@@ -29,6 +29,7 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.xcsp.common.IVar;
+import org.xcsp.common.Types.TypeExpr;
 
 /**
  * This interface is used to test if a specified (source) tree matches a predefined target tree. Some kind of abstraction can be used by means of special nodes.
@@ -40,6 +41,22 @@ public interface MatcherInterface {
 
 	enum AbstractOperation {
 		ariop, relop, setop, unalop, symop; // logop
+
+		/** Returns true if a node of the specified type is an operation represented by this abstract operation. */
+		boolean covers(TypeExpr type) {
+			switch (this) {
+			case ariop:
+				return type.isArithmeticOperator();
+			case relop:
+				return type.isRelationalOperator();
+			case setop:
+				return type.oneOf(IN, NOTIN);
+			case unalop:
+				return type.oneOf(ABS, NEG, SQR, NOT);
+			default:
+				return type.oneOf(EQ, NE);
+			}
+		}
 	}
 
 	XNodeLeaf<IVar> any = specialLeaf("any");
@@ -168,6 +185,7 @@ public interface MatcherInterface {
 			return source.type == ADD && source.sons.length > 2 && source.sons[source.sons.length - 1].type == LONG
 					&& IntStream.range(0, source.sons.length - 1).allMatch(i -> source.sons[i].type == VAR || x_mul_k.matches(source.sons[i]));
 
+		// below, the types of nodes must be the same as those recorded for trivial0 and trivial1 in the index of rules of XNodeParent.Canonizer
 		if (target == trivial0) // other trivial cases equivalent to 0 (false)?
 			return source.type.oneOf(NE, LT, GT) && source.sons.length == 2 && source.sons[0].type == VAR && source.sons[1].type == VAR
 					&& ((XNodeLeaf<?>) source.sons[0]).value == ((XNodeLeaf<?>) source.sons[1]).value;
@@ -182,22 +200,8 @@ public interface MatcherInterface {
 			return false;
 		if (target.type == SPECIAL) {
 			if (target instanceof XNodeParentSpecial) {
-				AbstractOperation ao = AbstractOperation.valueOf(((XNodeParentSpecial<?>) target).specialName);
-				if (ao == AbstractOperation.ariop)
-					if (!source.type.isArithmeticOperator())
-						return false;
-				if (ao == AbstractOperation.relop)
-					if (!source.type.isRelationalOperator())
-						return false;
-				if (ao == AbstractOperation.setop)
-					if (!source.type.oneOf(IN, NOTIN))
-						return false;
-				if (ao == AbstractOperation.unalop)
-					if (!source.type.oneOf(ABS, NEG, SQR, NOT))
-						return false;
-				if (ao == AbstractOperation.symop)
-					if (!source.type.oneOf(EQ, NE))
-						return false;
+				if (!AbstractOperation.valueOf(((XNodeParentSpecial<?>) target).specialName).covers(source.type))
+					return false;
 			} else if (!validForSpecialTargetNode(source, level))
 				return false;
 
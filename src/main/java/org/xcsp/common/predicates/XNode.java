@@ -152,6 +152,12 @@ public abstract class XNode<V extends IVar> implements Comparable<XNode<V>> {
 	 */
 	public final XNode<V>[] sons;
 
+	/**
+	 * Indicates if the node is known to be in canonical form (i.e., is the result of a canonization), in which case canonization is useless. It is only set
+	 * for parent nodes, and it is reset if the node is modified.
+	 */
+	boolean canonical;
+
 	/**
 	 * Builds a node for a syntactic tree, with the specified type and the specified sons (children).
 	 * 
@@ -187,6 +193,7 @@ public abstract class XNode<V extends IVar> implements Comparable<XNode<V>> {
 	public final XNode<V> logicalInversion() {
 		assert type.isLogicallyInvertible();
 		type = type.logicalInversion();
+		canonical = false;
 		return this;
 	}
 
@@ -20,6 +20,8 @@ import static org.xcsp.common.Types.TypeExpr.AND;
 import static org.xcsp.common.Types.TypeExpr.DIST;
 import static org.xcsp.common.Types.TypeExpr.DIV;
 import static org.xcsp.common.Types.TypeExpr.EQ;
+import static org.xcsp.common.Types.TypeExpr.GE;
+import static org.xcsp.common.Types.TypeExpr.GT;
 import static org.xcsp.common.Types.TypeExpr.IF;
 import static org.xcsp.common.Types.TypeExpr.IFF;
 import static org.xcsp.common.Types.TypeExpr.IMP;
@@ -30,6 +32,7 @@ import static org.xcsp.common.Types.TypeExpr.MAX;
 import static org.xcsp.common.Types.TypeExpr.MIN;
 import static org.xcsp.common.Types.TypeExpr.MOD;
 import static org.xcsp.common.Types.TypeExpr.MUL;
+import static org.xcsp.common.Types.TypeExpr.NE;
 import static org.xcsp.common.Types.TypeExpr.NEG;
 import static org.xcsp.common.Types.TypeExpr.NOT;
 import static org.xcsp.common.Types.TypeExpr.OR;
@@ -49,8 +52,10 @@ import static org.xcsp.common.predicates.MatcherInterface.var_add_val;
 import static org.xcsp.common.predicates.MatcherInterface.AbstractOperation.relop;
 import static org.xcsp.common.predicates.MatcherInterface.AbstractOperation.symop;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -67,6 +72,7 @@ import org.xcsp.common.IVar.Var;
 import org.xcsp.common.Range;
 import org.xcsp.common.Types.TypeExpr;
 import org.xcsp.common.Utilities;
+import org.xcsp.common.predicates.MatcherInterface.AbstractOperation;
 import org.xcsp.common.predicates.MatcherInterface.Matcher;
 import org.xcsp.parser.entries.XConstraints.XParameter;
 
@@ -294,6 +300,21 @@ public class XNodeParent<V extends IVar> extends XNode<V> {
 	// }
 
 	private static class Canonizer<W extends IVar> {
+		/**
+		 * The types of the nodes that may be matched by the rules whose target tree is rooted by a special node (when they are not all possible types). It is
+		 * declared first, because it is filled when building the matchers (see rootedAt).
+		 */
+		private Map<Matcher, TypeExpr[]> rootTypes = new HashMap<>();
+
+		/** Returns a matcher for a node whose type is one of those specified and that satisfies the specified predicate; the types are recorded in rootTypes. */
+		private Matcher rootedAt(TypeExpr[] types, Predicate<XNode<? extends IVar>> p) {
+			Matcher matcher = new Matcher(anyc, (node, level) -> level == 0 && node.type.oneOf(types) && p.test(node));
+			rootTypes.put(matcher, types);
+			return matcher;
+		}
+
+		private static final TypeExpr[] ASSOCIATIVE_TYPES = { ADD, MUL, MIN, MAX, AND, OR };
+
 		private Matcher abs_sub = new Matcher(node(ABS, node(SUB, any, any)));
 		private Matcher sub_sub = new Matcher(node(SUB, node(SUB, var, val), val));
 		private Matcher not_not = new Matcher(node(NOT, node(NOT, any)));
@@ -302,8 +323,8 @@ public class XNodeParent<V extends IVar> extends XNode<V> {
 		private Matcher mul_0 = new Matcher(node(MUL, any, anyc), (node, level) -> level == 1 && node.type == LONG && node.val(0) == 0);
 		private Matcher mul_1 = new Matcher(node(MUL, any, anyc), (node, level) -> level == 1 && node.type == LONG && node.val(0) == 1);
 		private Matcher div_1 = new Matcher(node(DIV, any, anyc), (node, level) -> level == 1 && node.type == LONG && node.val(0) == 1);
-		private Matcher mod_var_val = new Matcher(anyc, (node, level) -> {
-			if (level != 0 || node.type != MOD || node.sons[0].type != VAR || node.sons[1].type != LONG)
+		private Matcher mod_var_val = rootedAt(new TypeExpr[] { MOD }, node -> {
+			if (node.sons[0].type != VAR || node.sons[1].type != LONG)
 				return false;
 			Var x = (Var) ((XNodeLeaf<?>) node.sons[0]).value;
 			return 0 <= x.firstValue() && x.lastValue() < node.val(0);
@@ -318,14 +339,13 @@ public class XNodeParent<V extends IVar> extends XNode<V> {
 		private Matcher not_symrel_any = new Matcher(node(symop, not, any)); // , (node, level) -> level == 0 && node.type.oneOf(EQ, NE));
 		private Matcher any_symrel_not = new Matcher(node(symop, any, not)); // , (node, level) -> level == 0 && node.type.oneOf(EQ, NE));
 		private Matcher x_mul_k__eq_l = new Matcher(node(EQ, node(MUL, var, val), val));
-		private Matcher flattenable = new Matcher(anyc,
-				(node, level) -> level == 0 && node.type.oneOf(ADD, MUL, MIN, MAX, AND, OR) && Stream.of(node.sons).anyMatch(s -> s.type == node.type));
-		private Matcher mergeable = new Matcher(anyc, (node, level) -> level == 0 && node.type.oneOf(ADD, MUL, MIN, MAX, AND, OR) && node.sons.length >= 2
-				&& node.sons[node.sons.length - 1].type == LONG && node.sons[node.sons.length - 2].type == LONG);
+		private Matcher flattenable = rootedAt(ASSOCIATIVE_TYPES, node -> Stream.of(node.sons).anyMatch(s -> s.type == node.type));
+		private Matcher mergeable = rootedAt(ASSOCIATIVE_TYPES,
+				node -> node.sons.length >= 2 && node.sons[node.sons.length - 1].type == LONG && node.sons[node.sons.length - 2].type == LONG);
 
-		private Matcher eq_eq_var_1__any = new Matcher(anyc,
-				(node, level) -> level == 0 && node.type == EQ && node.sons.length == 2 && node.sons[0].type == EQ && node.sons[0].sons.length == 2
-						&& node.sons[0].sons[0].type == VAR && node.sons[0].sons[1].type == LONG && ((Var) node.var(0)).isZeroOne() && node.val(0) == 1);
+		private Matcher eq_eq_var_1__any = rootedAt(new TypeExpr[] { EQ },
+				node -> node.sons.length == 2 && node.sons[0].type == EQ && node.sons[0].sons.length == 2 && node.sons[0].sons[0].type == VAR
+						&& node.sons[0].sons[1].type == LONG && ((Var) node.var(0)).isZeroOne() && node.val(0) == 1);
 
 		private Matcher sub_relop_sub = new Matcher(node(relop, sub, sub));
 		private Matcher any_relop_sub = new Matcher(node(relop, any, sub));
@@ -343,6 +363,7 @@ public class XNodeParent<V extends IVar> extends XNode<V> {
 		private Matcher if_0__ = new Matcher(node(IF, Stream.of(any, anyc, any)), (node, level) -> level == 1 && node.type == LONG && node.val(0) == 0);
 		private Matcher if__0_ = new Matcher(node(IF, Stream.of(any, any, anyc)), (node, level) -> level == 1 && node.type == LONG && node.val(0) == 0);
 
+		// the types of the nodes matched by trivial0 and trivial1 are tested in MatcherInterface.matching, and must be the same as those put in rootTypes
 		private Matcher tr0 = new Matcher(trivial0);
 		private Matcher tr1 = new Matcher(trivial1);
 
@@ -350,6 +371,15 @@ public class XNodeParent<V extends IVar> extends XNode<V> {
 
 		private Map<Matcher, Function<XNodeParent<W>, XNode<W>>> rules = new LinkedHashMap<>();
 
+		/** Any arity greater than or equal to this value is represented by this value in the index. */
+		private static final int MAX_ARITY = 4;
+
+		/**
+		 * The rules that may apply to a node, indexed by the ordinal of its type and its arity (see MAX_ARITY), and kept in the order of their insertion in
+		 * rules, so that the first matching rule is the same as when iterating over all rules.
+		 */
+		private List<List<Entry<Matcher, Function<XNodeParent<W>, XNode<W>>>>> index;
+
 		private Canonizer() {
 			rules.put(abs_sub, r -> node(DIST, r.sons[0].sons)); // abs(sub(a,b)) => dist(a,b)
 			rules.put(sub_sub, r -> node(SUB, r.sons[0].sons[0], longLeaf(r.val(0) + r.val(1)))); // sub(sub(x,k1),k2) => sub(x,k1+k2)
@@ -401,7 +431,7 @@ public class XNodeParent<V extends IVar> extends XNode<V> {
 
 			rules.put(val__relop__var_add_val, r -> node(r.type, longLeaf(r.sons[0].val(0) - r.sons[1].sons[1].val(0)), r.sons[1].sons[0]));
 
-			rules.put(imp_logop, r -> node(OR, r.sons[0].type == VAR ? node(EQ, r.sons[0], longLeaf(0)) : r.sons[0].logicalInversion(), r.sons[1]));
+			rules.put(imp_logop, r -> node(OR, r.sons[0].type == VAR ? node(EQ, r.sons[0], longLeaf(0)) : r.sons[0].logicalInversionShallowCopy(), r.sons[1]));
 			// just above, seems better to do that
 
 			rules.put(imp_not, r -> node(OR, r.sons[0].sons[0], r.sons[1]));
@@ -414,6 +444,35 @@ public class XNodeParent<V extends IVar> extends XNode<V> {
 			rules.put(tr1, r -> longLeaf(1));
 
 			// rules.put(imp_anyc_or, r -> node(OR, r.sons[0].logicalInversion(), r.sons[1]));
+
+			rootTypes.put(tr0, new TypeExpr[] { NE, LT, GT }); // see MatcherInterface.matching
+			rootTypes.put(tr1, new TypeExpr[] { EQ, LE, GE });
+
+			index = new ArrayList<>();
+			for (TypeExpr type : TypeExpr.values()) // the position of a list in the index is then type.ordinal() * (MAX_ARITY + 1) + arity
+				for (int arity = 0; arity <= MAX_ARITY; arity++) {
+					int a = arity;
+					index.add(rules.entrySet().stream().filter(e -> mayMatch(e.getKey(), type, a)).collect(toList()));
+				}
+		}
+
+		/** Returns true if the specified matcher may match a node of the specified type and arity (see MAX_ARITY). */
+		private boolean mayMatch(Matcher matcher, TypeExpr type, int arity) {
+			XNode<IVar> target = matcher.target();
+			if (target instanceof XNodeLeaf) { // special node whose conditions are not inspected
+				TypeExpr[] t = rootTypes.get(matcher);
+				return t == null || type.oneOf(t);
+			}
+			int l = target.sons.length;
+			if (arity == MAX_ARITY ? l < MAX_ARITY : l != arity)
+				return false;
+			return target instanceof XNodeParentSpecial ? AbstractOperation.valueOf(((XNodeParentSpecial<?>) target).specialName).covers(type)
+					: target.type == type;
+		}
+
+		/** Returns the rules that may apply to a node of the specified type and arity. */
+		private List<Entry<Matcher, Function<XNodeParent<W>, XNode<W>>>> rulesFor(TypeExpr type, int arity) {
+			return index.get(type.ordinal() * (MAX_ARITY + 1) + Math.min(arity, MAX_ARITY));
 		}
 
 		private XNode<W> augment(XNode<W> n, int offset) {
@@ -434,10 +493,24 @@ public class XNodeParent<V extends IVar> extends XNode<V> {
 
 	@Override
 	public XNode<V> canonization() {
+		return canonization(true);
+	}
+
+	private static <V extends IVar> XNode<V> canonization(XNode<V> node, boolean indexed) {
+		return node instanceof XNodeParent ? ((XNodeParent<V>) node).canonization(indexed) : node.canonization();
+	}
+
+	/**
+	 * Returns the canonized form of this node. When indexed is false, all rules are tried (in order) for each node, instead of only those given by the index
+	 * for its type and arity; the outcome must be the same, which allows us to test the index.
+	 */
+	XNode<V> canonization(boolean indexed) {
+		if (canonical)
+			return this; // canonized forms are fixed points
 		// We will build the canonized form of the node, with the local variables type and sons
 		TypeExpr type = this.type; // possibly, this initial value of type will be modified during canonization
 		XNode<V>[] sons = this.sons.clone();
-		IntStream.range(0, sons.length).forEach(i -> sons[i] = sons[i].canonization()); // sons are made canonical
+		IntStream.range(0, sons.length).forEach(i -> sons[i] = canonization(sons[i], indexed)); // sons are made canonical
 		if (type.isSymmetricOperator())
 			Arrays.sort(sons); // Sons are sorted if the type of the node is symmetric
 		// Now, sons are potentially sorted if the type corresponds to a non-symmetric binary relational operator (in
@@ -450,9 +523,11 @@ public class XNodeParent<V extends IVar> extends XNode<V> {
 		if (sons.length == 1 && type.isIdentityWhenOneOperand()) // add(x) becomes x, min(x) becomes x, ...
 			return sons[0]; // certainly can happen during the canonization process
 		XNodeParent<V> node = node(type, sons);
-		Entry<Matcher, Function<XNodeParent<V>, XNode<V>>> rule = canonizer().rules.entrySet().stream().filter(e -> e.getKey().matches(node)).findFirst()
-				.orElse(null);
-		return rule != null ? rule.getValue().apply(node).canonization() : node;
+		for (Entry<Matcher, Function<XNodeParent<V>, XNode<V>>> rule : indexed ? canonizer().rulesFor(type, sons.length) : canonizer().rules.entrySet())
+			if (rule.getKey().matches(node))
+				return canonization(rule.getValue().apply(node), indexed);
+		node.canonical = true;
+		return node;
 	}
 
 	private XNode<V> buildNewTreeUsing(Function<XNode<V>, XNode<V>> f) {
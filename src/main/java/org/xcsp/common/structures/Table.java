@@ -2,12 +2,8 @@ package org.xcsp.common.structures;
 
 import static org.xcsp.common.Constants.STAR;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.Set;
-import java.util.TreeSet;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -18,7 +14,6 @@ import org.xcsp.common.Constants;
 import org.xcsp.common.Range;
 import org.xcsp.common.Range.Rangesx2;
 import org.xcsp.common.Utilities;
-import org.xcsp.common.enumerations.EnumerationCartesian;
 
 /**
  * This class allows us to represent integer tables that are useful objects when defining {@code extension} constraints.
@@ -33,16 +28,14 @@ public class Table extends TableAbstract {
 	 * @return an array of tuples in lexicographic order, and without any duplicates
 	 */
 	public static int[][] clean(int[]... tuples) {
-		Set<int[]> set = new TreeSet<>(Utilities.lexComparatorInt);
 		for (int i = 0; i < tuples.length - 1; i++)
-			if (set.size() > 0)
-				set.add(tuples[i]);
-			else if (Utilities.lexComparatorInt.compare(tuples[i], tuples[i + 1]) >= 0)
-				for (int j = 0; j <= i; j++)
-					set.add(tuples[j]);
-		if (set.size() > 0)
-			set.add(tuples[tuples.length - 1]);
-		return set.size() == 0 ? tuples : set.stream().toArray(int[][]::new);
+			if (Utilities.lexComparatorInt.compare(tuples[i], tuples[i + 1]) >= 0) {
+				TupleBuffer buffer = new TupleBuffer(tuples[0].length, tuples.length);
+				for (int[] t : tuples)
+					buffer.add(t);
+				return buffer.sortedDistinct();
+			}
+		return tuples; // already in lexicographic order, without any duplicates
 	}
 
 	/**
@@ -57,20 +50,33 @@ public class Table extends TableAbstract {
 	}
 
 	public static int[][] toOrdinaryTable(int[][] shortTable, int[][] values) {
-		List<int[]> tuples = new ArrayList<>();
+		TupleBuffer buffer = new TupleBuffer(shortTable.length == 0 ? 0 : shortTable[0].length, shortTable.length);
 		for (int[] t : shortTable) {
 			int[] pos = IntStream.range(0, t.length).filter(i -> t[i] == STAR).toArray();
-			if (pos.length == 0)
-				tuples.add(t.clone());
-			else {
-				EnumerationCartesian ec = new EnumerationCartesian(
-						IntStream.range(0, t.length).mapToObj(i -> t[i] == STAR ? values[i] : new int[] { t[i] }).toArray(int[][]::new));
-				while (ec.hasNext())
-					tuples.add(ec.next().clone());
+			if (pos.length == 0) {
+				buffer.add(t);
+				continue;
+			}
+			if (IntStream.of(pos).anyMatch(p -> values[p].length == 0))
+				continue;
+			// we enumerate the Cartesian product of the values at the positions of stars, directly in the same tuple
+			int[] tuple = t.clone(), indexes = new int[pos.length];
+			for (int p : pos)
+				tuple[p] = values[p][0];
+			while (true) {
+				buffer.add(tuple);
+				int j = pos.length - 1;
+				while (j >= 0 && indexes[j] == values[pos[j]].length - 1) {
+					indexes[j] = 0;
+					tuple[pos[j]] = values[pos[j]][0];
+					j--;
+				}
+				if (j < 0)
+					break;
+				tuple[pos[j]] = values[pos[j]][++indexes[j]];
 			}
 		}
-		return tuples.stream().sorted(Utilities.lexComparatorInt).distinct().toArray(int[][]::new);
-		// return Kit.intArray2D(tuples);
+		return buffer.sortedDistinct();
 	}
 
 	public static int[][] toOrdinaryTable(int[][] shortTable, int... nValues) {
@@ -83,17 +89,16 @@ public class Table extends TableAbstract {
 		return this;
 	}
 
-	private List<int[]> list = new ArrayList<>();
+	private final TupleBuffer buffer = new TupleBuffer();
 
 	@Override
 	public int size() {
-		return list.size();
+		return buffer.size();
 	}
 
 	private Table addTuple(int[] tuple) {
 		Utilities.control(tuple != null && tuple.length > 0, "The tuple has a bad length");
-		Utilities.control(list.size() == 0 || list.get(0).length == tuple.length, "The tuple has a different length from those already recorded");
-		list.add(tuple);
+		buffer.add(tuple);
 		return this;
 	}
 
@@ -201,47 +206,78 @@ public class Table extends TableAbstract {
 		return this;
 	}
 
-	private int[] intersectionOf(int[] t1, int[] t2, int[] out) {
-		assert t1.length == t2.length;
-		for (int i = 0; i < t1.length; i++) {
-			if (t1[i] == t2[i])
-				out[i] = t1[i];
-			else if (t1[i] == STAR)
-				out[i] = t2[i];
-			else if (t2[i] == STAR)
-				out[i] = t1[i];
+	/** Returns the first position in [from,to[ where the value in column col of the tuples of m (lexicographically sorted) is greater than or equal to v. */
+	private static int lowerBound(int[][] m, int from, int to, int col, int v) {
+		while (from < to) {
+			int mid = (from + to) >>> 1;
+			if (m[mid][col] < v)
+				from = mid + 1;
 			else
-				return null;
+				to = mid;
+		}
+		return from;
+	}
+
+	/** Returns the first position in [from,to[ where the value in column col of the tuples of m (lexicographically sorted) is greater than v. */
+	private static int upperBound(int[][] m, int from, int to, int col, int v) {
+		while (from < to) {
+			int mid = (from + to) >>> 1;
+			if (m[mid][col] <= v)
+				from = mid + 1;
+			else
+				to = mid;
+		}
+		return from;
+	}
+
+	/**
+	 * Adds to the specified buffer the intersections of the tuple t1 with the tuples of m2 in [from,to[, knowing that they are compatible with t1 on the columns
+	 * before col (whose values are in out). The sorted array m2 is seen as a trie: the tuples with the same prefix form a range, where the children of a node
+	 * are the subranges of tuples with the same value at the current column. Only the children compatible with t1 are visited (for a value v of t1, those
+	 * with v and *), so that the cost depends on the number of partial matches rather than on the size of m2.
+	 */
+	private static void join(int[] t1, int[][] m2, int from, int to, int col, int[] out, TupleBuffer buffer) {
+		if (col == t1.length) {
+			buffer.add(out);
+			return;
+		}
+		if (t1[col] == STAR) {
+			for (int i = from; i < to;) {
+				int j = upperBound(m2, i, to, col, m2[i][col]);
+				out[col] = m2[i][col];
+				join(t1, m2, i, j, col + 1, out, buffer);
+				i = j;
+			}
+		} else {
+			int lo = lowerBound(m2, from, to, col, t1[col]), hi = upperBound(m2, lo, to, col, t1[col]);
+			out[col] = t1[col];
+			if (lo < hi)
+				join(t1, m2, lo, hi, col + 1, out, buffer);
+			lo = lowerBound(m2, from, to, col, STAR); // searched from scratch, since values greater than * may appear (e.g., Integer.MAX_VALUE)
+			hi = upperBound(m2, lo, to, col, STAR);
+			if (lo < hi)
+				join(t1, m2, lo, hi, col + 1, out, buffer);
 		}
-		return out;
 	}
 
 	public Table intersectionWith(Table other) {
 		Utilities.control(positive && other.positive, "Tables must be both positive");
-		int[][] m1 = this.toArray();
-		int[][] m2 = other.toArray();
+		int[][] m1 = this.buffer.sortedDistinct();
+		int[][] m2 = other.buffer.sortedDistinct();
+		Table table = new Table();
+		if (m1.length == 0 || m2.length == 0)
+			return table;
 		Utilities.control(m1[0].length == m2[0].length, "Not the same arity");
-		if (m1.length > m2.length) {
+		if (m1.length > m2.length) { // we iterate over the smallest table, and search in the largest one
 			int[][] m = m1;
 			m1 = m2;
 			m2 = m;
 		}
-		int[] tmp = new int[m1[0].length];
-		Set<int[]> setOfSupports = new TreeSet<>(Utilities.lexComparatorInt);
-		for (int[] t1 : m1) {
-			IntStream.range(0, tmp.length).forEach(i -> tmp[i] = t1[i] == STAR ? Integer.MIN_VALUE : t1[i]); // we compute tmp from t1
-			int index = Arrays.binarySearch(m2, tmp, Utilities.lexComparatorInt);
-			if (index >= 0)
-				setOfSupports.add(t1.clone());
-			else {
-				for (int i = -index - 1; i < m2.length; i++) {
-					// if (Utilities.lexicographicInt.compare(lowerTuple(m2[i], tmp), t1) > 0) break; else
-					if (intersectionOf(t1, m2[i], tmp) != null)
-						setOfSupports.add(tmp.clone());
-				}
-			}
-		}
-		return new Table().add(setOfSupports.stream()); // .toArray(new int[setOfSupports.size()][]);
+		int[] out = new int[m1[0].length];
+		for (int[] t1 : m1)
+			join(t1, m2, 0, m2.length, 0, out, table.buffer);
+		table.buffer.compact();
+		return table;
 	}
 
 	public Table addColumnWithValue(int position, int value) {
@@ -252,12 +288,13 @@ public class Table extends TableAbstract {
 	}
 
 	/**
-	 * Returns a 2-dimensional array corresponding to the collected tuples. Tuples are sorted and made distinct.
+	 * Returns a 2-dimensional array corresponding to the collected tuples. Tuples are sorted and made distinct. This is cached until the table is modified
+	 * (tuples themselves must not be modified).
 	 * 
 	 * @return a 2-dimensional array corresponding to the collected tuples
 	 */
 	public int[][] toArray() {
-		return list.stream().sorted(Utilities.lexComparatorInt).distinct().toArray(int[][]::new);
+		return buffer.sortedDistinct().clone();
 	}
 
 	public int[][] toOrdinaryTableArray(int[][] values) {
@@ -270,7 +307,7 @@ public class Table extends TableAbstract {
 
 	@Override
 	public String toString() {
-		return list.stream().map(t -> "(" + Utilities.join(t, ",") + ")").collect(Collectors.joining(" "));
+		return IntStream.range(0, buffer.size()).mapToObj(i -> "(" + Utilities.join(buffer.get(i), ",") + ")").collect(Collectors.joining(" "));
 	}
 
 }
\ No newline at end of file
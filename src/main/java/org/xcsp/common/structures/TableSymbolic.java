@@ -1,9 +1,10 @@
 package org.xcsp.common.structures;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.Map;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.xcsp.common.Constants;
@@ -19,16 +20,10 @@ public class TableSymbolic extends TableAbstract {
 	 * @return an array of tuples in lexicographic order, and without any duplicates
 	 */
 	public static String[][] clean(String[][] tuples) {
-		Set<String[]> set = new TreeSet<>(Utilities.lexComparatorString);
 		for (int i = 0; i < tuples.length - 1; i++)
-			if (set.size() > 0)
-				set.add(tuples[i]);
-			else if (Utilities.lexComparatorString.compare(tuples[i], tuples[i + 1]) >= 0)
-				for (int j = 0; j <= i; j++)
-					set.add(tuples[j]);
-		if (set.size() > 0)
-			set.add(tuples[tuples.length - 1]);
-		return set.size() == 0 ? tuples : set.stream().toArray(String[][]::new);
+			if (Utilities.lexComparatorString.compare(tuples[i], tuples[i + 1]) >= 0)
+				return new TableSymbolic().add(tuples).toArray();
+		return tuples; // already in lexicographic order, without any duplicates
 	}
 
 	public static String[][] clean(List<String[]> tuples) {
@@ -41,11 +36,21 @@ public class TableSymbolic extends TableAbstract {
 		return this;
 	}
 
-	private List<String[]> list = new ArrayList<>();
+	/** The codes of the symbols, i.e., their positions in the list symbols. */
+	private final Map<String, Integer> codes = new HashMap<>();
+
+	/** The symbols encountered in the tuples, in order of appearance. */
+	private final List<String> symbols = new ArrayList<>();
+
+	/** The tuples, where symbols are replaced by their codes. */
+	private final TupleBuffer buffer = new TupleBuffer();
+
+	/** The tuples in lexicographic order and without any duplicates, or null if not computed since the last modification. */
+	private String[][] sorted;
 
 	@Override
 	public int size() {
-		return list.size();
+		return buffer.size();
 	}
 
 	/**
@@ -57,8 +62,17 @@ public class TableSymbolic extends TableAbstract {
 	 */
 	public TableSymbolic add(String... tuple) {
 		Utilities.control(tuple.length > 0, "A tuple of length 0 has been encoutered during parsing.\n" + TABLE_SYNTAX_PB);
-		Utilities.control(list.size() == 0 || list.get(0).length == tuple.length, "The tuple has a different length from those already recorded");
-		list.add(tuple);
+		int[] t = new int[tuple.length];
+		for (int i = 0; i < t.length; i++) {
+			Integer code = codes.get(tuple[i]);
+			if (code == null) {
+				codes.put(tuple[i], code = symbols.size());
+				symbols.add(tuple[i]);
+			}
+			t[i] = code;
+		}
+		buffer.add(t);
+		sorted = null;
 		return this;
 	}
 
@@ -104,12 +118,22 @@ public class TableSymbolic extends TableAbstract {
 	}
 
 	/**
-	 * Returns a 2-dimensional array corresponding to the collected tuples.
+	 * Returns a 2-dimensional array corresponding to the collected tuples. Tuples are sorted and made distinct. This is cached until the table is modified
+	 * (tuples themselves must not be modified).
 	 * 
 	 * @return a 2-dimensional array corresponding to the collected tuples
 	 */
 	public String[][] toArray() {
-		return list.stream().sorted(Utilities.lexComparatorString).distinct().toArray(String[][]::new);
+		if (sorted == null) {
+			// codes are replaced by the ranks of symbols, so that integer tuples are ordered as symbolic ones
+			String[] ordered = symbols.stream().sorted().toArray(String[]::new);
+			int[] ranks = new int[ordered.length];
+			for (int i = 0; i < ordered.length; i++)
+				ranks[codes.get(ordered[i])] = i;
+			sorted = Stream.of(buffer.map(ranks).sortedDistinct()).map(t -> IntStream.of(t).mapToObj(v -> ordered[v]).toArray(String[]::new))
+					.toArray(String[][]::new);
+		}
+		return sorted.clone();
 	}
 
 }
\ No newline at end of file
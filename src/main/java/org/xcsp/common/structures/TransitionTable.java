@@ -0,0 +1,199 @@
+package org.xcsp.common.structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * This class allows us to represent a compiled form of a set of transitions (as found in automatons and MDDs), where states are numbered and integer symbols
+ * are used for indexing. When the transitions are deterministic and the product of the number of states by the span of symbols is not too large, a dense
+ * array state x symbol is used; otherwise, a sparse map (state,symbol) to targets is used. Transitions whose symbols are not integers are ignored.
+ */
+public final class TransitionTable {
+
+	/** The maximal size of a dense array of transitions. */
+	private static final int DENSE_LIMIT = 1 << 22;
+
+	/** The states, indexed by their numbers. */
+	private final String[] states;
+
+	/** The numbers of the states. */
+	private final Map<String, Integer> numbers = new HashMap<>();
+
+	/** The smallest symbol, and the span of symbols (i.e., the number of values between the smallest and greatest symbols) */
+	private int minSymbol, span;
+
+	/** The dense array giving the state reached from state s by reading symbol v at index s * span + v - minSymbol (-1 if none), or null. */
+	private int[] dense;
+
+	/** The map giving the states reached from state s by reading symbol v at key (s,v) (see key), or null if the dense array is used. */
+	private Map<Long, int[]> sparse;
+
+	/** Indicates if at most one state can be reached from any state by reading any symbol. */
+	private final boolean deterministic;
+
+	private static long key(int state, int symbol) {
+		return ((long) state << 32) | (symbol & 0xFFFFFFFFL);
+	}
+
+	private int number(String state) {
+		return numbers.computeIfAbsent(state, s -> numbers.size());
+	}
+
+	/**
+	 * Builds the compiled form of the specified transitions.
+	 *
+	 * @param transitions
+	 *            an array of transitions
+	 */
+	public TransitionTable(Transition[] transitions) {
+		Map<Long, List<Integer>> map = new LinkedHashMap<>();
+		long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+		for (Transition tr : transitions) {
+			int start = number(tr.start), end = number(tr.end);
+			if (!(tr.value instanceof Long || tr.value instanceof Integer))
+				continue;
+			long v = ((Number) tr.value).longValue();
+			if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE)
+				continue; // such a symbol cannot be read
+			List<Integer> targets = map.computeIfAbsent(key(start, (int) v), k -> new ArrayList<>(1));
+			if (!targets.contains(end))
+				targets.add(end);
+			min = Math.min(min, v);
+			max = Math.max(max, v);
+		}
+		this.states = new String[numbers.size()];
+		numbers.forEach((s, i) -> states[i] = s);
+		this.deterministic = map.values().stream().allMatch(targets -> targets.size() == 1);
+		if (deterministic && map.size() > 0 && max - min < DENSE_LIMIT && (max - min + 1) * states.length <= DENSE_LIMIT) {
+			this.minSymbol = (int) min;
+			this.span = (int) (max - min + 1);
+			this.dense = new int[span * states.length];
+			Arrays.fill(dense, -1);
+			map.forEach((k, targets) -> dense[(int) (k >> 32) * span + (int) k.longValue() - minSymbol] = targets.get(0));
+		} else {
+			this.sparse = new HashMap<>();
+			map.forEach((k, targets) -> sparse.put(k, targets.stream().mapToInt(t -> t).toArray()));
+		}
+	}
+
+	/** Returns the number of states. */
+	public int nStates() {
+		return states.length;
+	}
+
+	/** Returns the number of the specified state, or -1 if this state is not involved in any transition. */
+	public int numberOf(String state) {
+		Integer i = numbers.get(state);
+		return i == null ? -1 : i;
+	}
+
+	/** Returns the state whose number is specified. */
+	public String stateOf(int number) {
+		return states[number];
+	}
+
+	/** Returns true if at most one state can be reached from any state by reading any symbol. */
+	public boolean isDeterministic() {
+		return deterministic;
+	}
+
+	/** Returns the state reached from the specified state by reading the specified symbol, or -1. The transitions must be deterministic. */
+	public int next(int state, int symbol) {
+		if (dense != null) {
+			long i = (long) symbol - minSymbol;
+			return i < 0 || i >= span ? -1 : dense[state * span + (int) i];
+		}
+		int[] targets = sparse.get(key(state, symbol));
+		return targets == null ? -1 : targets[0];
+	}
+
+	/**
+	 * Returns the state reached from the specified state by reading the specified sequence of symbols, or -1 if no state can be reached. The transitions must
+	 * be deterministic.
+	 */
+	public int run(int state, int[] symbols) {
+		for (int i = 0; state != -1 && i < symbols.length; i++)
+			state = next(state, symbols[i]);
+		return state;
+	}
+
+	/**
+	 * Returns the set (given as an array of Booleans indexed by numbers) of states that can be reached from the specified state by reading the specified
+	 * sequence of symbols.
+	 */
+	public boolean[] reached(int state, int[] symbols) {
+		boolean[] curr = new boolean[states.length], next = new boolean[states.length];
+		if (state == -1)
+			return curr;
+		curr[state] = true;
+		for (int symbol : symbols) {
+			step(curr, next, symbol);
+			boolean[] tmp = curr;
+			curr = next;
+			next = tmp;
+		}
+		return curr;
+	}
+
+	/** Computes in next the set of states that can be reached from the states in curr by reading the specified symbol. Returns true if this set is not empty. */
+	private boolean step(boolean[] curr, boolean[] next, int symbol) {
+		Arrays.fill(next, false);
+		boolean found = false;
+		for (int s = 0; s < states.length; s++)
+			if (curr[s]) {
+				if (dense != null) {
+					int t = next(s, symbol);
+					if (t != -1)
+						found = next[t] = true;
+				} else {
+					int[] targets = sparse.get(key(s, symbol));
+					if (targets != null)
+						for (int t : targets)
+							found = next[t] = true;
+				}
+			}
+		return found;
+	}
+
+	/**
+	 * Returns the position i of the first symbol such that no state can be reached from the specified state by reading symbols[0..i], symbols.length if some
+	 * states are reached after reading all symbols but none of them is among the specified targets, and -1 otherwise (i.e., when reaches() returns true).
+	 */
+	public int firstFailure(String start, int[] symbols, String[] targets) {
+		boolean[] curr = new boolean[states.length], next = new boolean[states.length];
+		int state = numberOf(start);
+		if (state == -1)
+			return 0;
+		curr[state] = true;
+		for (int i = 0; i < symbols.length; i++) {
+			if (!step(curr, next, symbols[i]))
+				return i;
+			boolean[] tmp = curr;
+			curr = next;
+			next = tmp;
+		}
+		boolean[] reached = curr;
+		return IntStream.range(0, states.length).anyMatch(s -> reached[s] && (targets == null || Arrays.stream(targets).anyMatch(t -> t.equals(states[s]))))
+				? -1
+				: symbols.length;
+	}
+
+	/**
+	 * Returns true if a state among the specified ones can be reached from the specified state by reading the specified sequence of symbols. If targets is
+	 * null, any state is acceptable.
+	 */
+	public boolean reaches(String start, int[] symbols, String[] targets) {
+		int state = numberOf(start);
+		if (deterministic) {
+			int end = run(state, symbols);
+			return end != -1 && (targets == null || Arrays.stream(targets).anyMatch(t -> t.equals(states[end])));
+		}
+		boolean[] reached = reached(state, symbols);
+		return IntStream.range(0, states.length).anyMatch(s -> reached[s] && (targets == null || Arrays.stream(targets).anyMatch(t -> t.equals(states[s]))));
+	}
+}
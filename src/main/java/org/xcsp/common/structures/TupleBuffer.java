@@ -0,0 +1,138 @@
+package org.xcsp.common.structures;
+
+import java.util.Arrays;
+
+import org.xcsp.common.Utilities;
+
+/**
+ * This class allows us to collect integer tuples (of the same arity) in a growable flat array. Tuples can be obtained in lexicographic order and without any
+ * duplicates; this is computed by means of a radix sort, and cached until the buffer is modified.
+ */
+final class TupleBuffer {
+
+	/** The arity of the tuples, or 0 if unknown (i.e., no tuple has been added yet). */
+	private int arity;
+
+	/** The values of the tuples, put one after the other. */
+	private int[] data;
+
+	/** The number of tuples. */
+	private int size;
+
+	/** The tuples in lexicographic order and without any duplicates, or null if not computed since the last modification. */
+	private int[][] sorted;
+
+	TupleBuffer(int arity, int capacity) {
+		this.arity = arity;
+		this.data = new int[Math.max(16, arity * capacity)];
+	}
+
+	TupleBuffer() {
+		this(0, 0);
+	}
+
+	int size() {
+		return size;
+	}
+
+	int arity() {
+		return arity;
+	}
+
+	void add(int[] tuple) {
+		if (arity == 0)
+			arity = tuple.length;
+		Utilities.control(tuple.length == arity, "The tuple has a different length from those already recorded");
+		long need = (long) (size + 1) * arity;
+		Utilities.control(need <= Integer.MAX_VALUE - 8, "Too many tuples");
+		if (need > data.length)
+			data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(need, 2L * data.length)));
+		System.arraycopy(tuple, 0, data, size * arity, arity);
+		size++;
+		sorted = null;
+	}
+
+	/** Returns a copy of the ith tuple (in the order tuples have been added). */
+	int[] get(int i) {
+		return Arrays.copyOfRange(data, i * arity, (i + 1) * arity);
+	}
+
+	/** Returns a new buffer where each value v is replaced by f[v]; all values must be valid indexes of f. */
+	TupleBuffer map(int[] f) {
+		TupleBuffer buffer = new TupleBuffer(arity, size);
+		for (int i = 0, length = size * arity; i < length; i++)
+			buffer.data[i] = f[data[i]];
+		buffer.size = size;
+		return buffer;
+	}
+
+	/**
+	 * Returns the tuples in lexicographic order, without any duplicates. The returned array is cached until the next modification, and so must not be
+	 * modified.
+	 */
+	int[][] sortedDistinct() {
+		if (sorted == null) {
+			int[] order = sortedOrder();
+			int nDistinct = 0;
+			for (int i = 0; i < size; i++)
+				if (i == 0 || !sameTuples(order[i - 1], order[i]))
+					order[nDistinct++] = order[i];
+			sorted = new int[nDistinct][];
+			for (int i = 0; i < nDistinct; i++)
+				sorted[i] = get(order[i]);
+		}
+		return sorted;
+	}
+
+	/** Replaces the tuples of this buffer by the same tuples in lexicographic order and without any duplicates. */
+	void compact() {
+		int[][] m = sortedDistinct();
+		for (int i = 0; i < m.length; i++)
+			System.arraycopy(m[i], 0, data, i * arity, arity);
+		size = m.length;
+	}
+
+	private boolean sameTuples(int i, int j) {
+		for (int k = 0, p = i * arity, q = j * arity; k < arity; k++)
+			if (data[p + k] != data[q + k])
+				return false;
+		return true;
+	}
+
+	/**
+	 * Returns the indexes of the tuples in lexicographic order. This is an LSD radix sort: columns are considered from the last one to the first one, and for
+	 * each column, a stable counting sort is performed on each byte of the values (bytes being the same for all values are skipped).
+	 */
+	private int[] sortedOrder() {
+		int[] order = new int[size], tmp = new int[size];
+		for (int i = 0; i < size; i++)
+			order[i] = i;
+		if (size <= 1)
+			return order;
+		int[][] counts = new int[4][257];
+		for (int col = arity - 1; col >= 0; col--) {
+			for (int[] count : counts)
+				Arrays.fill(count, 0);
+			for (int i = 0, p = col; i < size; i++, p += arity) {
+				int key = data[p] ^ Integer.MIN_VALUE; // so as to order signed values
+				for (int d = 0; d < 4; d++)
+					counts[d][((key >>> (d << 3)) & 0xFF) + 1]++;
+			}
+			for (int d = 0; d < 4; d++) {
+				int[] count = counts[d];
+				if (count[(((data[col] ^ Integer.MIN_VALUE) >>> (d << 3)) & 0xFF) + 1] == size)
+					continue; // all values have the same byte
+				for (int b = 0; b < 256; b++)
+					count[b + 1] += count[b];
+				for (int i = 0; i < size; i++) {
+					int key = data[order[i] * arity + col] ^ Integer.MIN_VALUE;
+					tmp[count[(key >>> (d << 3)) & 0xFF]++] = order[i];
+				}
+				int[] t = order;
+				order = tmp;
+				tmp = t;
+			}
+		}
+		return order;
+	}
+}
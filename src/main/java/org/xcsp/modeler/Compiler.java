@@ -30,23 +30,49 @@ import static org.xcsp.modeler.definitions.ICtr.LIST;
 import static org.xcsp.modeler.definitions.ICtr.SLIDE;
 import static org.xcsp.modeler.definitions.ICtr.VALUE;
 
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.LZMAOutputStream;
+import org.tukaani.xz.XZOutputStream;
+import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xcsp.common.BinaryFormat;
 import org.xcsp.common.Condition;
 import org.xcsp.common.IVar;
 import org.xcsp.common.Softening;
@@ -59,6 +85,8 @@ import org.xcsp.common.Types.TypeFramework;
 import org.xcsp.common.Types.TypeVar;
 import org.xcsp.common.Utilities;
 import org.xcsp.common.domains.Values.IntegerInterval;
+import org.xcsp.common.predicates.XNode;
+import org.xcsp.common.predicates.XNodeLeaf;
 import org.xcsp.common.predicates.XNodeParent;
 import org.xcsp.modeler.api.ProblemAPI;
 import org.xcsp.modeler.definitions.DefXCSP;
@@ -86,6 +114,7 @@ import org.xcsp.modeler.implementation.ProblemIMP3;
 import org.xcsp.modeler.implementation.ProblemIMP3.MVariable;
 import org.xcsp.modeler.problems.AllInterval;
 import org.xcsp.modeler.problems.Bibd;
+import org.xcsp.parser.callbacks.XCallbacks;
 
 public class Compiler {
 
@@ -121,6 +150,12 @@ public class Compiler {
 	public static final String EV = "-ev";
 	public static final String MUST_CANONIZE = "-mc";
 	public static final String IC = "-ic";
+	public static final String LZMA = "lzma";
+	public static final String XZ = "xz";
+	public static final String GZ = "gz";
+	public static final String DOM = "-dom";
+	public static final String THREADS = "-threads";
+	public static final String BIN = "-bin";
 
 	/**********************************************************************************************
 	 * Fields and Constructor
@@ -129,7 +164,19 @@ public class Compiler {
 	protected final ProblemIMP imp;
 	protected Document doc;
 
-	protected Map<String, Element> tuplesReferents = new LinkedHashMap<>();
+	/** A table (int[][] or String[][]) together with the element where it has been first written. */
+	protected static class TuplesReferent {
+		protected final Object tuples;
+		protected final Element element;
+
+		protected TuplesReferent(Object tuples, Element element) {
+			this.tuples = tuples;
+			this.element = element;
+		}
+	}
+
+	/** The tables already written, indexed by their fingerprints (see fingerprintOf); several tables may share the same fingerprint. */
+	protected Map<Long, List<TuplesReferent>> tuplesReferents = new HashMap<>();
 	protected int nBuiltTuplesReferents;
 
 	// HARD CODING/VALUES BELOW
@@ -154,13 +201,17 @@ public class Compiler {
 		this.imp = api.imp();
 	}
 
-	protected Document buildDocument() {
-		// TODO control that ids are all different
+	private void newDocument() {
 		try {
 			doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
 		} catch (ParserConfigurationException e) {
 			e.printStackTrace();
 		}
+	}
+
+	protected Document buildDocument() {
+		// TODO control that ids are all different
+		newDocument();
 		Element root = element(doc, INSTANCE, FORMAT, XCSP3, TYPE, imp.objEntities.active() ? TypeFramework.COP.name() : imp.typeFramework().name());
 		root.appendChild(variables());
 		root.appendChild(constraints());
@@ -173,6 +224,209 @@ public class Compiler {
 		return doc;
 	}
 
+	/**********************************************************************************************
+	 * Streaming
+	 *********************************************************************************************/
+
+	/** The writer used when the instance is streamed (see streamDocument), or null when a DOM document is built. */
+	protected XMLStreamWriter writer;
+
+	/** The string used for each level of indentation when streaming. */
+	protected String indentation = "    ";
+
+	/** The section (variables, constraints, ...) whose start tag has already been written, if any. */
+	private Element openSection;
+
+	/**
+	 * Writes the instance to the specified output stream, without building the whole document in memory. The elements of each section are built as usual,
+	 * but are written (and detached) as soon as they are complete, i.e., after each variable entity and each constraint entity. The output is the same as
+	 * the one obtained by saving the document returned by buildDocument().
+	 */
+	public void streamDocument(OutputStream out) throws XMLStreamException {
+		Utilities.control(discardAsRelation, "Tuples cannot be referred to (with as) when streaming");
+		newDocument();
+		writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+		try {
+			Element root = element(doc, INSTANCE, FORMAT, XCSP3, TYPE, imp.objEntities.active() ? TypeFramework.COP.name() : imp.typeFramework().name());
+			writeStartTag(root, false);
+			closeSection(variables());
+			closeSection(constraints());
+			if (imp.objEntities.active())
+				closeSection(objectives());
+			if (imp.annotations.active())
+				closeSection(annotations());
+			writer.writeCharacters("\n");
+			writer.writeEndElement();
+			writer.writeCharacters("\n");
+			writer.flush();
+		} finally {
+			writer.close();
+			writer = null;
+		}
+	}
+
+	/**
+	 * Writes the specified document (built by buildDocument()) to the specified output stream, with the same layout (and indentation) as when the instance is
+	 * streamed.
+	 */
+	public void writeDocument(Document document, OutputStream out) throws XMLStreamException {
+		writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+		try {
+			Element root = document.getDocumentElement();
+			writeStartTag(root, false);
+			for (Node node = root.getFirstChild(); node != null; node = node.getNextSibling())
+				if (node.getNodeType() == Node.ELEMENT_NODE)
+					write((Element) node, 1);
+			writer.writeCharacters("\n");
+			writer.writeEndElement();
+			writer.writeCharacters("\n");
+			writer.flush();
+		} finally {
+			writer.close();
+			writer = null;
+		}
+	}
+
+	/**
+	 * Returns a buffered output stream for writing in the specified file. Data are compressed (in a single pass, in process) when the name of the file ends
+	 * with .lzma, .xz or .gz.
+	 */
+	public static OutputStream outputStreamFor(String fileName) throws IOException {
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16);
+		if (fileName.endsWith("." + LZMA))
+			return new BufferedOutputStream(new FilterOutputStream(new LZMAOutputStream(out, new LZMA2Options(), -1)) {
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					this.out.write(b, off, len);
+				}
+
+				@Override
+				public void flush() {
+					// not supported by LZMAOutputStream (everything is written when closing)
+				}
+			}, 1 << 16);
+		if (fileName.endsWith("." + XZ))
+			return new BufferedOutputStream(new XZOutputStream(out, new LZMA2Options()), 1 << 16);
+		if (fileName.endsWith("." + GZ))
+			return new BufferedOutputStream(new GZIPOutputStream(out, 1 << 16), 1 << 16);
+		return out;
+	}
+
+	/** Writes the instance in the specified (possibly compressed) file, without building the whole document in memory (see streamDocument). */
+	public String streamDocument(String fileName) {
+		System.out.print("\n  Saving XCSP File " + fileName + " (streaming) ... ");
+		try (OutputStream out = outputStreamFor(fileName)) {
+			streamDocument(out);
+		} catch (IOException | XMLStreamException e) {
+			Utilities.exit("Pb when saving File " + fileName + " " + e);
+		}
+		System.out.println("Finished.");
+		return fileName;
+	}
+
+	private void indent(int depth) throws XMLStreamException {
+		writer.writeCharacters("\n");
+		for (int i = 0; i < depth; i++)
+			writer.writeCharacters(indentation);
+	}
+
+	private void writeStartTag(Element element, boolean empty) throws XMLStreamException {
+		if (empty)
+			writer.writeEmptyElement(element.getTagName());
+		else
+			writer.writeStartElement(element.getTagName());
+		NamedNodeMap attributes = element.getAttributes();
+		for (int i = 0; i < attributes.getLength(); i++) {
+			Attr attribute = (Attr) attributes.item(i);
+			writer.writeAttribute(attribute.getName(), attribute.getValue());
+		}
+	}
+
+	/** Writes the specified element (and its descendants) at the specified depth, with the same layout as the one of an indenting transformer. */
+	private void write(Element element, int depth) throws XMLStreamException {
+		indent(depth);
+		boolean sons = false;
+		for (Node node = element.getFirstChild(); node != null && !sons; node = node.getNextSibling())
+			sons = node.getNodeType() == Node.ELEMENT_NODE;
+		writeStartTag(element, element.getFirstChild() == null);
+		if (element.getFirstChild() == null)
+			return;
+		for (Node node = element.getFirstChild(); node != null; node = node.getNextSibling())
+			if (node.getNodeType() == Node.ELEMENT_NODE)
+				write((Element) node, depth + 1);
+			else if (node.getNodeType() == Node.TEXT_NODE)
+				writer.writeCharacters(node.getNodeValue());
+		if (sons)
+			indent(depth);
+		writer.writeEndElement();
+	}
+
+	/**
+	 * When streaming, writes the child elements built so far for the specified section (writing first the start tag of the section if necessary), and
+	 * detaches them so as to release memory. Does nothing when a DOM document is built.
+	 */
+	protected void flush(Element section) {
+		if (writer == null || section.getFirstChild() == null)
+			return;
+		try {
+			if (openSection != section) {
+				indent(1);
+				writeStartTag(section, false);
+				openSection = section;
+			}
+			for (Node node = section.getFirstChild(); node != null; node = section.getFirstChild()) {
+				if (node.getNodeType() == Node.ELEMENT_NODE)
+					write((Element) node, 2);
+				section.removeChild(node);
+			}
+		} catch (XMLStreamException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private void closeSection(Element section) throws XMLStreamException {
+		flush(section);
+		if (openSection == section) {
+			indent(1);
+			writer.writeEndElement();
+			openSection = null;
+		} else {
+			indent(1);
+			writeStartTag(section, true);
+		}
+	}
+
+	/**********************************************************************************************
+	 * Loading in memory
+	 *********************************************************************************************/
+
+	/**
+	 * Loads the instance into the specified object implementing XCallbacks. When possible (see Loader), the callback functions are directly called from the
+	 * entities (variables, constraints, objectives) of the model, without building any document. Otherwise, the document built for the instance (see
+	 * buildDocument) is handed over in memory to XCallbacks.loadInstance. Returns true iff the instance has been directly loaded. The optional specified
+	 * classes indicate which elements (variables, constraints) must be discarded (in which case the document is always used).
+	 */
+	public boolean load(XCallbacks callbacks, String... discardedClasses) throws Exception {
+		if (discardedClasses.length == 0 && new Loader(imp).load(callbacks))
+			return true;
+		callbacks.loadInstance(buildDocument(), discardedClasses);
+		return false;
+	}
+
+	/**
+	 * Builds the instance corresponding to the specified arguments (the same as for main, i.e., the name of a class implementing ProblemAPI followed by
+	 * options such as -data) and loads it into the specified object implementing XCallbacks (see load). Returns true iff the instance has been directly
+	 * loaded.
+	 */
+	public static boolean load(String[] args, XCallbacks callbacks, String... discardedClasses) throws Exception {
+		ProblemAPI api = buildInstanceAPI(args);
+		try {
+			return new Compiler(api).load(callbacks, discardedClasses);
+		} finally {
+			ProblemAPI.api2imp.remove(api); // so as to release memory
+		}
+	}
+
 	/**********************************************************************************************
 	 * Managing (groups of) predicates, relations and globals
 	 *********************************************************************************************/
@@ -199,6 +453,29 @@ public class Compiler {
 	private abstract class Similarable<T> {
 		protected abstract boolean isSimilarTo(T object);
 
+		/**
+		 * Returns a key such that two objects with different keys are necessarily not similar, or null if this object cannot be similar to any other one.
+		 * This allows us to group objects by buckets.
+		 */
+		protected abstract Object signature();
+
+		/** Returns a key for the attributes (see haveSimilarAttributes) of the specified constraint, or null if no other constraint can be similar. */
+		protected Object attributesSignature(ICtr c) {
+			CtrAlone ca = imp.ctrEntities.ctrToCtrAlone.get(c);
+			if (ca.id != null)
+				return null;
+			Object classes = ca.classes == null ? null : Arrays.asList(ca.classes.size(), ca.classes.stream().map(cl -> cl.ccname()).collect(Collectors.toSet()));
+			if (ca.softening == null)
+				return Arrays.asList(classes, ca.note);
+			if (ca.softening.cost != null)
+				return null;
+			if (ca.softening instanceof SofteningSimple)
+				return Arrays.asList(classes, ca.note, SofteningSimple.class, ((SofteningSimple) ca.softening).violationCost);
+			if (ca.softening instanceof SofteningGlobal && ((SofteningGlobal) ca.softening).parameters == null)
+				return Arrays.asList(classes, ca.note, SofteningGlobal.class, ((SofteningGlobal) ca.softening).type);
+			return null;
+		}
+
 		protected boolean haveSimilarAttributes(ICtr c1, ICtr c2) {
 			CtrAlone ca1 = imp.ctrEntities.ctrToCtrAlone.get(c1), ca2 = imp.ctrEntities.ctrToCtrAlone.get(c2);
 			if (ca1.id != null || ca2.id != null)
@@ -251,6 +528,12 @@ public class Compiler {
 		protected boolean isSimilarTo(Predicate p) {
 			return haveSimilarAttributes(c, p.c) && abstractTree.equals(p.abstractTree);
 		}
+
+		@Override
+		protected Object signature() {
+			Object attributes = attributesSignature(c);
+			return attributes == null ? null : Arrays.asList(attributes, hashOf(abstractTree));
+		}
 	}
 
 	/**
@@ -267,6 +550,18 @@ public class Compiler {
 		protected boolean isSimilarTo(Relation r) {
 			return haveSimilarAttributes(c, r.c) && c.isSimilarTo(r.c);
 		}
+
+		@Override
+		protected Object signature() {
+			Object attributes = attributesSignature(c);
+			if (attributes == null)
+				return null;
+			Map<String, Object> map = c.mapXCSP();
+			Object[] tuples = (Object[]) map.get(ICtr.TUPLES);
+			// beyond 50000 tuples, tables are only similar when being the same array (see ICtrExtension.isSimilarTo)
+			int hash = tuples.length > 50000 ? System.identityHashCode(tuples) : Arrays.deepHashCode(tuples);
+			return Arrays.asList(attributes, map.get(ICtr.ARITY), map.get(ICtr.POSITIVE), tuples.getClass(), tuples.length, hash);
+		}
 	}
 
 	/**
@@ -335,12 +630,31 @@ public class Compiler {
 			return false; // for the moment, only 1 or 2 differences are managed
 		}
 
+		@Override
+		protected Object signature() {
+			Object attributes = attributesSignature(c);
+			if (attributes == null || def == null)
+				return null;
+			List<Object> sons = def.sons.stream().map(son -> Arrays.asList(son.name, son.attributes)).collect(Collectors.toList());
+			return Arrays.asList(attributes, def.name, def.possibleSimplification, def.attributes, sons);
+		}
+
 		@Override
 		public String toString() {
 			return def.toString();
 		}
 	}
 
+	/** Returns a hash code for the specified tree, compatible with the method equals of nodes (that do not redefine hashCode). */
+	private static int hashOf(XNode<?> tree) {
+		if (tree instanceof XNodeLeaf)
+			return 31 * tree.type.ordinal() + ((XNodeLeaf<?>) tree).value.hashCode();
+		int hash = tree.type.ordinal();
+		for (XNode<?> son : tree.sons)
+			hash = 31 * hash + hashOf(son);
+		return hash;
+	}
+
 	/**********************************************************************************************
 	 * Auxiliary Functions
 	 *********************************************************************************************/
@@ -499,6 +813,7 @@ public class Compiler {
 				} else
 					element.appendChild(array(va, varToDom, map));
 			}
+			flush(element);
 		}
 		return element;
 	}
@@ -524,13 +839,28 @@ public class Compiler {
 			IntStream.range(1, t.length).forEach(i -> store.add(t[i]));
 			childs.add(spl.get());
 		} else {
+			// objects are put in buckets (by their signatures) so as to only compare objects that can be similar; indexes are kept in increasing order
+			Map<Object, List<Integer>> buckets = new HashMap<>();
+			List<List<Integer>> bucketOf = new ArrayList<>(t.length);
+			int[] positions = new int[t.length];
+			for (int i = 0; i < t.length; i++) {
+				Object signature = t[i] == null ? null : t[i].signature();
+				List<Integer> bucket = signature == null ? Arrays.asList(i) : buckets.computeIfAbsent(signature, k -> new ArrayList<>());
+				if (signature != null) {
+					positions[i] = bucket.size();
+					bucket.add(i);
+				}
+				bucketOf.add(bucket);
+			}
 			boolean[] flags = new boolean[t.length];
 			for (int i = 0; i < t.length; i++) {
 				if (flags[i] || t[i] == null)
 					continue;
 				store.clear();
 				store.add(t[i]);
-				for (int j = i + 1; j < t.length; j++) {
+				List<Integer> bucket = bucketOf.get(i);
+				for (int k = positions[i] + 1; k < bucket.size(); k++) {
+					int j = bucket.get(k);
 					if (!flags[j] && t[i].isSimilarTo(t[j])) {
 						store.add(t[j]);
 						flags[j] = true;
@@ -542,20 +872,36 @@ public class Compiler {
 		return childs;
 	}
 
+	/** Returns a 64-bit fingerprint of the specified table (int[][] or String[][]), computed from its content. */
+	protected static long fingerprintOf(Object tuples) {
+		long h = 0xcbf29ce484222325L; // FNV-1a like mixing of (hashes of) values, with the length of each tuple
+		for (Object tuple : (Object[]) tuples) {
+			int length = tuple instanceof int[] ? ((int[]) tuple).length : ((String[]) tuple).length;
+			h = (h ^ length) * 0x100000001b3L;
+			for (int i = 0; i < length; i++)
+				h = (h ^ (tuple instanceof int[] ? ((int[]) tuple)[i] : ((String[]) tuple)[i].hashCode())) * 0x100000001b3L;
+		}
+		return h ^ (h >>> 29);
+	}
+
 	private Element buildingTuples(ICtrExtension c) {
 		Object tuples = c.mapXCSP().get(ICtr.TUPLES);
-		String key = tuples instanceof int[][] ? ICtrExtension.tableAsString((int[][]) tuples) : ICtrExtension.tableAsString((String[][]) tuples);
-		Element eltTgt = tuplesReferents.get(key), eltSrc = null;
-		if (eltTgt != null && !discardAsRelation) {
+		String tag = (Boolean) c.mapXCSP().get(ICtr.POSITIVE) ? SUPPORTS : CONFLICTS;
+		Supplier<String> text = () -> tuples instanceof int[][] ? ICtrExtension.tableAsString((int[][]) tuples) : ICtrExtension.tableAsString((String[][]) tuples);
+		if (discardAsRelation)
+			return element(doc, tag, text.get());
+		List<TuplesReferent> referents = tuplesReferents.computeIfAbsent(fingerprintOf(tuples), k -> new ArrayList<>(1));
+		Element eltTgt = referents.stream().filter(r -> r.tuples == tuples || Arrays.deepEquals((Object[]) r.tuples, (Object[]) tuples)).map(r -> r.element)
+				.findFirst().orElse(null);
+		if (eltTgt != null) {
 			if (eltTgt.getAttribute(ID).length() == 0) {
 				eltTgt.setAttribute(ID, "i" + nBuiltTuplesReferents); // we add a useful missing id
 				nBuiltTuplesReferents++;
 			}
-			eltSrc = element(doc, (Boolean) c.mapXCSP().get(ICtr.POSITIVE) ? SUPPORTS : CONFLICTS, AS, eltTgt.getAttribute(ID));
-		} else {
-			eltSrc = element(doc, (Boolean) c.mapXCSP().get(ICtr.POSITIVE) ? SUPPORTS : CONFLICTS, key);
-			tuplesReferents.put(key, eltSrc);
+			return element(doc, tag, AS, eltTgt.getAttribute(ID));
 		}
+		Element eltSrc = element(doc, tag, text.get()); // the table is rendered to text only once
+		referents.add(new TuplesReferent(tuples, eltSrc));
 		return eltSrc;
 	}
 
@@ -783,6 +1129,7 @@ public class Compiler {
 				if (imp.ctrEntities.ctrToCtrArray.get(c) == null)
 					handleCtr(currParent, c);
 			}
+			flush(root);
 		}
 		assert stackOfBlocks.size() == 1 && stackOfBlocks.peek() == root;
 		saveStored(root);
@@ -822,6 +1169,9 @@ public class Compiler {
 
 	public static boolean ev;
 
+	/** Indicates if instances are generated in batch mode, in which case a fatal error only stops the generation of the current instance. */
+	public static boolean inBatch;
+
 	private static ProblemAPI usage() {
 		System.out.println("\nDescription.\n  Compiler is a class that can generate XCSP3 files. You need to provide");
 		System.out.println("  an MCSP3 model (Java class implementing ProblemAPI) and some effective data.");
@@ -840,8 +1190,14 @@ public class Compiler {
 		System.out.println("       code like 'if (isModel(\"basic\")) { ... }'");
 		System.out.println("    -ev");
 		System.out.println("       which displays the exception that has been thown, in case of a crash");
-		System.out.println("    -ic");
-		System.out.println("       which indents and compresses, using Linux commands 'xmlindent -i 2' and 'lzma'");
+		System.out.println("    -ic[=lzma|xz|gz]");
+		System.out.println("       which indents (with 2 spaces) and compresses (lzma by default) the output, in a single pass");
+		System.out.println("    -dom");
+		System.out.println("       which builds the whole DOM document before saving it, instead of streaming it");
+		System.out.println("    -bin");
+		System.out.println("       which saves the instance in binary form (file with extension " + BinaryFormat.SUFFIX + "), see " + BinaryFormat.class.getName());
+		System.out.println("    -threads=...");
+		System.out.println("       which ... stands for the number of instances generated in parallel, in batch mode (see below)");
 		System.out.println("    -output=...");
 		System.out.println("       which ... stands for the name of the output XCSP3 file (without exetnsions)");
 		System.out.println("\nExamples.");
@@ -866,29 +1222,35 @@ public class Compiler {
 		System.out.println("       while executing any piece of code controlled by 'isModel(\"test\"))'");
 		System.out.println("  java " + Compiler.class.getName() + " " + AllInterval.class.getName() + " -data=5 -output=tmp");
 		System.out.println("    => generates the XCSP3 file tmp.xml");
+		System.out.println("\nBatch mode.\n  Several instances are generated (in parallel) when several options -data are given, or when data contain");
+		System.out.println("  ranges {a..b}, or when data are read from a file (with -data=@file, one data per line). For example:");
+		System.out.println("  java " + Compiler.class.getName() + " " + Bibd.class.getName() + " -data=[6,50,25,3,{8..12}] -data=Bibd-06-50-25-03-10.json -threads=4");
+		System.out.println("    => generates the six XCSP3 files Bibd-6-50-25-3-8.xml, ..., Bibd-6-50-25-3-12.xml, Bibd-06-50-25-03-10.xml");
 		return null;
 	}
 
+	/**
+	 * Builds the instance of the model specified by the arguments (the name of a class implementing ProblemAPI, followed by options). An exception, with a
+	 * message explaining the problem, is thrown if it is not possible.
+	 */
 	private static ProblemAPI buildInstanceAPI(String[] args) {
-		if (args.length == 0)
-			return usage();
+		Constructor<?>[] cs;
+		try {
+			cs = Class.forName(args[0]).getDeclaredConstructors();
+		} catch (ClassNotFoundException e) {
+			throw new IllegalArgumentException("the specified class " + args[0] + " is not found", e);
+		}
+		if (cs.length > 1 || cs[0].getParameterTypes().length > 0)
+			throw new IllegalArgumentException("It is forbidden to include constructors in a class implementing " + ProblemAPI.class.getName());
+		if (!ProblemAPI.class.isAssignableFrom(cs[0].getDeclaringClass()))
+			throw new IllegalArgumentException("the specified class " + args[0] + " does not implement " + ProblemAPI.class.getName());
 		try {
-			Constructor<?>[] cs = Class.forName(args[0]).getDeclaredConstructors();
-			if (cs.length > 1 || cs[0].getParameterTypes().length > 0) {
-				System.out.println("\nProblem: It is forbidden to include constructors in a class implementing " + ProblemAPI.class.getName() + "\n");
-				return null;
-			}
-			if (!ProblemAPI.class.isAssignableFrom(cs[0].getDeclaringClass())) {
-				System.out.println("\nProblem: the specified class " + args[0] + " does not implement " + ProblemAPI.class.getName() + "\n");
-				return usage();
-			}
 			cs[0].setAccessible(true);
 			ProblemAPI api = (ProblemAPI) cs[0].newInstance();
-
 			String[] argsForPb = Stream.of(args).skip(1)
-					.filter(s -> !s.startsWith(VARIANT) && !s.startsWith(DATA) && !s.startsWith(OUTPUT) && !s.equals(EV) && !s.equals(IC))
+					.filter(s -> !s.startsWith(VARIANT) && !s.startsWith(DATA) && !s.startsWith(OUTPUT) && !s.equals(EV) && !s.startsWith(IC)
+							&& !s.equals(DOM) && !s.startsWith(THREADS) && !s.equals(BIN))
 					.toArray(String[]::new);
-			ev = Stream.of(args).anyMatch(s -> s.equals(EV));
 			String model = Stream.of(args).filter(s -> s.startsWith(VARIANT)).map(s -> s.substring(VARIANT.length() + 1)).findFirst().orElse("");
 			String data = Stream.of(args).filter(s -> s.startsWith(DATA + "=")).map(s -> s.substring(DATA.length() + 1)).findFirst().orElse("");
 			String dataFormat = Stream.of(args).filter(s -> s.startsWith(DATA_FORMAT)).map(s -> s.substring(DATA_FORMAT.length() + 1)).findFirst().orElse("");
@@ -896,27 +1258,142 @@ public class Compiler {
 			new ProblemIMP3(api, model, data, dataFormat, dataSaving, argsForPb);
 			return api;
 		} catch (Exception e) {
-			System.out.println("It was not possible to build an instance of the specified class " + args[0]);
-			if (ev)
-				e.printStackTrace();
+			throw new IllegalStateException("It was not possible to build an instance of the specified class " + args[0] + " (" + e + ")", e);
+		}
+	}
+
+	/** Returns the instance of the model specified by the arguments, or null (after displaying the problem and the usage) if it cannot be built. */
+	private static ProblemAPI buildInstanceAPIOrUsage(String[] args) {
+		if (args.length == 0)
+			return usage();
+		try {
+			return buildInstanceAPI(args);
+		} catch (RuntimeException e) {
+			System.out.println("\nProblem: " + e.getMessage() + "\n");
+			if (ev && e.getCause() != null)
+				e.getCause().printStackTrace();
 			return usage();
 		}
 	}
 
 	public static Document buildDocument(String[] args) {
-		ProblemAPI api = buildInstanceAPI(args);
+		ev = Stream.of(args).anyMatch(s -> s.equals(EV));
+		ProblemAPI api = buildInstanceAPIOrUsage(args);
 		return api == null ? null : new Compiler(api).buildDocument();
 	}
 
+	/** Returns the data values obtained after expanding the first range {a..b} of the specified data, if any. */
+	private static Stream<String> expand(String data) {
+		Matcher m = Pattern.compile("\\{(-?\\d+)\\.\\.(-?\\d+)\\}").matcher(data);
+		if (!m.find())
+			return Stream.of(data);
+		String prefix = data.substring(0, m.start()), suffix = data.substring(m.end());
+		return IntStream.rangeClosed(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))).boxed().flatMap(v -> expand(prefix + v + suffix));
+	}
+
+	/** Returns the list of (distinct) data values specified in the arguments: options -data, with possible ranges {a..b} and files @file. */
+	private static List<String> dataValues(String[] args) {
+		List<String> list = new ArrayList<>();
+		for (String arg : args) {
+			if (!arg.startsWith(DATA + "="))
+				continue;
+			String data = arg.substring(DATA.length() + 1);
+			if (data.startsWith("@"))
+				try {
+					Files.readAllLines(Paths.get(data.substring(1))).stream().map(String::trim).filter(s -> s.length() > 0).flatMap(s -> expand(s))
+							.forEach(list::add);
+				} catch (IOException e) {
+					Utilities.exit("Pb when reading data from " + data.substring(1) + " " + e);
+				}
+			else
+				expand(data).forEach(list::add);
+		}
+		return list.stream().distinct().collect(Collectors.toList());
+	}
+
+	/**
+	 * Generates in batch mode the instances of the model, one for each specified data value. Instances are generated by a pool of threads, each instance
+	 * with its own ProblemIMP3 object, and files are written concurrently. An instance that cannot be built or saved is reported (in one line) as a failure.
+	 */
+	private static void batch(String[] args, List<String> datas) {
+		Utilities.control(Stream.of(args).noneMatch(s -> s.startsWith(OUTPUT)), "The option " + OUTPUT + " is not compatible with the batch mode");
+		int nThreads = Stream.of(args).filter(s -> s.startsWith(THREADS + "=")).map(s -> Integer.parseInt(s.substring(THREADS.length() + 1))).findFirst()
+				.orElse(Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(nThreads, datas.size())));
+		String[] otherArgs = Stream.of(args).filter(s -> !s.startsWith(DATA + "=")).toArray(String[]::new);
+		inBatch = true;
+		List<Future<?>> futures = datas.stream()
+				.map(data -> executor.submit(() -> {
+					String[] dataArgs = Stream.concat(Stream.of(otherArgs), Stream.of(DATA + "=" + data)).toArray(String[]::new);
+					ProblemAPI api = buildInstanceAPI(dataArgs);
+					try {
+						generate(dataArgs, api);
+					} finally {
+						ProblemAPI.api2imp.remove(api); // so as to release memory, even in case of failure
+					}
+				})).collect(Collectors.toList());
+		executor.shutdown();
+		int nFailures = 0;
+		for (int i = 0; i < futures.size(); i++)
+			try {
+				futures.get(i).get();
+			} catch (InterruptedException | ExecutionException e) {
+				Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+				System.out.println("Pb when generating the instance with data " + datas.get(i) + ": " + cause.getMessage());
+				if (ev)
+					cause.printStackTrace();
+				nFailures++;
+			}
+		System.out.println("\n  " + (datas.size() - nFailures) + " instance(s) generated" + (nFailures > 0 ? ", " + nFailures + " failure(s)" : ""));
+	}
+
 	public static void main(String[] args) {
-		ProblemAPI api = buildInstanceAPI(args);
-		if (api == null)
-			return;
-		Document document = new Compiler(api).buildDocument();
+		ev = Stream.of(args).anyMatch(s -> s.equals(EV)); // set once, before any instance is built (possibly by several threads)
+		List<String> datas = dataValues(args);
+		if (datas.size() > 1)
+			batch(args, datas);
+		else {
+			ProblemAPI api = buildInstanceAPIOrUsage(args);
+			if (api != null)
+				generate(args, api);
+		}
+	}
+
+	/** Generates the file of the specified instance, built from the specified arguments. An exception is thrown if the file cannot be saved. */
+	private static void generate(String[] args, ProblemAPI api) {
 		String output = Stream.of(args).filter(s -> s.startsWith(OUTPUT)).map(s -> s.substring(OUTPUT.length() + 1)).findFirst().orElse(null);
-		String fileName = (output != null ? output : api.name()) + ".xml";
-		ProblemAPI.api2imp.get(api).save(document, fileName);
-		if (Stream.of(args).anyMatch(s -> s.equals(IC)))
-			ProblemAPI.api2imp.get(api).indentAndCompressXmlUnderLinux(fileName);
+		String compression = Stream.of(args).filter(s -> s.equals(IC) || s.startsWith(IC + "=")).map(s -> s.equals(IC) ? LZMA : s.substring(IC.length() + 1))
+				.findFirst().orElse(null);
+		Utilities.control(compression == null || Stream.of(LZMA, XZ, GZ).anyMatch(s -> s.equals(compression)), "Unknown compression " + compression);
+		boolean binary = Stream.of(args).anyMatch(s -> s.equals(BIN));
+		String fileName = (output != null ? output : api.name()) + (binary ? BinaryFormat.SUFFIX : ".xml") + (compression != null ? "." + compression : "");
+		Compiler compiler = new Compiler(api);
+		if (compression != null)
+			compiler.indentation = "  ";
+		if (binary) {
+			Document document = compiler.buildDocument();
+			System.out.print("\n  Saving binary XCSP File " + fileName + " ... ");
+			try (OutputStream out = outputStreamFor(fileName)) {
+				BinaryFormat.save(document, out);
+			} catch (IOException e) {
+				Utilities.exit("Pb when saving File " + fileName + " " + e);
+			}
+			System.out.println("Finished.");
+		} else if (Stream.of(args).anyMatch(s -> s.equals(DOM))) {
+			Document document = compiler.buildDocument();
+			if (compression == null)
+				ProblemAPI.api2imp.get(api).save(document, fileName);
+			else {
+				System.out.print("\n  Saving XCSP File " + fileName + " ... ");
+				try (OutputStream out = outputStreamFor(fileName)) {
+					compiler.writeDocument(document, out); // same layout as when streaming, with indentation by 2 spaces
+				} catch (IOException | XMLStreamException e) {
+					Utilities.exit("Pb when saving File " + fileName + " " + e);
+				}
+				System.out.println("Finished.");
+			}
+		} else
+			compiler.streamDocument(fileName);
+		ProblemAPI.api2imp.remove(api); // so as to release memory
 	}
 }
@@ -0,0 +1,314 @@
+/**
+ * AbsCon - Copyright (c) 2017, CRIL-CNRS - lecoutre@cril.fr
+ *
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the terms of the CONTRAT DE LICENCE DE LOGICIEL LIBRE CeCILL which accompanies this
+ * distribution, and is available at http://www.cecill.info
+ */
+package org.xcsp.modeler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.xcsp.common.Constants;
+import org.xcsp.common.IVar;
+import org.xcsp.common.Types.TypeChild;
+import org.xcsp.common.Types.TypeClass;
+import org.xcsp.common.Types.TypeCombination;
+import org.xcsp.common.Types.TypeCtr;
+import org.xcsp.common.Types.TypeFramework;
+import org.xcsp.common.Types.TypeObjective;
+import org.xcsp.common.Types.TypeVar;
+import org.xcsp.common.Utilities;
+import org.xcsp.common.predicates.XNode;
+import org.xcsp.common.predicates.XNodeLeaf;
+import org.xcsp.common.predicates.XNodeParent;
+import org.xcsp.modeler.definitions.ICtr;
+import org.xcsp.modeler.definitions.ICtr.ICtrAllDifferent;
+import org.xcsp.modeler.definitions.ICtr.ICtrAllEqual;
+import org.xcsp.modeler.definitions.ICtr.ICtrExtension;
+import org.xcsp.modeler.definitions.ICtr.ICtrIntension;
+import org.xcsp.modeler.definitions.IObj;
+import org.xcsp.modeler.definitions.IObj.IObjFunctional;
+import org.xcsp.modeler.definitions.IObj.IObjSpecialized;
+import org.xcsp.modeler.entities.CtrEntities.CtrAlone;
+import org.xcsp.modeler.entities.CtrEntities.CtrArray;
+import org.xcsp.modeler.entities.CtrEntities.CtrEntity;
+import org.xcsp.modeler.entities.ModelingEntity;
+import org.xcsp.modeler.entities.ModelingEntity.TagDummy;
+import org.xcsp.modeler.entities.ObjEntities.ObjEntity;
+import org.xcsp.modeler.entities.VarEntities.VarAlone;
+import org.xcsp.modeler.entities.VarEntities.VarArray;
+import org.xcsp.modeler.entities.VarEntities.VarEntity;
+import org.xcsp.modeler.implementation.ProblemIMP;
+import org.xcsp.modeler.implementation.ProblemIMP3.MVariable;
+import org.xcsp.parser.XParser;
+import org.xcsp.parser.callbacks.XCallbacks;
+import org.xcsp.parser.entries.ParsingEntry;
+import org.xcsp.parser.entries.ParsingEntry.AEntry;
+import org.xcsp.parser.entries.ParsingEntry.CEntry;
+import org.xcsp.parser.entries.ParsingEntry.OEntry;
+import org.xcsp.parser.entries.ParsingEntry.VEntry;
+import org.xcsp.parser.entries.XConstraints.CChild;
+import org.xcsp.parser.entries.XConstraints.XCtr;
+import org.xcsp.parser.entries.XObjectives.OObjectiveExpr;
+import org.xcsp.parser.entries.XObjectives.OObjectiveSpecial;
+import org.xcsp.parser.entries.XObjectives.XObj;
+import org.xcsp.parser.entries.XVariables.XArray;
+import org.xcsp.parser.entries.XVariables.XVar;
+
+/**
+ * This class allows us to load an instance, built from a model, into an object implementing XCallbacks by walking the entities (variables, constraints,
+ * objectives) recorded for the model, and calling the callback functions directly, without building any document (and so without writing or parsing any
+ * XCSP3 element). The entries given to the callbacks are the same as the ones obtained when parsing the saved instance, except that constraints are neither
+ * grouped nor put in blocks. Only some forms of instances are handled: integer variables, and constraints intension, extension (at least binary),
+ * allDifferent and allEqual on lists of variables. For other instances, load returns false, without any callback function having been called.
+ */
+final class Loader {
+
+	private final ProblemIMP imp;
+
+	/** The entries built for the variables of the model, and the variable (or array) ids they are accessible from. */
+	private final Map<IVar, XVar> varToXVar = new HashMap<>();
+	private final Map<String, XVar> idToXVar = new HashMap<>();
+	private final Map<String, XArray> idToXArray = new HashMap<>();
+
+	private final List<VEntry> vEntries = new ArrayList<>();
+	private final List<CEntry> cEntries = new ArrayList<>();
+	private final List<OEntry> oEntries = new ArrayList<>();
+	private final List<AEntry> aEntries = new ArrayList<>();
+
+	Loader(ProblemIMP imp) {
+		this.imp = imp;
+	}
+
+	/**
+	 * Loads the instance into the specified object implementing XCallbacks, by calling directly the callback functions, in the same order as
+	 * XCallbacks.loadInstance does. Returns false (without calling any callback function) if the instance contains a form that is not handled here.
+	 */
+	boolean load(XCallbacks callbacks) {
+		if (callbacks.implem().discardedElements != null || !buildVariables() || !buildConstraints() || !buildObjectives())
+			return false;
+		buildAnnotations();
+		computeVarDegrees();
+		callbacks.implem().resetStructures();
+		callbacks.beginInstance(imp.objEntities.active() ? TypeFramework.COP : imp.typeFramework());
+		callbacks.beginVariables(vEntries);
+		for (VEntry entry : vEntries)
+			if (entry instanceof XVar)
+				callbacks.loadVar((XVar) entry);
+			else {
+				callbacks.beginArray((XArray) entry);
+				callbacks.loadArray((XArray) entry);
+				callbacks.endArray((XArray) entry);
+			}
+		callbacks.endVariables();
+		callbacks.beginConstraints(cEntries);
+		callbacks.loadConstraints(cEntries);
+		callbacks.endConstraints();
+		callbacks.beginObjectives(oEntries, oEntries.size() > 0 ? TypeCombination.PARETO : null);
+		oEntries.stream().forEach(entry -> callbacks.loadObj((XObj) entry));
+		callbacks.endObjectives();
+		callbacks.beginAnnotations(aEntries);
+		aEntries.stream().forEach(entry -> callbacks.loadAnn(entry));
+		callbacks.endAnnotations();
+		callbacks.endInstance();
+		return true;
+	}
+
+	/** Copies the basic attributes (id, note and classes) of the specified modeling entity into the specified parsing entry. */
+	private void copyBasicAttributes(ModelingEntity entity, ParsingEntry entry) {
+		if (entity == null)
+			return;
+		if (entity.id != null && entity.id.length() > 0)
+			entry.id = entity.id;
+		if (entity.note != null && entity.note.length() > 0)
+			entry.note = entity.note;
+		if (entity.classes.size() > 0)
+			entry.classes = entity.classes.toArray(new TypeClass[0]);
+	}
+
+	/**********************************************************************************************
+	 * Variables
+	 *********************************************************************************************/
+
+	private XVar xvar(IVar x) {
+		XVar xvar = XVar.build(x.id(), TypeVar.integer, ((MVariable) x).dom);
+		varToXVar.put(x, xvar);
+		idToXVar.put(xvar.id, xvar);
+		return xvar;
+	}
+
+	/** Fills the flat array of variables of the specified array, from the specified (multi-dimensional) array of the model, and returns the next position. */
+	private int fill(XArray array, Object vars, int dimension, int position) {
+		if (vars == null) // the whole subarray is empty
+			return position + IntStream.of(array.size).skip(dimension).reduce(1, (s, t) -> s * t);
+		if (dimension == array.size.length) {
+			array.vars[position] = xvar((IVar) vars);
+			return position + 1;
+		}
+		for (Object o : (Object[]) vars)
+			position = fill(array, o, dimension + 1, position);
+		return position;
+	}
+
+	private boolean buildVariables() {
+		for (VarEntity ve : imp.varEntities.allEntities) {
+			if (ve instanceof VarAlone) {
+				if (imp.varEntities.varToVarArray.get(((VarAlone) ve).var) != null)
+					continue; // as when building the document
+				if (ve.getType() != TypeVar.integer)
+					return false;
+				XVar x = xvar(((VarAlone) ve).var);
+				copyBasicAttributes(ve, x);
+				vEntries.add(x);
+			} else {
+				VarArray va = (VarArray) ve;
+				if (va.flatVars == null || va.flatVars.length == 0 || va.getType() != TypeVar.integer)
+					return false;
+				XArray array = new XArray(va.id, TypeVar.integer, va.sizes);
+				fill(array, va.vars, 0, 0);
+				copyBasicAttributes(ve, array);
+				idToXArray.put(array.id, array);
+				vEntries.add(array);
+			}
+		}
+		return true;
+	}
+
+	/**********************************************************************************************
+	 * Constraints
+	 *********************************************************************************************/
+
+	/**
+	 * Returns the variables denoted by the specified compact list, as recorded by the model (e.g., "x[] y[0..3]"), in the order given by the list. Null is
+	 * returned if the list does not only contain variables.
+	 */
+	private XVar[] vars(Object list) {
+		if (!(list instanceof String))
+			return null;
+		List<Object> vars = new ArrayList<>();
+		for (String tok : ((String) list).split("\\s+")) {
+			int pos = tok.indexOf("[");
+			XArray array = pos == -1 ? null : idToXArray.get(tok.substring(0, pos));
+			if (array == null && idToXVar.get(tok) == null)
+				return null;
+			if (array == null)
+				vars.add(idToXVar.get(tok));
+			else if (array.varWithId(tok) != null)
+				vars.add(array.varWithId(tok));
+			else
+				vars.addAll(array.getVarsFor(tok));
+		}
+		return vars.contains(null) ? null : (XVar[]) Utilities.specificArrayFrom(vars);
+	}
+
+	/** Returns a copy of the specified tree, where variables of the model are replaced by the corresponding entries. */
+	private XNode<XVar> tree(XNode<IVar> node) {
+		if (node instanceof XNodeParent)
+			return new XNodeParent<XVar>(node.type, Stream.of(node.sons).map(son -> tree(son)).collect(Collectors.toList()));
+		Object value = ((XNodeLeaf<IVar>) node).value;
+		return new XNodeLeaf<XVar>(node.type, value instanceof IVar ? varToXVar.get(value) : value);
+	}
+
+	/** Returns the entry corresponding to the specified constraint of the model, or null if this is a form of constraint that is not handled here. */
+	private XCtr ctr(ICtr c) {
+		Map<String, Object> map = c.mapXCSP();
+		if (c instanceof ICtrIntension)
+			return new XCtr(TypeCtr.intension, new CChild(TypeChild.function, tree((XNodeParent<IVar>) map.get(ICtr.FUNCTION))));
+		if (c instanceof ICtrExtension && map.get(ICtr.TUPLES) instanceof int[][] && (Integer) map.get(ICtr.ARITY) > 1) {
+			XVar[] list = vars(map.get(ICtr.LIST));
+			if (list == null)
+				return null;
+			TypeChild type = (Boolean) map.get(ICtr.POSITIVE) ? TypeChild.supports : TypeChild.conflicts;
+			return new XCtr(TypeCtr.extension, new CChild(TypeChild.list, list), XParser.tuplesChild(type, list, (int[][]) map.get(ICtr.TUPLES)));
+		}
+		if ((c instanceof ICtrAllDifferent || c instanceof ICtrAllEqual) && map.size() == 2) { // only scope and list (null values are not recorded)
+			XVar[] list = vars(map.get(ICtr.LIST)); // null if the key is not LIST, or if the list contains expressions
+			if (list == null)
+				return null;
+			return new XCtr(c instanceof ICtrAllDifferent ? TypeCtr.allDifferent : TypeCtr.allEqual, new CChild(TypeChild.list, list));
+		}
+		return null;
+	}
+
+	private boolean addCtr(ICtr c) {
+		CtrAlone ca = imp.ctrEntities.ctrToCtrAlone.get(c);
+		if (ca != null && ca.softening != null)
+			return false;
+		XCtr ctr = ctr(c);
+		if (ctr == null)
+			return false;
+		copyBasicAttributes(ca, ctr);
+		cEntries.add(ctr);
+		return true;
+	}
+
+	private boolean buildConstraints() {
+		for (CtrEntity ce : imp.ctrEntities.allEntities) {
+			if (ce instanceof TagDummy)
+				continue;
+			if (ce instanceof CtrArray) {
+				for (ICtr c : ((CtrArray) ce).ctrs)
+					if (!addCtr(c))
+						return false;
+			} else {
+				ICtr c = ((CtrAlone) ce).ctr;
+				if (imp.ctrEntities.ctrToCtrArray.get(c) == null && !addCtr(c)) // as when building the document
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**********************************************************************************************
+	 * Objectives and Annotations
+	 *********************************************************************************************/
+
+	private boolean buildObjectives() {
+		for (ObjEntity oe : imp.objEntities.allEntities) {
+			Map<String, Object> map = oe.obj.mapXCSP();
+			boolean minimize = (Boolean) map.get(IObj.MINIMIZE);
+			XObj obj = null;
+			if (oe.obj instanceof IObjFunctional)
+				obj = new OObjectiveExpr(minimize, TypeObjective.EXPRESSION, tree((XNode<IVar>) map.get(IObj.FUNCTION)));
+			else if (oe.obj instanceof IObjSpecialized && map.get(IObj.COEFFS) == null) {
+				XVar[] list = vars(map.get(IObj.LIST));
+				if (list != null)
+					obj = new OObjectiveSpecial(minimize, (TypeObjective) map.get(IObj.TYPE), list, null);
+			}
+			if (obj == null)
+				return false;
+			copyBasicAttributes(oe, obj);
+			oEntries.add(obj);
+		}
+		return true;
+	}
+
+	private void buildAnnotations() {
+		if (imp.annotations.decision != null)
+			aEntries.add(new AEntry(Constants.DECISION, Utilities.specificArrayFrom(
+					Stream.of(imp.annotations.decision).map(x -> (Object) varToXVar.get(x)).collect(Collectors.toList()))));
+	}
+
+	/** Computes the degree of each variable, as when parsing, so that variables of degree 0 are not loaded. */
+	private void computeVarDegrees() {
+		for (CEntry entry : cEntries)
+			for (XVar x : entry.vars())
+				x.degree++;
+		for (OEntry entry : oEntries) {
+			if (entry instanceof OObjectiveExpr)
+				for (XVar x : ((OObjectiveExpr) entry).rootNode.listOfVars())
+					x.degree++;
+			else
+				for (XVar x : entry.vars())
+					x.degree++;
+		}
+	}
+}
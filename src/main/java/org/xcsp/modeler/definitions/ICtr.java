@@ -2,9 +2,11 @@ package org.xcsp.modeler.definitions;
 
 import static java.util.stream.Collectors.joining;
 import static org.xcsp.modeler.definitions.IRootForCtrAndObj.map;
+import static org.xcsp.modeler.definitions.IRootForCtrAndObj.memoized;
 
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.xcsp.common.Condition;
@@ -168,10 +170,11 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrIntension extends ICtr {
 
 		static ICtrIntension buildFrom(IVar[] scope, XNodeParent<IVar> tree) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, FUNCTION, tree)); // making it canonical ?
 			return new ICtrIntension() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, FUNCTION, tree); // making it canonical ?
+					return cache.get();
 				}
 			};
 		}
@@ -180,19 +183,21 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrExtension extends ICtr {
 
 		static ICtrExtension buildFrom(IVar[] scope, String list, int arity, int[][] tuples, boolean positive) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, ARITY, arity, TUPLES, tuples, POSITIVE, positive));
 			return new ICtrExtension() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, ARITY, arity, TUPLES, tuples, POSITIVE, positive);
+					return cache.get();
 				}
 			};
 		}
 
 		static ICtrExtension buildFrom(IVar[] scope, String list, int arity, String[][] tuples, boolean positive) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, ARITY, arity, TUPLES, tuples, POSITIVE, positive));
 			return new ICtrExtension() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, ARITY, arity, TUPLES, tuples, POSITIVE, positive);
+					return cache.get();
 				}
 			};
 		}
@@ -283,10 +288,12 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrRegular extends ICtr {
 		static ICtrRegular buildFrom(IVar[] scope, String list, String transitions, String startState, String[] finalStates) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, TRANSITIONS, transitions, START, startState, FINAL,
+					Utilities.join(finalStates)));
 			return new ICtrRegular() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, TRANSITIONS, transitions, START, startState, FINAL, Utilities.join(finalStates));
+					return cache.get();
 				}
 			};
 		}
@@ -294,10 +301,11 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrMdd extends ICtr {
 		static ICtrMdd buildFrom(IVar[] scope, String list, String transitions) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, TRANSITIONS, transitions));
 			return new ICtrMdd() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, TRANSITIONS, transitions);
+					return cache.get();
 				}
 			};
 		}
@@ -311,10 +319,11 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrAllDifferent extends ICtr {
 		static ICtrAllDifferent buildFrom(IVar[] scope, String key1, Object value1, String except) {
 			Utilities.control(except == null || except.length() > 0, "Pb with except values");
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, key1, value1, EXCEPT, except));
 			return new ICtrAllDifferent() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, key1, value1, EXCEPT, except);
+					return cache.get();
 				}
 			};
 		}
@@ -322,10 +331,11 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrAllEqual extends ICtr {
 		static ICtrAllEqual buildFrom(IVar[] scope, String key, Object value) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, key, value));
 			return new ICtrAllEqual() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, key, value);
+					return cache.get();
 				}
 			};
 		}
@@ -333,10 +343,11 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrOrdered extends ICtr {
 		static ICtrOrdered buildFrom(IVar[] scope, String key1, Object value1, Object lengths, TypeOperatorRel operator) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, key1, value1, LENGTHS, lengths, OPERATOR, operator.name().toLowerCase()));
 			return new ICtrOrdered() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, key1, value1, LENGTHS, lengths, OPERATOR, operator.name().toLowerCase());
+					return cache.get();
 				}
 			};
 		}
@@ -350,10 +361,11 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrSum extends ICtr {
 		static ICtrSum buildFrom(IVar[] scope, String list, Object coeffs, Condition condition) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, COEFFS, coeffs, CONDITION, condition));
 			return new ICtrSum() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, COEFFS, coeffs, CONDITION, condition);
+					return cache.get();
 				}
 			};
 		}
@@ -361,10 +373,11 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrCount extends ICtr {
 		static ICtrCount buildFrom(IVar[] scope, String list, Object values, Condition condition) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, VALUES, values, CONDITION, condition));
 			return new ICtrCount() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, VALUES, values, CONDITION, condition);
+					return cache.get();
 				}
 			};
 		}
@@ -372,10 +385,11 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrNValues extends ICtr {
 		static ICtrNValues buildFrom(IVar[] scope, String list, String except, Condition condition) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, EXCEPT, except, CONDITION, condition));
 			return new ICtrNValues() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, EXCEPT, except, CONDITION, condition);
+					return cache.get();
 				}
 			};
 		}
@@ -383,10 +397,11 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrCardinality extends ICtr {
 		static ICtrCardinality buildFrom(IVar[] scope, String list, String values, Boolean closed, String occurs) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, VALUES, values, CLOSED, closed, OCCURS, occurs));
 			return new ICtrCardinality() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, VALUES, values, CLOSED, closed, OCCURS, occurs);
+					return cache.get();
 				}
 			};
 		}
@@ -404,10 +419,12 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrMaximum extends ICtr {
 		static ICtrMaximum buildFrom(IVar[] scope, String list, Integer startIndex, Object index, TypeRank rank, Condition condition) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, START_INDEX, startIndex, INDEX, index, RANK, rank, CONDITION,
+					condition));
 			return new ICtrMaximum() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, START_INDEX, startIndex, INDEX, index, RANK, rank, CONDITION, condition);
+					return cache.get();
 				}
 			};
 		}
@@ -430,10 +447,12 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrMinimum extends ICtr {
 		static ICtrMinimum buildFrom(IVar[] scope, String list, Integer startIndex, Object index, TypeRank rank, Condition condition) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, START_INDEX, startIndex, INDEX, index, RANK, rank, CONDITION,
+					condition));
 			return new ICtrMinimum() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, START_INDEX, startIndex, INDEX, index, RANK, rank, CONDITION, condition);
+					return cache.get();
 				}
 			};
 		}
@@ -456,10 +475,12 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrElement extends ICtr {
 		static ICtrElement buildFrom(IVar[] scope, String list, Integer startIndex, Object index, TypeRank rank, Condition condition) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, START_INDEX, startIndex, INDEX, index, RANK, rank, CONDITION,
+					condition));
 			return new ICtrElement() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, START_INDEX, startIndex, INDEX, index, RANK, rank, CONDITION, condition);
+					return cache.get();
 				}
 			};
 		}
@@ -482,11 +503,12 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrElementMatrix extends ICtr {
 		static ICtrElementMatrix buildFrom(IVar[] scope, Object matrix, Integer startRowIndex, Object rowIndex, Integer startColIndex, Object colIndex,
 				Object value) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, MATRIX, matrix, START_ROW_INDEX, startRowIndex, INDEX,
+					rowIndex + " " + colIndex, START_COL_INDEX, startColIndex, VALUE, value));
 			return new ICtrElementMatrix() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, MATRIX, matrix, START_ROW_INDEX, startRowIndex, INDEX, rowIndex + " " + colIndex, START_COL_INDEX, startColIndex,
-							VALUE, value);
+					return cache.get();
 				}
 			};
 		}
@@ -505,10 +527,12 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrChannel extends ICtr {
 		static ICtrChannel buildFrom(IVar[] scope, String list, Integer startIndex, String list2, Integer startIndex2, Object value) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, START_INDEX, startIndex, LIST2, list2, START_INDEX2, startIndex2,
+					VALUE, value));
 			return new ICtrChannel() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, START_INDEX, startIndex, LIST2, list2, START_INDEX2, startIndex2, VALUE, value);
+					return cache.get();
 				}
 			};
 		}
@@ -534,10 +558,11 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrStretch extends ICtr {
 
 		static ICtrStretch buildFrom(IVar[] scope, String list, String values, String widths, String patterns) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, VALUES, values, WIDTHS, widths, PATTERNS, patterns));
 			return new ICtrStretch() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, VALUES, values, WIDTHS, widths, PATTERNS, patterns);
+					return cache.get();
 				}
 			};
 		}
@@ -546,10 +571,11 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrNoOverlap extends ICtr {
 
 		static ICtrNoOverlap buildFrom(IVar[] scope, String origins, String lengths, Boolean zeroIgnored) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, ORIGINS, origins, LENGTHS, lengths, ZERO_IGNORED, zeroIgnored));
 			return new ICtrNoOverlap() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, ORIGINS, origins, LENGTHS, lengths, ZERO_IGNORED, zeroIgnored);
+					return cache.get();
 				}
 			};
 		}
@@ -566,10 +592,12 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrCumulative extends ICtr {
 
 		static ICtrCumulative buildFrom(IVar[] scope, String origins, String lengths, String ends, String heights, Condition condition) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, ORIGINS, origins, LENGTHS, lengths, ENDS, ends, HEIGHTS, heights, CONDITION,
+					condition));
 			return new ICtrCumulative() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, ORIGINS, origins, LENGTHS, lengths, ENDS, ends, HEIGHTS, heights, CONDITION, condition);
+					return cache.get();
 				}
 			};
 		}
@@ -578,10 +606,11 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrCircuit extends ICtr {
 
 		static ICtrCircuit buildFrom(IVar[] scope, String list, Integer startIndex, Object size) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, START_INDEX, startIndex, SIZE, size));
 			return new ICtrCircuit() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, START_INDEX, startIndex, SIZE, size);
+					return cache.get();
 				}
 			};
 		}
@@ -600,10 +629,11 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrClause extends ICtr {
 
 		static ICtrClause buildFrom(IVar[] scope, String list) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list));
 			return new ICtrClause() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list);
+					return cache.get();
 				}
 			};
 		}
@@ -611,10 +641,11 @@ public interface ICtr extends IRootForCtrAndObj {
 
 	public interface ICtrInstantiation extends ICtr {
 		static ICtrInstantiation buildFrom(IVar[] scope, String list, String values) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, VALUES, values));
 			return new ICtrInstantiation() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, VALUES, values);
+					return cache.get();
 				}
 			};
 		}
@@ -623,10 +654,11 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrSmart extends ICtr {
 
 		static ICtrSmart buildFrom(IVar[] scope, String list, String[] rows) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, LIST, list, ROWS, rows));
 			return new ICtrSmart() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, LIST, list, ROWS, rows);
+					return cache.get();
 				}
 			};
 		}
@@ -650,10 +682,12 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrSlide extends ICtr, Meta {
 
 		static ICtrSlide buildFrom(IVar[] scope, Boolean circular, IVar[][] lists, int[] offsets, int[] collects, CtrAlone[] cas) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, CIRCULAR, circular, LISTS, lists, OFFSETS, offsets, COLLECTS, collects,
+					ALONES, cas));
 			return new ICtrSlide() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, CIRCULAR, circular, LISTS, lists, OFFSETS, offsets, COLLECTS, collects, ALONES, cas);
+					return cache.get();
 				}
 			};
 		}
@@ -668,10 +702,11 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrIfThen extends ICtr, Meta {
 
 		static ICtrIfThen buildFrom(IVar[] scope, CtrAlone ca1, CtrAlone ca2) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, ALONES, new CtrAlone[] { ca1, ca2 }));
 			return new ICtrIfThen() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, ALONES, new CtrAlone[] { ca1, ca2 });
+					return cache.get();
 				}
 			};
 		}
@@ -689,10 +724,11 @@ public interface ICtr extends IRootForCtrAndObj {
 	public interface ICtrIfThenElse extends ICtr, Meta {
 
 		static ICtrIfThenElse buildFrom(IVar[] scope, CtrAlone ca1, CtrAlone ca2, CtrAlone ca3) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, ALONES, new CtrAlone[] { ca1, ca2, ca3 }));
 			return new ICtrIfThenElse() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, ALONES, new CtrAlone[] { ca1, ca2, ca3 });
+					return cache.get();
 				}
 			};
 		}
@@ -1,9 +1,11 @@
 package org.xcsp.modeler.definitions;
 
 import static org.xcsp.modeler.definitions.IRootForCtrAndObj.map;
+import static org.xcsp.modeler.definitions.IRootForCtrAndObj.memoized;
 
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.xcsp.common.IVar;
 import org.xcsp.common.Types.TypeObjective;
@@ -21,10 +23,11 @@ public interface IObj extends IRootForCtrAndObj {
 	public interface IObjFunctional extends IObj {
 
 		public static IObjFunctional buildFrom(IVar[] scope, boolean minimize, XNode<IVar> tree) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, MINIMIZE, minimize, FUNCTION, tree));
 			return new IObjFunctional() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, MINIMIZE, minimize, FUNCTION, tree);
+					return cache.get();
 				}
 			};
 		}
@@ -40,10 +43,11 @@ public interface IObj extends IRootForCtrAndObj {
 	public interface IObjSpecialized extends IObj {
 
 		public static IObjSpecialized buildFrom(IVar[] scope, boolean minimize, TypeObjective type, String list, String coeffs) {
+			Supplier<Map<String, Object>> cache = memoized(() -> map(SCOPE, scope, MINIMIZE, minimize, TYPE, type, LIST, list, COEFFS, coeffs));
 			return new IObjSpecialized() {
 				@Override
 				public Map<String, Object> mapXCSP() {
-					return map(SCOPE, scope, MINIMIZE, minimize, TYPE, type, LIST, list, COEFFS, coeffs);
+					return cache.get();
 				}
 			};
 		}
@@ -1,7 +1,11 @@
 package org.xcsp.modeler.definitions;
 
-import java.util.LinkedHashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
 import org.xcsp.common.IVar;
@@ -10,11 +14,62 @@ import org.xcsp.common.Utilities;
 public interface IRootForCtrAndObj {
 	String SCOPE = "scope";
 
+	/**
+	 * An immutable map, with a compact layout (two arrays), used to represent the (few) parameters of a constraint or an objective. Entries are iterated in
+	 * the order of their insertion.
+	 */
+	final class CompactMap extends AbstractMap<String, Object> {
+		private final String[] keys;
+		private final Object[] values;
+
+		private CompactMap(String[] keys, Object[] values) {
+			this.keys = keys;
+			this.values = values;
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < keys.length; i++)
+				if (keys[i] == key || keys[i].equals(key)) // keys are usually constants, hence the test ==
+					return i;
+			return -1;
+		}
+
+		@Override
+		public Object get(Object key) {
+			int i = indexOf(key);
+			return i == -1 ? null : values[i];
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return indexOf(key) != -1;
+		}
+
+		@Override
+		public int size() {
+			return keys.length;
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return new AbstractSet<Entry<String, Object>>() {
+				@Override
+				public Iterator<Entry<String, Object>> iterator() {
+					return IntStream.range(0, keys.length).mapToObj(i -> (Entry<String, Object>) new SimpleImmutableEntry<>(keys[i], values[i])).iterator();
+				}
+
+				@Override
+				public int size() {
+					return keys.length;
+				}
+			};
+		}
+	}
+
 	static Map<String, Object> map(String[] keys, Object... values) {
 		Utilities.control(keys.length == values.length && keys.length > 0, "Bad form");
-		Map<String, Object> map = new LinkedHashMap<>();
-		IntStream.range(0, keys.length).filter(i -> values[i] != null).forEach(i -> map.put(keys[i], values[i]));
-		return map;
+		int[] indexes = IntStream.range(0, keys.length).filter(i -> values[i] != null).toArray();
+		return new CompactMap(IntStream.of(indexes).mapToObj(i -> keys[i]).toArray(String[]::new), IntStream.of(indexes).mapToObj(i -> values[i]).toArray());
 	}
 
 	static Map<String, Object> map(String s, Object o) {
@@ -42,6 +97,23 @@ public interface IRootForCtrAndObj {
 		return map(new String[] { s1, s2, s3, s4, s5, s6 }, o1, o2, o3, o4, o5, o6);
 	}
 
+	/**
+	 * Returns a supplier that computes the map given by the specified supplier on its first call, and returns the same map afterwards. This is how the
+	 * (immutable) maps defining constraints and objectives are memoized (see mapXCSP).
+	 */
+	static Supplier<Map<String, Object>> memoized(Supplier<Map<String, Object>> supplier) {
+		return new Supplier<Map<String, Object>>() {
+			private Map<String, Object> map;
+
+			@Override
+			public Map<String, Object> get() {
+				if (map == null)
+					map = supplier.get();
+				return map;
+			}
+		};
+	}
+
 	default Map<String, Object> mapXCSP() {
 		return null;
 	}
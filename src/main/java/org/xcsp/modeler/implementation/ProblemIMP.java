@@ -88,7 +88,8 @@ public abstract class ProblemIMP {
 	 *********************************************************************************************/
 
 	private static Object fatalError(Object... objects) {
-		System.out.println("\nProblem: " + Stream.of(objects).filter(o -> o != null).map(o -> o.toString()).collect(Collectors.joining("\n")));
+		String message = Stream.of(objects).filter(o -> o != null).map(o -> o.toString()).collect(Collectors.joining("\n"));
+		System.out.println("\nProblem: " + message);
 		System.out.println("\n**********************");
 		StackTraceElement[] t = Thread.currentThread().getStackTrace();
 		boolean notEncounteredSubclass = true, nextofControl = false;
@@ -110,8 +111,8 @@ public abstract class ProblemIMP {
 			}
 		}
 		System.out.println("**********************");
-		if (org.xcsp.modeler.Compiler.ev)
-			throw new RuntimeException();
+		if (org.xcsp.modeler.Compiler.ev || org.xcsp.modeler.Compiler.inBatch)
+			throw new RuntimeException(message); // in batch mode, only the current instance fails
 		else {
 			System.exit(1);
 			return null;
@@ -608,6 +609,10 @@ public abstract class ProblemIMP {
 		}
 	}
 
+	/**
+	 * @deprecated the compiler now indents and compresses in process, in a single pass (see option -ic of Compiler)
+	 */
+	@Deprecated
 	public void indentAndCompressXmlUnderLinux(String fileName) {
 		if (fileName != null) {
 			System.out.print("  Indenting and Compressing File, yielding " + fileName + ".lzma ... ");
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.parser;
+
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonWriter;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * This class allows us to collect metrics about the process of parsing and loading XCSP3 instances. A listener can be attached to the parser and to the object
+ * implementing XCallbacks (see field metrics in XCallbacks.Implem); by default, the listener NONE is used, which records nothing.
+ */
+public final class XMetrics {
+
+	/**
+	 * The phases of the process of parsing and loading an instance. Phases may be nested (for example, RECOGNITION and CONVERSION occur during LOADING), and
+	 * so reported times are inclusive.
+	 */
+	public static enum Phase {
+		DOCUMENT, DECOMPRESSION, VARIABLES, CONSTRAINTS, OBJECTIVES, ANNOTATIONS, DEGREES, LOADING, RECOGNITION, CONVERSION;
+	}
+
+	/** The different kinds of counted objects. */
+	public static enum Counter {
+		VARIABLES, ARRAYS, CONSTRAINTS, OBJECTIVES, ANNOTATIONS, LOADED_CONSTRAINTS, TUPLES, CONVERTED_TUPLES;
+	}
+
+	/** The caches for which hits and misses are recorded. */
+	public static enum Cache {
+		DOMAINS, TUPLES, TRANSITIONS;
+	}
+
+	/**
+	 * The interface to implement for being notified of metrics during parsing and loading.
+	 */
+	public static interface Listener {
+
+		/**
+		 * Called when the specified phase ends, with the given (possibly null) detail, the elapsed wall time (in nanoseconds) and the number of allocated
+		 * bytes (-1 if unavailable).
+		 */
+		void phase(Phase phase, String detail, long nanos, long bytes);
+
+		/** Called when n objects of the specified kind have been encountered. */
+		void count(Counter counter, long n);
+
+		/** Called when the specified cache has been queried. */
+		void cache(Cache cache, boolean hit);
+
+		/** Returns a mark to be given later to ended(), or null if nothing must be measured. */
+		default long[] mark() {
+			return new long[] { System.nanoTime(), allocatedBytes() };
+		}
+
+		/** Notifies the end of the specified phase, which has been started when the specified mark was obtained. */
+		default void ended(Phase phase, String detail, long[] mark) {
+			if (mark != null)
+				phase(phase, detail, System.nanoTime() - mark[0], mark[1] == -1 ? -1 : allocatedBytes() - mark[1]);
+		}
+	}
+
+	/** The listener that ignores everything; this is the default one, so as to have no overhead at all. */
+	public static final Listener NONE = new Listener() {
+		@Override
+		public void phase(Phase phase, String detail, long nanos, long bytes) {
+		}
+
+		@Override
+		public void count(Counter counter, long n) {
+		}
+
+		@Override
+		public void cache(Cache cache, boolean hit) {
+		}
+
+		@Override
+		public long[] mark() {
+			return null;
+		}
+
+		@Override
+		public void ended(Phase phase, String detail, long[] mark) {
+		}
+	};
+
+	private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+	private static final boolean ALLOCATION_SUPPORTED = isAllocationSupported();
+
+	private static boolean isAllocationSupported() {
+		try {
+			if (!(THREAD_BEAN instanceof com.sun.management.ThreadMXBean))
+				return false;
+			com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+			if (!bean.isThreadAllocatedMemorySupported())
+				return false;
+			if (!bean.isThreadAllocatedMemoryEnabled())
+				bean.setThreadAllocatedMemoryEnabled(true);
+			return true;
+		} catch (Throwable e) { // e.g., non HotSpot VM
+			return false;
+		}
+	}
+
+	/** Returns the number of bytes allocated so far by the current thread, or -1 if this information is unavailable. */
+	public static long allocatedBytes() {
+		return ALLOCATION_SUPPORTED ? ((com.sun.management.ThreadMXBean) THREAD_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+	}
+
+	/**
+	 * A listener that accumulates, for each phase (and possibly each detail of a phase, such as the type of a constraint), the number of occurrences, the wall
+	 * time and the number of allocated bytes. It also accumulates counters (of entries and tuples) and hit/miss statistics of caches. This object is not
+	 * thread-safe, as loading an instance is sequential.
+	 */
+	public static class Recorder implements Listener {
+
+		/** Statistics of a phase (or a detail of a phase): number of occurrences, cumulated wall time (in nanoseconds) and cumulated allocated bytes. */
+		public static class Stats {
+			public long occurrences, nanos, bytes;
+
+			private JsonObject toJson() {
+				return Json.createObjectBuilder().add("occurrences", occurrences).add("ms", nanos / 1000000.0).add("bytes", bytes).build();
+			}
+		}
+
+		/** The statistics recorded for each phase. */
+		public final Map<Phase, Stats> phases = new LinkedHashMap<>();
+
+		/** The statistics recorded for each detail of phases (e.g., for each type of loaded constraint); these are also cumulated in phases. */
+		public final Map<Phase, Map<String, Stats>> details = new LinkedHashMap<>();
+
+		/** The values of the counters, indexed by the ordinals of Counter. */
+		public final long[] counters = new long[Counter.values().length];
+
+		/** The numbers of hits and misses, indexed by the ordinals of Cache. */
+		public final long[] hits = new long[Cache.values().length], misses = new long[Cache.values().length];
+
+		private static void update(Stats stats, long nanos, long bytes) {
+			stats.occurrences++;
+			stats.nanos += nanos;
+			stats.bytes = bytes == -1 || stats.bytes == -1 ? -1 : stats.bytes + bytes;
+		}
+
+		@Override
+		public void phase(Phase phase, String detail, long nanos, long bytes) {
+			update(phases.computeIfAbsent(phase, k -> new Stats()), nanos, bytes);
+			if (detail != null)
+				update(details.computeIfAbsent(phase, k -> new LinkedHashMap<>()).computeIfAbsent(detail, k -> new Stats()), nanos, bytes);
+		}
+
+		@Override
+		public void count(Counter counter, long n) {
+			counters[counter.ordinal()] += n;
+		}
+
+		@Override
+		public void cache(Cache cache, boolean hit) {
+			if (hit)
+				hits[cache.ordinal()]++;
+			else
+				misses[cache.ordinal()]++;
+		}
+
+		/** Returns the hit rate of the specified cache (a value between 0 and 1), or -1 if it has never been queried. */
+		public double hitRate(Cache cache) {
+			long total = hits[cache.ordinal()] + misses[cache.ordinal()];
+			return total == 0 ? -1 : hits[cache.ordinal()] / (double) total;
+		}
+
+		/** Resets all recorded metrics. */
+		public void clear() {
+			phases.clear();
+			details.clear();
+			for (int i = 0; i < counters.length; i++)
+				counters[i] = 0;
+			for (int i = 0; i < hits.length; i++)
+				hits[i] = misses[i] = 0;
+		}
+
+		/** Returns a JSON object representing all recorded metrics. */
+		public JsonObject toJson() {
+			JsonObjectBuilder phasesBuilder = Json.createObjectBuilder();
+			for (Phase phase : Phase.values()) {
+				if (!phases.containsKey(phase) && !details.containsKey(phase))
+					continue;
+				JsonObjectBuilder builder = Json.createObjectBuilder();
+				if (phases.containsKey(phase))
+					builder.add("total", phases.get(phase).toJson());
+				if (details.containsKey(phase)) {
+					JsonObjectBuilder detailsBuilder = Json.createObjectBuilder();
+					for (Entry<String, Stats> entry : details.get(phase).entrySet())
+						detailsBuilder.add(entry.getKey(), entry.getValue().toJson());
+					builder.add("details", detailsBuilder);
+				}
+				phasesBuilder.add(phase.name().toLowerCase(), builder);
+			}
+			JsonObjectBuilder countersBuilder = Json.createObjectBuilder();
+			for (Counter counter : Counter.values())
+				countersBuilder.add(counter.name().toLowerCase(), counters[counter.ordinal()]);
+			JsonObjectBuilder cachesBuilder = Json.createObjectBuilder();
+			for (Cache cache : Cache.values())
+				cachesBuilder.add(cache.name().toLowerCase(), Json.createObjectBuilder().add("hits", hits[cache.ordinal()])
+						.add("misses", misses[cache.ordinal()]).add("hitRate", hitRate(cache)));
+			return Json.createObjectBuilder().add("phases", phasesBuilder).add("counters", countersBuilder).add("caches", cachesBuilder).build();
+		}
+
+		@Override
+		public String toString() {
+			StringWriter out = new StringWriter();
+			try (JsonWriter writer = Json.createWriterFactory(Collections.singletonMap(JsonGenerator.PRETTY_PRINTING, true)).createWriter(out)) {
+				writer.writeObject(toJson());
+			}
+			return out.toString();
+		}
+	}
+}
@@ -91,11 +91,13 @@ import static org.xcsp.common.Utilities.splitToInts;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -109,6 +111,7 @@ import javax.xml.xpath.XPathFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
+import org.xcsp.common.BinaryFormat;
 import org.xcsp.common.Condition;
 import org.xcsp.common.Condition.ConditionIntset;
 import org.xcsp.common.Condition.ConditionIntvl;
@@ -157,6 +160,8 @@ import org.xcsp.common.structures.AbstractTuple;
 import org.xcsp.common.structures.AbstractTuple.HybridTuple;
 import org.xcsp.common.structures.AbstractTuple.OrdinaryTuple;
 import org.xcsp.common.structures.Transition;
+import org.xcsp.parser.XMetrics.Counter;
+import org.xcsp.parser.XMetrics.Phase;
 import org.xcsp.parser.entries.ParsingEntry.AEntry;
 import org.xcsp.parser.entries.ParsingEntry.CEntry;
 import org.xcsp.parser.entries.ParsingEntry.OEntry;
@@ -198,12 +203,24 @@ public class XParser {
 	/** An XPath object that is useful for some tasks (queries). */
 	private XPath xpath = XPathFactory.newInstance().newXPath();
 
-	/** The map that stores pairs (id,variable). */
+	/**
+	 * Indicates if the map mapForVars must contain the variables of arrays (one entry per variable). When false, only stand-alone variables are put in this
+	 * map, which saves time and memory for large arrays; variables of arrays are always found through method varWithId.
+	 */
+	public static boolean MAP_ARRAY_VARS = true;
+
+	/** The map that stores pairs (id,variable). Variables of arrays are only present if MAP_ARRAY_VARS is true. */
 	public Map<String, XVar> mapForVars = new LinkedHashMap<>();
 
 	/** The map that stores pairs (id,array). */
 	private Map<String, XArray> mapForArrays = new LinkedHashMap<>();
 
+	/** The number of variables (stand-alone variables and variables of arrays); each of them is given an ordinal in [0,nVars[ when parsed. */
+	public int nVars;
+
+	/** A map used as a cache for avoiding expanding several times the same compact forms (e.g., x[][2..5]); it stores pairs (compactForm,variables). */
+	private Map<String, List<XVar>> cacheForCompactForms = new HashMap<>();
+
 	/**
 	 * A map used as a cache for avoiding building several times the same domain objects; it stores pairs (textualContent,domain).
 	 */
@@ -240,6 +257,15 @@ public class XParser {
 	 **/
 	public TypeClass[] discardedClasses;
 
+	/**
+	 * The predicate used to discard elements of <constraints> (constraints and blocks) before parsing them, or null. For example, one may discard all
+	 * constraints of a given kind (tag name).
+	 */
+	public final Predicate<Element> discardedElements;
+
+	/** The listener notified of metrics when parsing (by default, nothing is recorded). */
+	public final XMetrics.Listener metrics;
+
 	/**********************************************************************************************
 	 * Parsing of Variables (and Domains)
 	 *********************************************************************************************/
@@ -350,16 +376,34 @@ public class XParser {
 			if (!TypeClass.intersect(entry.classes, discardedClasses))
 				vEntries.add(entry);
 		}
+		nVars = 0;
 		for (VEntry entry : vEntries)
-			if (entry instanceof XVar)
+			if (entry instanceof XVar) {
+				((XVar) entry).ordinal = nVars++;
 				mapForVars.put(entry.id, (XVar) entry);
-			else {
-				Stream.of(((XArray) entry).vars).filter(x -> x != null).forEach(x -> mapForVars.put(x.id, x));
+			} else {
+				for (XVar x : ((XArray) entry).vars)
+					if (x != null)
+						x.ordinal = nVars++;
+				if (MAP_ARRAY_VARS)
+					Stream.of(((XArray) entry).vars).filter(x -> x != null).forEach(x -> mapForVars.put(x.id, x));
 				mapForArrays.put(entry.id, (XArray) entry);
 			}
 		// entriesOfVariables.stream().forEach(e -> System.out.println(e));
 	}
 
+	/**
+	 * Returns the variable whose id is specified, or null if it does not exist. For a variable of an array (e.g., x[2][4]), the id of the array is extracted
+	 * and indexes are directly parsed, so as to access the variable in the array.
+	 */
+	public XVar varWithId(String id) {
+		int pos = id.indexOf('[');
+		if (pos == -1)
+			return mapForVars.get(id);
+		XArray array = mapForArrays.get(id.substring(0, pos));
+		return array == null ? null : array.varWithId(id);
+	}
+
 	/**********************************************************************************************
 	 * General Parsing Methods (for basic entities, conditions, simple and double sequences)
 	 *********************************************************************************************/
@@ -369,8 +413,9 @@ public class XParser {
 	 * 'Occurrences'. If nothing above matches, the token is returned (and considered as a symbolic value).
 	 */
 	private Object parseData(String tok) {
-		if (mapForVars.get(tok) != null)
-			return mapForVars.get(tok);
+		XVar x = varWithId(tok);
+		if (x != null)
+			return x;
 		if ((tok.charAt(0) == '*' || tok.charAt(0) == '-' || Character.isDigit(tok.charAt(0))) && tok.contains(TIMES)) {
 			// to deal with compact forms of values (e.g.in solutions)
 			String[] t = tok.split(TIMES);
@@ -434,8 +479,13 @@ public class XParser {
 			int pos = tok.indexOf("[");
 			XArray array = pos == -1 ? null : mapForArrays.get(tok.substring(0, pos));
 			try {
-				if (array != null)
-					list.addAll(array.getVarsFor(tok));
+				if (array != null) {
+					XVar x = array.varWithId(tok);
+					if (x != null)
+						list.add(x);
+					else
+						list.addAll(cacheForCompactForms.computeIfAbsent(tok, k -> array.getVarsFor(k)));
+				}
 				else if ((tok.charAt(0) == '-' || tok.charAt(0) == '+' || Character.isDigit(tok.charAt(0))) && tok.contains(TIMES)) {
 					// we need to handle compact forms with 'x' as e.g. 1x12
 					String[] t = tok.split(TIMES);
@@ -620,6 +670,44 @@ public class XParser {
 				ab.set(true);
 			return true;
 		}
+
+		/**
+		 * Same as above, except that the values of the tuple are directly taken in the specified array, from the specified position (Constants.STAR_LONG
+		 * denoting *).
+		 */
+		boolean parseOrdinaryTuple(long[] cells, int from, long[] t, DomBasic[] doms, AtomicBoolean ab) {
+			boolean starred = false;
+			for (int i = 0; i < t.length; i++) {
+				long l = cells[from + i];
+				if (l == Constants.STAR_LONG) {
+					t[i] = this == BYTE ? Constants.STAR_BYTE : this == SHORT ? Constants.STAR_SHORT : this == INT ? Constants.STAR : Constants.STAR_LONG;
+					starred = true;
+				} else if (canRepresent(l) && (doms == null || ((Dom) doms[i]).contains(l)))
+					t[i] = l;
+				else
+					return false; // because the tuple can be discarded
+			}
+			if (starred)
+				ab.set(true);
+			return true;
+		}
+
+		/** Same as above, except that the values of the tuple are directly taken in the specified array (Constants.STAR denoting *). */
+		boolean parseOrdinaryTuple(int[] tuple, long[] t, DomBasic[] doms, AtomicBoolean ab) {
+			boolean starred = false;
+			for (int i = 0; i < t.length; i++) {
+				if (tuple[i] == Constants.STAR) {
+					t[i] = this == BYTE ? Constants.STAR_BYTE : this == SHORT ? Constants.STAR_SHORT : this == INT ? Constants.STAR : Constants.STAR_LONG;
+					starred = true;
+				} else if (canRepresent(tuple[i]) && (doms == null || ((Dom) doms[i]).contains(tuple[i])))
+					t[i] = tuple[i];
+				else
+					return false; // because the tuple can be discarded
+			}
+			if (starred)
+				ab.set(true);
+			return true;
+		}
 	}
 
 	/**********************************************************************************************
@@ -734,7 +822,10 @@ public class XParser {
 	 * primitive (primitive set to null stands for String). The specified array of domains, if not null, can be used to filter out some tuples.
 	 */
 	private Object parseTuples(Element elt, TypePrimitive primitive, DomBasic[] doms, AtomicBoolean ab) {
-		String s = elt.getTextContent().trim();
+		Object loaded = elt.getUserData(BinaryFormat.TUPLES); // tuples directly given when loading a binary file
+		if (loaded != null && primitive != null)
+			return parseTuples((BinaryFormat.Tuples) loaded, primitive, doms, ab);
+		String s = loaded != null ? loaded.toString() : elt.getTextContent().trim();
 		if (s.length() == 0)
 			return null;
 		if (s.charAt(0) != '(') { // necessarily a unary constraint if '(' not present as first character
@@ -756,23 +847,7 @@ public class XParser {
 		long[] tmp = new long[tok.split("\\s*,\\s*").length];
 		while (tok != null) {
 			if (primitive.parseOrdinaryTuple(tok, tmp, doms, ab)) // if not filtered-out parsed tuple
-				if (primitive == TypePrimitive.BYTE) {
-					byte[] t = new byte[tmp.length];
-					for (int i = 0; i < t.length; i++)
-						t[i] = (byte) tmp[i];
-					list.add(t);
-				} else if (primitive == TypePrimitive.SHORT) {
-					short[] t = new short[tmp.length];
-					for (int i = 0; i < t.length; i++)
-						t[i] = (short) tmp[i];
-					list.add(t);
-				} else if (primitive == TypePrimitive.INT) {
-					int[] t = new int[tmp.length];
-					for (int i = 0; i < t.length; i++)
-						t[i] = (int) tmp[i];
-					list.add(t);
-				} else
-					list.add(tmp.clone());
+				addTuple(list, tmp, primitive);
 			for (leftParenthesis = rightParenthesis + 1; leftParenthesis < s.length() && s.charAt(leftParenthesis) != '('; leftParenthesis++)
 				;
 			if (leftParenthesis == s.length())
@@ -783,14 +858,69 @@ public class XParser {
 				tok = s.substring(leftParenthesis + 1, rightParenthesis).trim();
 			}
 		}
-		// returns a 2-dimensional array of byte, short, int or long
+		return toTuplesArray(list);
+	}
+
+	/** Parses the tuples loaded from a binary file, as above: tuples are filtered with respect to the specified domains and primitive. */
+	private Object parseTuples(BinaryFormat.Tuples tuples, TypePrimitive primitive, DomBasic[] doms, AtomicBoolean ab) {
+		List<Object> list = new ArrayList<>();
+		long[] tmp = new long[tuples.arity];
+		for (int i = 0; i < tuples.size(); i++)
+			if (primitive.parseOrdinaryTuple(tuples.cells, i * tuples.arity, tmp, doms, ab)) // if not filtered-out tuple
+				addTuple(list, tmp, primitive);
+		return toTuplesArray(list);
+	}
+
+	/**
+	 * Returns the child (supports or conflicts) of an extension constraint on the specified integer variables, for the specified tuples that are directly
+	 * given instead of being parsed (Constants.STAR denoting *). As when parsing, tuples that are not valid wrt the domains of the variables are discarded,
+	 * values are represented with the smallest suitable primitive, and the child is flagged if * is present.
+	 */
+	public static CChild tuplesChild(TypeChild type, XVar[] vars, int[][] tuples) {
+		TypePrimitive primitive = TypePrimitive.whichPrimitiveFor(vars);
+		DomBasic[] doms = domainsFor(vars);
+		AtomicBoolean ab = new AtomicBoolean();
+		List<Object> list = new ArrayList<>();
+		long[] tmp = new long[vars.length];
+		for (int[] tuple : tuples)
+			if (primitive.parseOrdinaryTuple(tuple, tmp, doms, ab)) // if not filtered-out tuple
+				addTuple(list, tmp, primitive);
+		CChild child = new CChild(type, toTuplesArray(list));
+		if (ab.get())
+			child.flags.add(TypeFlag.STARRED_TUPLES);
+		return child;
+	}
+
+	/** Adds to the specified list a copy of the specified tuple, using the specified primitive. */
+	private static void addTuple(List<Object> list, long[] tmp, TypePrimitive primitive) {
+		if (primitive == TypePrimitive.BYTE) {
+			byte[] t = new byte[tmp.length];
+			for (int i = 0; i < t.length; i++)
+				t[i] = (byte) tmp[i];
+			list.add(t);
+		} else if (primitive == TypePrimitive.SHORT) {
+			short[] t = new short[tmp.length];
+			for (int i = 0; i < t.length; i++)
+				t[i] = (short) tmp[i];
+			list.add(t);
+		} else if (primitive == TypePrimitive.INT) {
+			int[] t = new int[tmp.length];
+			for (int i = 0; i < t.length; i++)
+				t[i] = (int) tmp[i];
+			list.add(t);
+		} else
+			list.add(tmp.clone());
+	}
+
+	/** Returns a 2-dimensional array of byte, short, int or long, built from the specified list of tuples. */
+	private static Object toTuplesArray(List<Object> list) {
 		return list.size() == 0 ? new long[0][] : list.toArray((Object[]) java.lang.reflect.Array.newInstance(list.get(0).getClass(), list.size()));
 	}
 
 	/**
 	 * Returns the sequence of basic domains for the variables in the specified array.
 	 */
-	private DomBasic[] domainsFor(XVar[] vars) {
+	private static DomBasic[] domainsFor(XVar[] vars) {
 		return Stream.of(vars).map(x -> ((DomBasic) x.dom)).toArray(DomBasic[]::new);
 	}
 
@@ -838,7 +968,7 @@ public class XParser {
 		// System.out.println("parsing " + s);
 		int leftParenthesisPosition = s.indexOf('(');
 		if (leftParenthesisPosition == -1) { // i.e., if leaf
-			XVar var = mapForVars.get(s);
+			XVar var = varWithId(s);
 			if (var != null)
 				return new XNodeLeaf<XVar>(TypeExpr.VAR, var);
 			if (s.charAt(0) == '%') {
@@ -1583,29 +1713,40 @@ public class XParser {
 			}
 			// dealing with reification
 			if (attributes.containsKey(TypeAtt.reifiedBy))
-				entryReifiable.reification = new XReification(TypeReification.FULL, mapForVars.get(attributes.get(TypeAtt.reifiedBy)));
+				entryReifiable.reification = new XReification(TypeReification.FULL, varWithId(attributes.get(TypeAtt.reifiedBy)));
 			else if (attributes.containsKey(TypeAtt.hreifiedFrom))
-				entryReifiable.reification = new XReification(TypeReification.HALF_FROM, mapForVars.get(attributes.get(TypeAtt.hreifiedFrom)));
+				entryReifiable.reification = new XReification(TypeReification.HALF_FROM, varWithId(attributes.get(TypeAtt.hreifiedFrom)));
 			else if (attributes.containsKey(TypeAtt.hreifiedTo))
-				entryReifiable.reification = new XReification(TypeReification.HALF_TO, mapForVars.get(attributes.get(TypeAtt.hreifiedTo)));
+				entryReifiable.reification = new XReification(TypeReification.HALF_TO, varWithId(attributes.get(TypeAtt.hreifiedTo)));
 		}
 		return entry;
 	}
 
 	/** Recursive parsing, traversing possibly multiple blocks */
 	private void recursiveParsingOfConstraints(Element elt, List<CEntry> list) {
+		if (mustBeDiscarded(elt))
+			return; // nothing is parsed (for a block, this concerns all its content)
 		if (elt.getTagName().equals(BLOCK)) {
 			List<CEntry> blockEntries = new ArrayList<>();
 			Stream.of(childElementsOf(elt)).forEach(child -> recursiveParsingOfConstraints(child, blockEntries));
 			XBlock ctrBlock = new XBlock(blockEntries);
 			ctrBlock.copyAttributesOf(elt);
-			if (!TypeClass.intersect(ctrBlock.classes, discardedClasses))
-				list.add(ctrBlock);
-		} else {
-			CEntry entry = parseCEntryOuter(elt, null);
-			if (!TypeClass.intersect(entry.classes, discardedClasses))
-				list.add(entry);
-		}
+			list.add(ctrBlock);
+		} else
+			list.add(parseCEntryOuter(elt, null));
+	}
+
+	/**
+	 * Determines if the specified element (a constraint or a block) must be discarded, before parsing it. This is the case if one of its classes (attribute
+	 * class) is discarded, or if the predicate discardedElements (when not null) is satisfied.
+	 */
+	private boolean mustBeDiscarded(Element elt) {
+		if (discardedElements != null && discardedElements.test(elt))
+			return true;
+		if (discardedClasses == null || discardedClasses.length == 0)
+			return false;
+		String classes = elt.getAttribute("class").trim();
+		return classes.length() > 0 && TypeClass.intersect(TypeClass.classesFor(classes.split("\\s+")), discardedClasses);
 	}
 
 	/** Parses the element <constraints> of the document. */
@@ -1702,18 +1843,47 @@ public class XParser {
 
 	/**
 	 * Loads and parses the XCSP3 file corresponding to the specified document. The specified array (possibly empty) of TypeClass denotes the classes that must
-	 * be discarded (e.g., symmetryBreaking).
+	 * be discarded (e.g., symmetryBreaking). The specified predicate (possibly null) allows us to discard some elements of <constraints> before parsing them.
+	 * The specified listener is notified of metrics (times of parsing phases and numbers of entries).
 	 */
-	public XParser(Document document, TypeClass[] discardedClasses) throws Exception {
+	public XParser(Document document, TypeClass[] discardedClasses, Predicate<Element> discardedElements, XMetrics.Listener metrics) throws Exception {
 		this.document = document;
 		this.discardedClasses = discardedClasses;
+		this.discardedElements = discardedElements;
+		this.metrics = metrics;
 		typeFramework = giveAttributeValue(document.getDocumentElement(), TypeAtt.type.name(), TypeFramework.class, TypeFramework.CSP);
 
+		long[] mark = metrics.mark();
 		parseVariables();
+		metrics.ended(Phase.VARIABLES, null, mark);
+		mark = metrics.mark();
 		parseConstraints();
+		metrics.ended(Phase.CONSTRAINTS, null, mark);
+		mark = metrics.mark();
 		parseObjectives();
+		metrics.ended(Phase.OBJECTIVES, null, mark);
+		mark = metrics.mark();
 		parseAnnotations();
+		metrics.ended(Phase.ANNOTATIONS, null, mark);
+		mark = metrics.mark();
 		computeVarDegrees();
+		metrics.ended(Phase.DEGREES, null, mark);
+		if (metrics != XMetrics.NONE) {
+			metrics.count(Counter.VARIABLES,
+					vEntries.stream().mapToLong(e -> e instanceof XVar ? 1 : Stream.of(((XArray) e).vars).filter(x -> x != null).count()).sum());
+			metrics.count(Counter.ARRAYS, mapForArrays.size());
+			metrics.count(Counter.CONSTRAINTS, cEntries.size());
+			metrics.count(Counter.OBJECTIVES, oEntries.size());
+			metrics.count(Counter.ANNOTATIONS, aEntries.size());
+		}
+	}
+
+	/**
+	 * Loads and parses the XCSP3 file corresponding to the specified document. The specified array (possibly empty) of TypeClass denotes the classes that must
+	 * be discarded (e.g., symmetryBreaking).
+	 */
+	public XParser(Document document, TypeClass[] discardedClasses) throws Exception {
+		this(document, discardedClasses, null, XMetrics.NONE);
 	}
 
 	/**
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.parser.callbacks;
+
+import java.math.BigInteger;
+
+/**
+ * An accumulator for sums and products of integers used when checking constraints and objectives. Computations are made on longs with overflow detection
+ * (Math.addExact and Math.multiplyExact), and switch to BigInteger only when an overflow actually occurs.
+ */
+final class Accumulator {
+
+	/** The current value, when no overflow has occurred. */
+	private long value;
+
+	/** The current value, once an overflow has occurred; null otherwise. */
+	private BigInteger big;
+
+	Accumulator(long value) {
+		this.value = value;
+	}
+
+	/** Adds the specified value to this accumulator. */
+	Accumulator add(long v) {
+		if (big == null) {
+			try {
+				value = Math.addExact(value, v);
+				return this;
+			} catch (ArithmeticException e) {
+				big = BigInteger.valueOf(value);
+			}
+		}
+		big = big.add(BigInteger.valueOf(v));
+		return this;
+	}
+
+	/** Adds the product of the two specified values to this accumulator. */
+	Accumulator add(long v, long coeff) {
+		if (big == null) {
+			try {
+				return add(Math.multiplyExact(v, coeff));
+			} catch (ArithmeticException e) {
+				big = BigInteger.valueOf(value);
+			}
+		}
+		big = big.add(BigInteger.valueOf(v).multiply(BigInteger.valueOf(coeff)));
+		return this;
+	}
+
+	/** Multiplies this accumulator by the specified value. */
+	Accumulator multiply(long v) {
+		if (big == null) {
+			try {
+				value = Math.multiplyExact(value, v);
+				return this;
+			} catch (ArithmeticException e) {
+				big = BigInteger.valueOf(value);
+			}
+		}
+		big = big.multiply(BigInteger.valueOf(v));
+		return this;
+	}
+
+	/**
+	 * Returns the value of this accumulator if it fits in a long, and Long.MIN_VALUE or Long.MAX_VALUE otherwise (depending on the sign). Comparing the
+	 * returned value with any int (as in conditions) gives the same result as comparing the exact value.
+	 */
+	long clampedValue() {
+		if (big == null)
+			return value;
+		return big.bitLength() < 64 ? big.longValue() : big.signum() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+	}
+
+	/** Returns the exact value of this accumulator. */
+	BigInteger toBigInteger() {
+		return big == null ? BigInteger.valueOf(value) : big;
+	}
+
+	/** Returns the sum of the specified values, each one being multiplied by the corresponding coefficient, if coeffs is not null. */
+	static Accumulator sum(int[] values, int[] coeffs) {
+		Accumulator acc = new Accumulator(0);
+		for (int i = 0; i < values.length; i++)
+			acc.add(coeffs == null ? values[i] : (long) values[i] * coeffs[i]); // the product of two ints cannot overflow a long
+		return acc;
+	}
+
+	/** Returns the sum of the specified values, each one being multiplied by the corresponding coefficient, if coeffs is not null. */
+	static Accumulator sum(long[] values, int[] coeffs) {
+		Accumulator acc = new Accumulator(0);
+		for (int i = 0; i < values.length; i++)
+			if (coeffs == null)
+				acc.add(values[i]);
+			else
+				acc.add(values[i], coeffs[i]);
+		return acc;
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.parser.callbacks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.xcsp.common.Constants;
+import org.xcsp.common.Utilities;
+
+/**
+ * A streaming reader of the outputs of solvers in competition format (s, o and v lines). The elements instantiation given in v lines are tokenized on the fly
+ * (possibly spanning many lines), without building any large string or DOM, and several instantiations can be read successively from the same output.
+ */
+final class CompetitionLog {
+
+	/** The kinds of values in instantiations. */
+	static final byte INT = 0, SYMBOL = 1, STAR = 2;
+
+	private static final Pattern COST = Pattern.compile("cost\\s*=\\s*['\"]([^'\"]*)['\"]");
+
+	/** An instantiation read from v lines, given by the tokens of its element list and by its values. */
+	static final class Instantiation {
+
+		/** The tokens of the element list (variables, or compact forms such as x[]). */
+		final List<String> list = new ArrayList<>();
+
+		/** The kind (INT, SYMBOL or STAR) of each value. */
+		byte[] kinds = new byte[64];
+
+		/** The integer values (0 for other kinds of values). */
+		long[] values = new long[64];
+
+		/** The symbolic values (null for other kinds of values), or null if no symbol has been met. */
+		String[] symbols;
+
+		/** The number of values. */
+		int size;
+
+		/** The value of the attribute cost, or null. */
+		String cost;
+
+		private void add(byte kind, long value, String symbol, int nOccurrences) {
+			if (size + nOccurrences > kinds.length) {
+				int capacity = Math.max(2 * kinds.length, size + nOccurrences);
+				kinds = Arrays.copyOf(kinds, capacity);
+				values = Arrays.copyOf(values, capacity);
+				symbols = symbols == null ? null : Arrays.copyOf(symbols, capacity);
+			}
+			if (symbol != null && symbols == null)
+				symbols = new String[kinds.length];
+			for (int i = 0; i < nOccurrences; i++, size++) {
+				kinds[size] = kind;
+				values[size] = value;
+				if (symbols != null)
+					symbols[size] = symbol;
+			}
+		}
+
+		/** Adds the value(s) represented by the specified token, which can be a compact form such as 0x3 (three occurrences of 0). */
+		private void add(String tok) {
+			char c = tok.charAt(0);
+			int nOccurrences = 1, pos = tok.indexOf(Constants.TIMES);
+			if (pos > 0 && (c == '*' || c == '-' || c == '+' || Character.isDigit(c))) {
+				nOccurrences = Integer.parseInt(tok.substring(pos + 1));
+				tok = tok.substring(0, pos);
+			}
+			if (tok.equals("*"))
+				add(STAR, 0, null, nOccurrences);
+			else if (c == '-' || c == '+' || Character.isDigit(c))
+				add(INT, Utilities.safeLong(tok), null, nOccurrences);
+			else
+				add(SYMBOL, 0, tok, nOccurrences);
+		}
+	}
+
+	private static final byte OUTSIDE = 0, LIST = 1, VALUES = 2;
+
+	private final BufferedReader in;
+
+	/** The last s line, or null. */
+	String sLine;
+
+	/** The value of the last o line, or null. */
+	BigInteger declaredCost;
+
+	/** The instantiation being currently read, or null. */
+	private Instantiation curr;
+
+	/** The part (OUTSIDE, LIST or VALUES) of the current instantiation being read. */
+	private byte part;
+
+	/** The current v line (without the prefix) and the current position in it. */
+	private String line;
+
+	private int pos;
+
+	/** The text of the tag being read when it spans several lines, or null. */
+	private StringBuilder tag;
+
+	CompetitionLog(BufferedReader in) {
+		this.in = in;
+	}
+
+	/** Returns true if an instantiation has been started but not finished (at the end of the output). */
+	boolean incomplete() {
+		return curr != null;
+	}
+
+	/** Returns the next (complete) instantiation, or null if the end of the output is reached. */
+	Instantiation next() throws IOException {
+		while (true) {
+			if (line == null || pos >= line.length()) {
+				String l = in.readLine();
+				if (l == null)
+					return null;
+				if (l.startsWith("s "))
+					sLine = l; // we store the last s line
+				else if (l.startsWith("o ")) {
+					String s = l.substring(2).trim();
+					int p = s.indexOf(" ");
+					declaredCost = new BigInteger(p == -1 ? s : s.substring(0, p)); // we store the last o value
+				}
+				line = l.startsWith("v ") ? l.substring(2) : null;
+				pos = 0;
+			} else {
+				Instantiation inst = scan();
+				if (inst != null)
+					return inst;
+			}
+		}
+	}
+
+	/** Scans the current line from the current position, until the end of the line or the end of an instantiation (which is then returned). */
+	private Instantiation scan() {
+		while (pos < line.length()) {
+			char c = line.charAt(pos);
+			if (tag != null || c == '<') {
+				int end = line.indexOf('>', pos);
+				tag = tag == null ? new StringBuilder() : tag.append(' ');
+				tag.append(line, pos, end == -1 ? line.length() : end + 1);
+				pos = end == -1 ? line.length() : end + 1;
+				if (end != -1) {
+					String t = tag.toString();
+					tag = null;
+					if (t.startsWith("<instantiation")) {
+						curr = new Instantiation(); // only the last started instantiation is considered
+						Matcher m = COST.matcher(t);
+						curr.cost = m.find() ? m.group(1) : null;
+						part = OUTSIDE;
+					} else if (curr != null) {
+						if (t.startsWith("</instantiation")) {
+							Instantiation inst = curr;
+							curr = null;
+							return inst;
+						}
+						part = t.startsWith("<list") ? LIST : t.startsWith("<values") ? VALUES : OUTSIDE;
+					}
+				}
+			} else if (Character.isWhitespace(c))
+				pos++;
+			else {
+				int end = pos;
+				while (end < line.length() && !Character.isWhitespace(line.charAt(end)) && line.charAt(end) != '<')
+					end++;
+				String tok = line.substring(pos, end);
+				pos = end;
+				if (curr != null && part == LIST)
+					curr.list.add(tok);
+				else if (curr != null && part == VALUES)
+					curr.add(tok);
+			}
+		}
+		return null;
+	}
+}
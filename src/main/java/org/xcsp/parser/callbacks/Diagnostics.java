@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.parser.callbacks;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonWriter;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * This class allows us to report, for a solution checked by SolutionChecker, structured information about each violated constraint: its id, its type, the
+ * values of the variables in its scope, its offending part (e.g., two overlapping tasks) and a violation degree (e.g., the distance between a computed sum and
+ * the values authorized by the condition). The report can be exported in JSON.
+ */
+public final class Diagnostics {
+
+	/** The description of the violation of a constraint. */
+	public static final class Violation {
+
+		/** The id of the violated constraint (as tracked by XCallbacks.Implem). */
+		public final String id;
+
+		/** The type of the violated constraint. */
+		public final String type;
+
+		/** The value (a Long, or a String for a symbol or *) of each variable in the scope of the constraint. */
+		public final Map<String, Object> scope;
+
+		/** The description of the offending part of the constraint, i.e., the reason of the first recorded violation, or null. */
+		public final String offending;
+
+		/** The violation degree; it is the sum of the degrees of all violations recorded for the constraint (at least 1 per violation). */
+		long degree;
+
+		Violation(String id, String type, Map<String, Object> scope, String offending, long degree) {
+			this.id = id;
+			this.type = type;
+			this.scope = scope;
+			this.offending = offending;
+			this.degree = degree;
+		}
+
+		public long degree() {
+			return degree;
+		}
+
+		/** Returns the sum of the two specified (non-negative) degrees, saturated to Long.MAX_VALUE. */
+		static long add(long degree1, long degree2) {
+			return degree1 > Long.MAX_VALUE - degree2 ? Long.MAX_VALUE : degree1 + degree2;
+		}
+
+		/** Returns a JSON object representing this violation. */
+		public JsonObject toJson() {
+			JsonObjectBuilder scopeBuilder = Json.createObjectBuilder();
+			for (Entry<String, Object> entry : scope.entrySet())
+				if (entry.getValue() instanceof Long)
+					scopeBuilder.add(entry.getKey(), (Long) entry.getValue());
+				else
+					scopeBuilder.add(entry.getKey(), entry.getValue().toString());
+			JsonObjectBuilder builder = Json.createObjectBuilder().add("id", id).add("type", type).add("scope", scopeBuilder);
+			if (offending != null)
+				builder.add("offending", offending);
+			return builder.add("degree", degree).build();
+		}
+	}
+
+	/** The violations of constraints, in document order. */
+	public final List<Violation> violations = new ArrayList<>();
+
+	/** The descriptions of the invalid objectives. */
+	public final List<String> invalidObjectives = new ArrayList<>();
+
+	/** Returns the sum of the degrees of all violations, which can be seen as the cost of the solution with respect to constraints. */
+	public long totalDegree() {
+		return violations.stream().mapToLong(v -> v.degree).reduce(0, Violation::add);
+	}
+
+	/** Returns a JSON object representing this report. */
+	public JsonObject toJson() {
+		JsonArrayBuilder violationsBuilder = Json.createArrayBuilder();
+		violations.stream().forEach(v -> violationsBuilder.add(v.toJson()));
+		JsonArrayBuilder objectivesBuilder = Json.createArrayBuilder();
+		invalidObjectives.stream().forEach(o -> objectivesBuilder.add(o));
+		return Json.createObjectBuilder().add("nViolatedConstraints", violations.size()).add("totalDegree", totalDegree())
+				.add("violations", violationsBuilder).add("invalidObjectives", objectivesBuilder).build();
+	}
+
+	@Override
+	public String toString() {
+		StringWriter out = new StringWriter();
+		try (JsonWriter writer = Json.createWriterFactory(Collections.singletonMap(JsonGenerator.PRETTY_PRINTING, true)).createWriter(out)) {
+			writer.writeObject(toJson());
+		}
+		return out.toString();
+	}
+}
@@ -13,6 +13,12 @@
  */
 package org.xcsp.parser.callbacks;
 
+import static org.xcsp.common.Types.TypeConditionOperatorRel.EQ;
+import static org.xcsp.common.Types.TypeConditionOperatorRel.GE;
+import static org.xcsp.common.Types.TypeConditionOperatorRel.GT;
+import static org.xcsp.common.Types.TypeConditionOperatorRel.LE;
+import static org.xcsp.common.Types.TypeConditionOperatorRel.LT;
+import static org.xcsp.common.Types.TypeConditionOperatorRel.NE;
 import static org.xcsp.common.Types.TypeObjective.LEX;
 import static org.xcsp.common.Types.TypeObjective.MAXIMUM;
 import static org.xcsp.common.Types.TypeObjective.MINIMUM;
@@ -22,19 +28,34 @@ import static org.xcsp.common.Types.TypeObjective.SUM;
 import static org.xcsp.common.Utilities.control;
 import static org.xcsp.common.Utilities.lexComparatorInt;
 
+import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
 import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
@@ -47,6 +68,8 @@ import org.w3c.dom.Element;
 import org.xcsp.common.Condition;
 import org.xcsp.common.Condition.ConditionIntset;
 import org.xcsp.common.Condition.ConditionIntvl;
+import org.xcsp.common.Condition.ConditionRel;
+import org.xcsp.common.Condition.ConditionSet;
 import org.xcsp.common.Condition.ConditionVal;
 import org.xcsp.common.Condition.ConditionVar;
 import org.xcsp.common.Constants;
@@ -55,6 +78,7 @@ import org.xcsp.common.Range;
 import org.xcsp.common.Types.TypeAtt;
 import org.xcsp.common.Types.TypeChild;
 import org.xcsp.common.Types.TypeConditionOperatorRel;
+import org.xcsp.common.Types.TypeConditionOperatorSet;
 import org.xcsp.common.Types.TypeFlag;
 import org.xcsp.common.Types.TypeObjective;
 import org.xcsp.common.Types.TypeOperatorRel;
@@ -68,8 +92,15 @@ import org.xcsp.common.predicates.XNode;
 import org.xcsp.common.predicates.XNodeParent;
 import org.xcsp.common.structures.AbstractTuple;
 import org.xcsp.common.structures.Transition;
+import org.xcsp.common.structures.TransitionTable;
 import org.xcsp.parser.XParser;
+import org.xcsp.parser.callbacks.CompetitionLog.Instantiation;
+import org.xcsp.parser.callbacks.Diagnostics.Violation;
+import org.xcsp.parser.entries.ParsingEntry.OEntry;
+import org.xcsp.parser.entries.XConstraints.CChild;
 import org.xcsp.parser.entries.XConstraints.XCtr;
+import org.xcsp.parser.entries.XObjectives.OObjectiveExpr;
+import org.xcsp.parser.entries.XObjectives.OObjectiveSpecial;
 import org.xcsp.parser.entries.XObjectives.XObj;
 import org.xcsp.parser.entries.XVariables.XVar;
 import org.xcsp.parser.entries.XVariables.XVarInteger;
@@ -90,24 +121,36 @@ public final class SolutionChecker implements XCallbacks2 {
 
 	private static void usage() {
 		System.out.println("Usage: " + SolutionChecker.class.getName()
-				+ " <instanceFilename> [<solutionFileName> |'<instantiation .... /instantiation>'] [-b=bound] [-dc=classes] [-cm]");
+				+ " <instanceFilename> [<solutionFileName> |'<instantiation .... /instantiation>'] [-b=bound] [-dc=classes] [-cm] [-t=nThreads] [-inc] [-diag | -server | -port=p]");
 		System.exit(1);
 	}
 
 	public static void main(String[] args) throws Exception {
-		if (args.length < 1 || args.length > 5)
+		if (args.length < 1 || args.length > 9)
 			usage();
-		Boolean competitionMode = Boolean.FALSE;
+		Boolean competitionMode = Boolean.FALSE, incremental = Boolean.FALSE, withDiagnostics = Boolean.FALSE, server = Boolean.FALSE;
 		String[] dc = null;
 		Long bound = null;
+		Integer port = null;
+		int nThreads = 1;
 		int right = args.length - 1;
 		while (right > 0 && args[right].startsWith("-")) {
 			if (args[right].equals("-cm"))
 				competitionMode = Boolean.TRUE;
+			else if (args[right].equals("-inc"))
+				incremental = Boolean.TRUE;
+			else if (args[right].equals("-diag"))
+				withDiagnostics = Boolean.TRUE;
 			else if (args[right].startsWith("-dc="))
 				dc = args[right].substring(4).split(",");
 			else if (args[right].startsWith("-b="))
 				bound = Long.parseLong(args[right].substring(3));
+			else if (args[right].startsWith("-t="))
+				nThreads = Integer.parseInt(args[right].substring(3));
+			else if (args[right].equals("-server"))
+				server = Boolean.TRUE;
+			else if (args[right].startsWith("-port="))
+				port = Integer.parseInt(args[right].substring(6));
 			else
 				usage();
 			right--;
@@ -115,9 +158,21 @@ public final class SolutionChecker implements XCallbacks2 {
 		if (right < 0 || right > 2)
 			usage();
 		String fileName = args[0];
+		if (server || port != null) {
+			if (right != 0 || competitionMode || withDiagnostics || (server && port != null))
+				usage();
+			if (port != null)
+				new SolutionChecker(fileName, port, bound, dc, nThreads);
+			else {
+				PrintStream answers = System.out;
+				System.setOut(System.err); // logs and error messages must not be mixed with answers
+				new SolutionChecker(fileName, System.in, answers, bound, dc, nThreads);
+			}
+			return;
+		}
 		InputStream solutionStream = right == 0 ? System.in
 				: args[1].charAt(0) == '<' ? new ByteArrayInputStream(args[1].getBytes()) : new FileInputStream(args[1]);
-		new SolutionChecker(fileName, solutionStream, bound, dc, competitionMode);
+		new SolutionChecker(fileName, solutionStream, bound, dc, competitionMode, nThreads, incremental, withDiagnostics);
 		// boolean competitionMode = args[0].equals("-cm");
 		// int left= competitionMode ? 1 : 0, right=args.length-1;
 		// String dc = args[right].startsWith("-dc") ? args[right].substring(3) : null;
@@ -158,37 +213,45 @@ public final class SolutionChecker implements XCallbacks2 {
 	// ***** Intern class
 	// ************************************************************************
 
-	/** The class that manages all information about the (current) solution to test. */
+	/** The states of variables in solutions: unassigned, assigned a value, or assigned * (any value). */
+	private static final byte UNASSIGNED = 0, ASSIGNED = 1, STAR = 2;
+
+	/**
+	 * The class that manages all information about the (current) solution to test. Values are stored in arrays indexed by the ordinals of the variables (see
+	 * XVar); symbolic values are interned, and so are represented by integers.
+	 */
 	private class Solution {
-		/** The root of the XML tree representing a solution (element instantiation). */
+		/** The root of the XML tree representing a solution (element instantiation). It is discarded once the solution has been parsed. */
 		private Element root;
 
-		/** The sequence of variables of the solution. */
-		private Object[] variables;
-
-		/** The sequence of values of the solution. */
-		private Object[] values;
+		/** The instantiation read from the output of a solver, when there is no XML tree. It is discarded once the solution has been parsed. */
+		private Instantiation instantiation;
 
 		/**
 		 * The sequence of costs of the solution. We have 0 cost for a satisfaction problem, and several costs for a multi-optimization problem.
 		 */
 		private BigInteger[] costs;
 
-		/** The map that stores the value assigned to each variable. */
-		private Map<XVar, Object> map = new LinkedHashMap<>();
+		/** The value assigned to each variable (the code of the value for a symbolic variable), indexed by ordinals. */
+		private long[] values;
+
+		/** The state of each variable (UNASSIGNED, ASSIGNED or STAR), indexed by ordinals. */
+		private byte[] states;
 
 		private int intValueOf(XVarInteger x) {
-			control(map.containsKey(x), "The variable " + x + " is not assigned a value");
-			Object value = map.get(x);
-			if (value instanceof String && ((String) value).equals("*")) {
+			control(states[x.ordinal] != UNASSIGNED, "The variable " + x + " is not assigned a value");
+			if (states[x.ordinal] == STAR) {
 				control(((Dom) x.dom).nValues() == 1, "* is accepted when there is only one value");
-				value = x.firstValue();
+				return Utilities.safeInt(x.firstValue());
 			}
-			return Utilities.safeInt((Long) value);
+			return Utilities.safeInt(values[x.ordinal]);
 		}
 
 		private int[] intValuesOf(XVarInteger[] list) {
-			return Stream.of(list).mapToInt(x -> intValueOf(x)).toArray();
+			int[] t = new int[list.length];
+			for (int i = 0; i < list.length; i++)
+				t[i] = intValueOf(list[i]);
+			return t;
 		}
 
 		private int[][] intValuesOf(XVarInteger[][] lists) {
@@ -196,30 +259,73 @@ public final class SolutionChecker implements XCallbacks2 {
 		}
 
 		private String symbolicValueOf(XVarSymbolic x) {
-			control(map.containsKey(x), "The variable " + x + " is not assigned a value");
-			return (String) map.get(x);
+			control(states[x.ordinal] != UNASSIGNED, "The variable " + x + " is not assigned a value");
+			return states[x.ordinal] == STAR ? "*" : symbols.get((int) values[x.ordinal]);
 		}
 
 		private String[] symbolicValuesOf(XVarSymbolic[] list) {
 			return Stream.of(list).map(x -> symbolicValueOf(x)).toArray(String[]::new);
 		}
 
+		/** Returns the value assigned to the specified variable, as a Long or as a String (for a symbol or *). */
+		private Object valueOf(XVar x) {
+			return states[x.ordinal] == STAR ? "*" : x instanceof XVarInteger ? (Object) values[x.ordinal] : symbols.get((int) values[x.ordinal]);
+		}
+
+		/** Returns true if the variables whose ordinal is specified is assigned the same value (or *) in this solution and in the specified one. */
+		private boolean sameValueAs(Solution other, int ordinal) {
+			return states[ordinal] == other.states[ordinal] && values[ordinal] == other.values[ordinal];
+		}
+
 		private Solution(Element root) {
 			this.root = root;
 			Element[] childs = Utilities.childElementsOf(this.root);
 			control(Utilities.isTag(childs[0], TypeChild.list) && Utilities.isTag(childs[1], TypeChild.values), "Badly formed solution/instantiation");
 		}
 
+		private Solution(Instantiation instantiation) {
+			this.instantiation = instantiation;
+		}
+
+		/** Records the value (or *) assigned to the specified variable, which is null for a hole in an array. */
+		private void assign(Object var, boolean star, long value, String symbol) {
+			if (var == null)
+				control(star, "* must be necessarily associated with a null variable (corresponding to a hole in an array)");
+			else {
+				XVar x = (XVar) var;
+				states[x.ordinal] = star ? STAR : ASSIGNED;
+				if (!star) {
+					if (x instanceof XVarInteger) {
+						control(symbol == null, "Wrong value for variable " + x);
+						this.values[x.ordinal] = value;
+						control(((Dom) x.dom).contains(intValueOf((XVarInteger) x)), "Wrong value for variable " + x);
+					} else if (x instanceof XVarSymbolic) {
+						control(symbol != null, "Wrong value for variable " + x);
+						this.values[x.ordinal] = symbolCodes.computeIfAbsent(symbol, v -> {
+							symbols.add(v);
+							return symbols.size() - 1;
+						});
+						control(((DomSymbolic) x.dom).contains(symbolicValueOf((XVarSymbolic) x)), "Wrong value for variable " + x);
+					} else
+						unimplementedCase();
+				}
+			}
+		}
+
 		private void parseVariablesAndValues(XParser parser) {
+			if (instantiation != null) {
+				parseInstantiation(parser);
+				return;
+			}
 			Element[] childs = Utilities.childElementsOf(this.root);
-			variables = parser.parseSequence(childs[0].getTextContent().trim(), "\\s+");
+			Object[] variables = parser.parseSequence(childs[0].getTextContent().trim(), "\\s+");
 			for (Object x : variables) {
 				control(x == null || x instanceof XVarInteger || x instanceof XVarSymbolic,
 						x + " " + " is not an integer or symbolic variable. Currently, only these types of variables are supported.");
 				// null is also accepted (although it corresponds to an undefined variable in an array) but the
 				// associated value must be *
 			}
-			values = parser.parseSequence(childs[1].getTextContent().trim(), "\\s+");
+			Object[] values = parser.parseSequence(childs[1].getTextContent().trim(), "\\s+");
 			if (Stream.of(values).anyMatch(v -> v instanceof Occurrences)) { // managing compact forms of values in
 																				// solutions
 				List<Object> list = new ArrayList<>();
@@ -232,26 +338,39 @@ public final class SolutionChecker implements XCallbacks2 {
 				values = list.toArray(new Object[list.size()]);
 			}
 			control(variables.length == values.length, "list and values must be of the same size " + variables.length + " vs " + values.length);
+			this.values = new long[parser.nVars];
+			this.states = new byte[parser.nVars];
 			for (int i = 0; i < variables.length; i++) {
-				if (variables[i] == null)
-					control(values[i] instanceof String && ((String) values[i]).equals("*"),
-							"* must be necessarily associated with a null variable (corresponding to a hole in an array)");
-				else {
-					XVar x = (XVar) variables[i];
-					map.put(x, values[i]);
-					if (!(values[i] instanceof String && ((String) values[i]).equals("*"))) {
-						if (x instanceof XVarInteger)
-							control(((Dom) x.dom).contains(intValueOf((XVarInteger) x)), "Wrong value for variable " + x);
-						else if (x instanceof XVarSymbolic)
-							control(((DomSymbolic) x.dom).contains(symbolicValueOf((XVarSymbolic) x)), "Wrong value for variable " + x);
-						else
-							unimplementedCase();
-					}
+				boolean star = values[i] instanceof String && ((String) values[i]).equals("*");
+				boolean symbolic = !star && values[i] instanceof String;
+				assign(variables[i], star, star || symbolic ? 0 : (Long) values[i], symbolic ? (String) values[i] : null);
+			}
+			parseCosts(parser, root.getAttribute(TypeAtt.cost.name()));
+			root = null; // not needed anymore
+		}
+
+		/** Parses the instantiation read from the output of a solver (values being already tokenized). */
+		private void parseInstantiation(XParser parser) {
+			List<Object> variables = new ArrayList<>();
+			for (String tok : instantiation.list)
+				for (Object x : parser.parseSequence(tok, " ")) {
+					control(x == null || x instanceof XVarInteger || x instanceof XVarSymbolic,
+							x + " " + " is not an integer or symbolic variable. Currently, only these types of variables are supported.");
+					variables.add(x);
 				}
+			control(variables.size() == instantiation.size, "list and values must be of the same size " + variables.size() + " vs " + instantiation.size);
+			this.values = new long[parser.nVars];
+			this.states = new byte[parser.nVars];
+			for (int i = 0; i < instantiation.size; i++) {
+				byte kind = instantiation.kinds[i];
+				assign(variables.get(i), kind == CompetitionLog.STAR, instantiation.values[i], kind == CompetitionLog.SYMBOL ? instantiation.symbols[i] : null);
 			}
-			// map.entrySet().stream().forEach(e -> System.out.println(e.getKey() + "->" + e.getValue() + " "));
-			costs = root.getAttribute(TypeAtt.cost.name()).length() == 0 ? null
-					: Stream.of(root.getAttribute(TypeAtt.cost.name()).split("\\s+")).map(s -> new BigInteger(s)).toArray(BigInteger[]::new);
+			parseCosts(parser, instantiation.cost == null ? "" : instantiation.cost);
+			instantiation = null; // not needed anymore
+		}
+
+		private void parseCosts(XParser parser, String cost) {
+			costs = cost.trim().length() == 0 ? null : Stream.of(cost.trim().split("\\s+")).map(s -> new BigInteger(s)).toArray(BigInteger[]::new);
 			// costs = root.getAttribute(TypeAtt.cost.name()).length() == 0 ? null :
 			// parser.parseSequence(root.getAttribute(TypeAtt.cost.name()), "\\s+");
 			control(costs == null || costs.length == parser.oEntries.size(),
@@ -276,8 +395,70 @@ public final class SolutionChecker implements XCallbacks2 {
 	/** The current solution to test */
 	private Solution solution;
 
-	/** The current constraint of the (current) solution to test. */
-	private XCtr currCtr;
+	/** The document representing the instance, loaded once when running as a resident checker (server), or null. */
+	private Document document;
+
+	/** The number of threads used for checking constraints. When greater than 1, constraints are first collected, and then checked concurrently. */
+	private int nThreads;
+
+	/**
+	 * Indicates if, when several solutions are given, each solution is checked with respect to the previous one: only the constraints and objectives
+	 * involving variables whose values have changed are checked again. In competition mode, all solutions found in the output of the solver are then checked,
+	 * and not only the last one.
+	 */
+	private boolean incremental;
+
+	/** The constraints collected (in document order) when checking them in parallel or incrementally, or null. */
+	private List<XCtr> collectedCtrs;
+
+	/** The violations recorded for the collected constraints, indexed by their numbers (only violated constraints being present). */
+	private TreeMap<Integer, List<String>> violations;
+
+	/** The parser of the instance, kept when checking incrementally. */
+	private XParser parser;
+
+	/** The numbers of the collected constraints involving each variable (indexed by ordinals), when checking incrementally. */
+	private int[][] ctrsOf;
+
+	/** The ordinals of the variables involved in each objective, and the last cost computed for each objective, when checking incrementally. */
+	private BitSet[] objVars;
+
+	private BigInteger[] objCosts;
+
+	/**
+	 * The weight of each variable (indexed by ordinals) in each objective that is a sum of variables with constant coefficients (null for the other
+	 * objectives), when checking incrementally. The cost of such an objective is updated from the changes of values, instead of being computed again.
+	 */
+	private long[][] objWeights;
+
+	/** The ordinals of the variables whose values have changed with respect to the previous solution, or null if the solution is entirely checked. */
+	private BitSet changedVars;
+
+	/** The previous solution, when the current one is checked incrementally. */
+	private Solution previous;
+
+	/** The symbols assigned to symbolic variables in solutions, and the codes (indexes in the list) of these symbols. */
+	private final List<String> symbols = new ArrayList<>();
+
+	private final Map<String, Integer> symbolCodes = new HashMap<>();
+
+	/** The current constraint of the (current) solution to test, for each thread checking constraints. */
+	private final ThreadLocal<XCtr> currCtr = new ThreadLocal<>();
+
+	/** The list where violations of the current constraint are recorded, for each thread checking constraints. */
+	private final ThreadLocal<List<String>> currViolatedCtrs = new ThreadLocal<>();
+
+	/** Indicates if diagnostics (see Diagnostics) must be built for each checked solution; constraints are then collected. */
+	private boolean withDiagnostics;
+
+	/** The description of the violation of the current constraint (or null), for each thread checking constraints, when building diagnostics. */
+	private final ThreadLocal<Violation> currViolation = new ThreadLocal<>();
+
+	/** The descriptions of the violations of the collected constraints (null for satisfied ones), indexed by their numbers, when building diagnostics. */
+	private Violation[] explanations;
+
+	/** The diagnostics built for the current solution, or null if not requested. */
+	public Diagnostics diagnostics;
 
 	/** The current objective of the (current) solution to test. */
 	private XObj currObj;
@@ -291,61 +472,39 @@ public final class SolutionChecker implements XCallbacks2 {
 	/** The list of ids of invalid objectives (for the current solution). */
 	public List<String> invalidObjs;
 
-	public SolutionChecker(String fileName, InputStream solutionStream, Long bound, String[] dc, boolean competitionMode) throws Exception {
+	public SolutionChecker(String fileName, InputStream solutionStream, Long bound, String[] dc, boolean competitionMode, int nThreads, boolean incremental,
+			boolean withDiagnostics) throws Exception {
+		control(nThreads >= 1, "The number of threads must be at least 1");
 		this.cost = bound;
 		this.discardedClasses = dc; // TODO to be implemented later
 		this.competitionMode = competitionMode;
+		this.nThreads = nThreads;
+		this.incremental = incremental;
+		this.withDiagnostics = withDiagnostics;
 		implem().rawParameters(); // to avoid being obliged to override special functions
-		Scanner scanner = new Scanner(solutionStream);
 		if (competitionMode) {
-			String sline = null;
-			List<String> vlines = new ArrayList<>();
-			while (scanner.hasNext()) {
-				String line = scanner.nextLine();
-				if (line.startsWith("s ")) {
-					sline = line; // we store the last s line
-				} else if (line.startsWith("v ")) {
-					String l = line.substring(2).trim();
-					if (l.startsWith("<instantiation"))
-						vlines.clear(); // we store the last solution
-					vlines.add(line);
-				} else if (line.startsWith("o ")) {
-					String s = line.substring(2).trim();
-					int pos = s.indexOf(" ");
-					declaredCost = new BigInteger(pos == -1 ? s : s.substring(0, pos)); // we store the last o value
+			CompetitionLog log = new CompetitionLog(new BufferedReader(new InputStreamReader(solutionStream)));
+			Instantiation last = null;
+			for (Instantiation inst = log.next(); inst != null; inst = log.next()) {
+				if (incremental) { // every solution is checked (incrementally), with the last o value read so far
+					declaredCost = log.declaredCost;
+					checkCompetitionSolution(fileName, inst);
 				}
+				last = inst;
 			}
-			scanner.close();
-			String vline = vlines.size() == 0 ? null : vlines.stream().map(s -> s.substring(2)).collect(Collectors.joining(" ")).trim();
-			if (sline == null)
+			declaredCost = log.declaredCost; // we use the last o value
+			if (log.sLine == null)
 				System.out.println("One s line expected");
-			else if (sline.startsWith("s SATISFIABLE") || sline.startsWith("s OPTIMUM")) {
-				if (vline == null || !vline.endsWith("</instantiation>"))
+			else if (!incremental && (log.sLine.startsWith("s SATISFIABLE") || log.sLine.startsWith("s OPTIMUM"))) {
+				if (last == null || log.incomplete())
 					System.out.println("ERROR: no instantiation found");
-				else {
-					try {
-						Element elt = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(vline.getBytes()))
-								.getDocumentElement();
-						this.solution = new Solution(elt);
-						loadInstance(fileName);
-						if (violatedCtrs.size() == 0 && invalidObjs.size() == 0) {
-							System.out.println("OK\t" + (competitionComputedCost != null ? competitionComputedCost : ""));
-						} else {
-							System.out.println("INVALID Solution! (" + (violatedCtrs.size() + invalidObjs.size()) + " errors)");
-							if (violatedCtrs.size() > 0)
-								System.out.println("  First violated constraint: " + violatedCtrs.get(0));
-							if (invalidObjs.size() > 0)
-								System.out.println("  First invalid objective: " + invalidObjs.get(0));
-						}
-					} catch (Exception e) {
-						System.out.println("ERROR: the instantiation cannot be checked " + e);
-						e.printStackTrace();
-					}
-				}
+				else
+					checkCompetitionSolution(fileName, last);
 			}
 		} else {
 			// TODO extracting the last o value so as to check it
 			// code below to be improved
+			Scanner scanner = new Scanner(solutionStream);
 			String s = scanner.useDelimiter("\\A").next();
 			scanner.close();
 			while (true) {
@@ -355,26 +514,185 @@ public final class SolutionChecker implements XCallbacks2 {
 					break;
 				String sol = s.substring(start, end + "</instantiation>".length());
 				Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(sol.getBytes()));
-				this.solution = new Solution(doc.getDocumentElement());
-				loadInstance(fileName);
+				if (parser != null)
+					recheck(new Solution(doc.getDocumentElement()));
+				else {
+					this.solution = new Solution(doc.getDocumentElement());
+					loadInstance(fileName);
+				}
 				s = s.substring(end + "</instantiation>".length());
 			}
 		}
 	}
 
+	/**
+	 * Builds a resident checker for the specified instance, which is loaded only once: the solutions read from the specified stream are checked incrementally,
+	 * and answers are written on the specified print stream (see serve).
+	 */
+	public SolutionChecker(String fileName, InputStream requests, PrintStream answers, Long bound, String[] dc, int nThreads) throws Exception {
+		initServer(fileName, bound, dc, nThreads);
+		serve(new BufferedReader(new InputStreamReader(requests)), answers);
+	}
+
+	/**
+	 * Builds a resident checker for the specified instance, which is loaded only once: connections are accepted (one at a time) on the specified port of the
+	 * loopback interface, and the solutions sent through each connection are checked incrementally, answers being sent back (see serve).
+	 */
+	public SolutionChecker(String fileName, int port, Long bound, String[] dc, int nThreads) throws Exception {
+		initServer(fileName, bound, dc, nThreads);
+		try (ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+			System.out.println("LOG: Listening on " + serverSocket.getLocalSocketAddress());
+			while (true)
+				try (Socket socket = serverSocket.accept()) {
+					serve(new BufferedReader(new InputStreamReader(socket.getInputStream())), new PrintStream(socket.getOutputStream(), true));
+				} catch (IOException e) {
+					System.out.println("LOG: Connection lost " + e);
+				}
+		}
+	}
+
+	private void initServer(String fileName, Long bound, String[] dc, int nThreads) throws Exception {
+		control(nThreads >= 1, "The number of threads must be at least 1");
+		this.cost = bound;
+		this.discardedClasses = dc;
+		this.nThreads = nThreads;
+		this.incremental = true;
+		implem().rawParameters();
+		this.document = loadDocument(fileName);
+	}
+
+	/**
+	 * Checks the solutions read from the specified reader until the end of the stream, and writes an answer for each of them. A solution is given by an element
+	 * instantiation (which can span several lines, possibly prefixed by "v " as in the outputs of solvers). An answer is composed of a line with OK or INVALID
+	 * followed by the computed cost (if any), or ERROR followed by a message, then a line for each violated constraint and invalid objective, and finally a
+	 * line END.
+	 */
+	private void serve(BufferedReader in, PrintStream answers) throws IOException {
+		StringBuilder sb = null;
+		for (String line = in.readLine(); line != null; line = in.readLine()) {
+			if (line.startsWith("v "))
+				line = line.substring(2);
+			if (sb == null) {
+				int start = line.indexOf("<instantiation");
+				if (start == -1)
+					continue;
+				sb = new StringBuilder();
+				line = line.substring(start);
+			}
+			int end = line.indexOf("</instantiation>");
+			sb.append(end == -1 ? line : line.substring(0, end + "</instantiation>".length())).append("\n");
+			if (end != -1) {
+				answers.print(answer(sb.toString()));
+				answers.flush();
+				sb = null;
+			}
+		}
+	}
+
+	/** Checks the specified solution with respect to the (already loaded) instance, and returns the answer (see serve). */
+	private String answer(String sol) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			competitionComputedCost = null;
+			implem().allIds.clear();
+			Element root = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(sol.getBytes())).getDocumentElement();
+			if (parser != null)
+				recheck(new Solution(root));
+			else {
+				this.solution = new Solution(root);
+				loadInstance(document);
+			}
+			sb.append(violatedCtrs.size() == 0 && invalidObjs.size() == 0 ? "OK" : "INVALID");
+			sb.append(competitionComputedCost != null ? "\t" + competitionComputedCost : "").append("\n");
+			violatedCtrs.stream().forEach(c -> sb.append("  Violated Constraint ").append(c.substring(0, c.indexOf(" : "))).append("\n"));
+			invalidObjs.stream().forEach(o -> sb.append("  Invalid Objective ").append(o.substring(0, o.indexOf(" : "))).append("\n"));
+		} catch (Exception e) {
+			parser = null; // the state may be inconsistent, so the next solution will be checked from scratch
+			changedVars = null;
+			sb.setLength(0);
+			sb.append("ERROR\t" + (e.getMessage() != null ? e.getMessage().replaceAll("\\s*\\R\\s*", " ") : e.getClass().getName())).append("\n");
+		}
+		return sb.append("END\n").toString();
+	}
+
+	/** Checks the specified instantiation read from the output of a solver, and displays the outcome in competition format. */
+	private void checkCompetitionSolution(String fileName, Instantiation inst) {
+		try {
+			implem().allIds.clear();
+			if (parser != null)
+				recheck(new Solution(inst));
+			else {
+				this.solution = new Solution(inst);
+				loadInstance(fileName);
+			}
+			if (violatedCtrs.size() == 0 && invalidObjs.size() == 0) {
+				System.out.println("OK\t" + (competitionComputedCost != null ? competitionComputedCost : ""));
+			} else {
+				System.out.println("INVALID Solution! (" + (violatedCtrs.size() + invalidObjs.size()) + " errors)");
+				if (violatedCtrs.size() > 0)
+					System.out.println("  First violated constraint: " + violatedCtrs.get(0));
+				if (invalidObjs.size() > 0)
+					System.out.println("  First invalid objective: " + invalidObjs.get(0));
+			}
+			if (withDiagnostics)
+				System.out.println(diagnostics);
+		} catch (Exception e) {
+			parser = null; // the state may be inconsistent, so the next solution will be checked from scratch
+			changedVars = null;
+			System.out.println("ERROR: the instantiation cannot be checked " + e);
+			e.printStackTrace();
+		}
+	}
+
+	public SolutionChecker(String fileName, InputStream solutionStream, Long bound, String[] dc, boolean competitionMode, int nThreads, boolean incremental)
+			throws Exception {
+		this(fileName, solutionStream, bound, dc, competitionMode, nThreads, incremental, false);
+	}
+
+	public SolutionChecker(String fileName, InputStream solutionStream, Long bound, String[] dc, boolean competitionMode, int nThreads) throws Exception {
+		this(fileName, solutionStream, bound, dc, competitionMode, nThreads, false, false);
+	}
+
+	public SolutionChecker(String fileName, InputStream solutionStream, Long bound, String[] dc, boolean competitionMode) throws Exception {
+		this(fileName, solutionStream, bound, dc, competitionMode, 1, false, false);
+	}
+
 	protected void controlConstraint(boolean condition) {
+		controlConstraint(condition, null, () -> 1);
+	}
+
+	/**
+	 * Records a violation of the current constraint if the specified condition is false. When building diagnostics, the offending part of the constraint is
+	 * also recorded for the first violation, and the degree of the violation is added to the degree of the constraint. Both are only computed in case of
+	 * violation.
+	 */
+	protected void controlConstraint(boolean condition, Supplier<String> offending, LongSupplier degree) {
 		if (!condition) {
-			String s = currCtr.toString();
-			s = currCtr.id + " : " + (s.length() > MAX_DISPLAY_STRING_SIZE ? s.substring(0, MAX_DISPLAY_STRING_SIZE) : s);
-			if (!violatedCtrs.contains(s))
-				violatedCtrs.add(s);
+			XCtr c = currCtr.get();
+			String s = c.toString();
+			s = c.id + " : " + (s.length() > MAX_DISPLAY_STRING_SIZE ? s.substring(0, MAX_DISPLAY_STRING_SIZE) : s);
+			List<String> list = currViolatedCtrs.get();
+			if (!list.contains(s))
+				list.add(s);
+			if (withDiagnostics) {
+				Violation violation = currViolation.get();
+				if (violation == null) {
+					Map<String, Object> scope = new LinkedHashMap<>();
+					for (XVar x : c.vars())
+						scope.put(x.id, solution.valueOf(x));
+					currViolation.set(new Violation(c.id, c.getType().name(), scope, offending == null ? null : offending.get(), degree.getAsLong()));
+				} else
+					violation.degree = Violation.add(violation.degree, degree.getAsLong());
+			}
 		}
 	}
 
 	protected void controlObjective(BigInteger computedCost) {
 		this.competitionComputedCost = computedCost;
+		if (objCosts != null)
+			objCosts[numObj] = computedCost;
 		String s = currObj.toString();
-		s = (currObj.id != null ? currObj.id + " : " : "") + (s.length() > MAX_DISPLAY_STRING_SIZE ? s.substring(0, MAX_DISPLAY_STRING_SIZE) : s);
+		s = (currObj.id != null ? currObj.id : "o_" + numObj) + " : " + (s.length() > MAX_DISPLAY_STRING_SIZE ? s.substring(0, MAX_DISPLAY_STRING_SIZE) : s);
 
 		if (declaredCost != null)
 			if (computedCost.longValue() != declaredCost.longValue()) {
@@ -405,6 +723,8 @@ public final class SolutionChecker implements XCallbacks2 {
 			System.out.println("LOG: Check variables");
 		XCallbacks2.super.loadVariables(parser);
 		solution.parseVariablesAndValues(parser);
+		if (incremental)
+			this.parser = parser;
 	}
 
 	@Override
@@ -413,19 +733,174 @@ public final class SolutionChecker implements XCallbacks2 {
 			System.out.println("LOG: Check constraints");
 		violatedCtrs = new ArrayList<>();
 		numCtr = -1;
-		XCallbacks2.super.loadConstraints(parser);
+		if (nThreads == 1 && !incremental && !withDiagnostics) {
+			currViolatedCtrs.set(violatedCtrs);
+			XCallbacks2.super.loadConstraints(parser);
+		} else {
+			collectedCtrs = new ArrayList<>();
+			XCallbacks2.super.loadConstraints(parser);
+			violations = new TreeMap<>();
+			explanations = withDiagnostics ? new Violation[collectedCtrs.size()] : null;
+			checkCtrs(IntStream.range(0, collectedCtrs.size()).toArray());
+			if (incremental) {
+				XVar[][] scopes = collectedCtrs.stream().map(c -> c.vars()).toArray(XVar[][]::new);
+				int[] sizes = new int[parser.nVars];
+				Stream.of(scopes).forEach(scp -> Stream.of(scp).forEach(x -> sizes[x.ordinal]++));
+				ctrsOf = IntStream.of(sizes).mapToObj(size -> new int[size]).toArray(int[][]::new);
+				Arrays.fill(sizes, 0);
+				for (int num = 0; num < scopes.length; num++)
+					for (XVar x : scopes[num])
+						ctrsOf[x.ordinal][sizes[x.ordinal]++] = num;
+			} else
+				collectedCtrs = null;
+		}
 	}
 
-	@Override
-	public void loadCtr(XCtr c) {
+	/** Returns a copy of the specified constraint, which is necessary for a template since it is concretized in place for each of its instances. */
+	private static XCtr concreteCopyOf(XCtr c) {
+		if (c.abstraction == null)
+			return c;
+		XCtr copy = new XCtr(c.type, Stream.of(c.childs).map(child -> {
+			CChild cc = new CChild(child.type, child.value);
+			cc.attributes.putAll(child.attributes);
+			cc.flags.addAll(child.flags);
+			return cc;
+		}).toArray(CChild[]::new));
+		copy.id = c.id;
+		copy.classes = c.classes;
+		copy.note = c.note;
+		copy.attributes.putAll(c.attributes);
+		copy.flags.addAll(c.flags);
+		copy.reification = c.reification;
+		copy.softening = c.softening;
+		return copy;
+	}
+
+	/**
+	 * Checks the collected constraint whose number is specified, and returns the list of recorded violations (empty if the constraint is satisfied). The
+	 * thread-local state is restored at the end because, when waiting for a nested parallel stream, a worker thread may check another constraint.
+	 */
+	private List<String> check(int num) {
+		XCtr c = collectedCtrs.get(num), prevCtr = currCtr.get();
+		List<String> list = new ArrayList<>(0), prevList = currViolatedCtrs.get();
+		Violation prevViolation = currViolation.get();
+		currCtr.set(c);
+		currViolatedCtrs.set(list);
+		currViolation.set(null);
+		try {
+			if (Stream.of(c.vars()).allMatch(x -> x instanceof XVarInteger))
+				implem().ctrLoaderInteger.load(c);
+			else if (Stream.of(c.vars()).allMatch(x -> x instanceof XVarSymbolic))
+				implem().ctrLoaderSymbolic.load(c);
+			else
+				unimplementedCase(c);
+			if (explanations != null)
+				explanations[num] = currViolation.get();
+		} finally {
+			currCtr.set(prevCtr);
+			currViolatedCtrs.set(prevList);
+			currViolation.set(prevViolation);
+		}
+		return list;
+	}
+
+	/**
+	 * Checks the collected constraints whose numbers are specified, concurrently if several threads are used. The solution is not modified anymore at this
+	 * stage, and violations are merged in document order so that the outcome is the same as when checking constraints sequentially.
+	 */
+	private void checkCtrs(int[] nums) {
+		List<List<String>> lists = new ArrayList<>(Collections.nCopies(nums.length, null)); // set in place (at distinct indexes) by the threads
+		if (nThreads == 1)
+			for (int i = 0; i < nums.length; i++)
+				lists.set(i, check(nums[i]));
+		else {
+			Map<Object, int[][]> cache = implem().cache4Tuples;
+			Map<Object, TransitionTable> cacheTr = implem().cache4Transitions;
+			implem().cache4Tuples = Collections.synchronizedMap(cache); // because tables may be shared by several constraints
+			implem().cache4Transitions = Collections.synchronizedMap(cacheTr);
+			RuntimeException[] errors = new RuntimeException[nums.length];
+			ForkJoinPool pool = new ForkJoinPool(nThreads);
+			try {
+				pool.submit(() -> IntStream.range(0, nums.length).parallel().forEach(i -> {
+					try {
+						lists.set(i, check(nums[i]));
+					} catch (RuntimeException e) {
+						errors[i] = e;
+					}
+				})).get();
+				for (RuntimeException e : errors)
+					if (e != null)
+						throw e; // the first error in document order, as when checking sequentially
+			} catch (ExecutionException e) {
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} finally {
+				pool.shutdown();
+				implem().cache4Tuples = cache;
+				implem().cache4Transitions = cacheTr;
+			}
+		}
+		for (int i = 0; i < nums.length; i++)
+			if (lists.get(i).isEmpty())
+				violations.remove(nums[i]);
+			else
+				violations.put(nums[i], lists.get(i));
+		for (List<String> list : violations.values())
+			for (String s : list)
+				if (!violatedCtrs.contains(s))
+					violatedCtrs.add(s);
+	}
+
+	/**
+	 * Checks the specified solution with respect to the previous one: the instance is not parsed again, and only the constraints
+	 * and objectives involving variables whose values have changed are checked again.
+	 */
+	private void recheck(Solution current) {
+		previous = solution;
+		solution = current;
+		if (!competitionMode)
+			System.out.println("LOG: Check variables");
+		solution.parseVariablesAndValues(parser);
+		changedVars = new BitSet(parser.nVars);
+		for (int i = 0; i < parser.nVars; i++)
+			if (!solution.sameValueAs(previous, i))
+				changedVars.set(i);
+		if (!competitionMode)
+			System.out.println("LOG: Check constraints");
+		violatedCtrs = new ArrayList<>();
+		int[] nums = changedVars.stream().flatMap(i -> IntStream.of(ctrsOf[i])).distinct().sorted().toArray();
+		for (int num : nums)
+			controlAssigned(collectedCtrs.get(num));
+		checkCtrs(nums);
+		loadObjectives(parser);
+		changedVars = null;
+		previous = null;
+		endInstance();
+	}
+
+	/** Controls that all variables involved in the specified constraint are assigned a value. */
+	private void controlAssigned(XCtr c) {
 		for (XVar x : c.vars()) {
-			Object obj = solution.map.get(x);
-			control(obj != null, x + "is not given a value although it is involved in one constraint ");
-			control(!(obj instanceof String && ((String) obj).equals("*")), x + " cannot be assigned the value * because it has not degree 0");
+			control(solution.states[x.ordinal] != UNASSIGNED, x + "is not given a value although it is involved in one constraint ");
+			control(solution.states[x.ordinal] != STAR, x + " cannot be assigned the value * because it has not degree 0");
 		}
-		currCtr = c;
+	}
+
+	@Override
+	public void loadCtr(XCtr c) {
+		controlAssigned(c);
 		numCtr++;
-		XCallbacks2.super.loadCtr(c);
+		if (collectedCtrs != null) {
+			implem().manageIdFor(c);
+			control(Stream.of(TypeChild.cost, TypeChild.set, TypeChild.mset).noneMatch(t -> t == c.childs[c.childs.length - 1].type),
+					"soft, set and mset currently not implemented");
+			collectedCtrs.add(concreteCopyOf(c));
+		} else {
+			currCtr.set(c);
+			XCallbacks2.super.loadCtr(c);
+		}
 	}
 
 	@Override
@@ -435,6 +910,16 @@ public final class SolutionChecker implements XCallbacks2 {
 			if (!competitionMode)
 				System.out.println("LOG: Check objectives");
 			numObj = -1;
+			if (incremental && changedVars == null) {
+				objVars = parser.oEntries.stream().map(o -> {
+					BitSet set = new BitSet(parser.nVars);
+					(o instanceof OObjectiveExpr ? ((OObjectiveExpr) o).rootNode.listOfVars() : Arrays.asList(((OObjectiveSpecial) o).vars()))
+							.forEach(x -> set.set(x.ordinal));
+					return set;
+				}).toArray(BitSet[]::new);
+				objCosts = new BigInteger[parser.oEntries.size()];
+				objWeights = parser.oEntries.stream().map(o -> weightsOf(o, parser.nVars)).toArray(long[][]::new);
+			}
 			XCallbacks2.super.loadObjectives(parser);
 		}
 	}
@@ -444,11 +929,52 @@ public final class SolutionChecker implements XCallbacks2 {
 		control(o.type != TypeObjective.LEX, "Currently, objectives of type lex are not managed by this checker.");
 		currObj = o;
 		numObj++;
-		XCallbacks2.super.loadObj(o);
+		BigInteger cost = changedVars == null || objCosts[numObj] == null ? null
+				: !objVars[numObj].intersects(changedVars) ? objCosts[numObj] : updatedCost(numObj);
+		if (cost != null)
+			controlObjective(cost); // the cost is unchanged, or updated from the changes of values
+		else
+			XCallbacks2.super.loadObj(o);
+	}
+
+	/** Returns the weight of each variable in the specified objective if it is a sum of variables with constant coefficients, and null otherwise. */
+	private static long[] weightsOf(OEntry o, int nVars) {
+		if (o.type != SUM || !(o instanceof OObjectiveSpecial))
+			return null;
+		OObjectiveSpecial os = (OObjectiveSpecial) o;
+		if (!Stream.of(os.terms).allMatch(t -> t instanceof XVarInteger) || (os.coeffs != null && !Stream.of(os.coeffs).allMatch(c -> c instanceof Long)))
+			return null;
+		long[] weights = new long[nVars];
+		for (int i = 0; i < os.terms.length; i++)
+			weights[((XVar) os.terms[i]).ordinal] += os.coeffs == null ? 1 : (Long) os.coeffs[i]; // a variable may occur several times
+		return weights;
+	}
+
+	/**
+	 * Returns the cost of the objective whose number is specified, obtained from its previous cost by only considering the variables whose values have
+	 * changed, or null if this is not possible (the objective is not a weighted sum of variables, or * is involved).
+	 */
+	private BigInteger updatedCost(int num) {
+		long[] weights = objWeights[num];
+		if (weights == null)
+			return null;
+		Accumulator delta = new Accumulator(0);
+		for (int i = changedVars.nextSetBit(0); i >= 0; i = changedVars.nextSetBit(i + 1))
+			if (weights[i] != 0) {
+				if (solution.states[i] != ASSIGNED || previous.states[i] != ASSIGNED)
+					return null;
+				delta.add(solution.values[i] - previous.values[i], weights[i]); // the difference of two ints cannot overflow a long
+			}
+		return objCosts[num].add(delta.toBigInteger());
 	}
 
 	@Override
 	public void endInstance() {
+		if (withDiagnostics) {
+			diagnostics = new Diagnostics();
+			violations.keySet().stream().forEach(num -> diagnostics.violations.add(explanations[num]));
+			diagnostics.invalidObjectives.addAll(invalidObjs);
+		}
 		if (!competitionMode)
 			if (violatedCtrs.size() == 0 && invalidObjs.size() == 0) {
 				System.out.println("OK\t" + (competitionComputedCost != null ? competitionComputedCost : ""));
@@ -457,6 +983,8 @@ public final class SolutionChecker implements XCallbacks2 {
 				violatedCtrs.stream().forEach(c -> System.out.println("  Violated Constraint " + c));
 				invalidObjs.stream().forEach(o -> System.out.println("  Invalid Objective " + o));
 			}
+		if (withDiagnostics && !competitionMode)
+			System.out.println(diagnostics);
 	}
 
 	// ************************************************************************
@@ -477,14 +1005,12 @@ public final class SolutionChecker implements XCallbacks2 {
 		return (int) v;
 	}
 
-	private LongStream valuesOfTrees(XNode<XVarInteger>[] trees, int[] coeffs) {
-		XVarInteger[][] scopes = Stream.of(trees).map(t -> t.vars()).toArray(XVarInteger[][]::new);
-		return IntStream.range(0, trees.length)
-				.mapToLong(i -> new TreeEvaluator(trees[i]).evaluate(solution.intValuesOf(scopes[i])) * (coeffs == null ? 1 : coeffs[i]));
+	private LongStream valuesOfTrees(XNode<XVarInteger>[] trees) {
+		return Stream.of(trees).mapToLong(t -> new TreeEvaluator(t).evaluate(solution.intValuesOf(t.vars())));
 	}
 
 	private IntStream intValuesOfTrees(XNode<XVarInteger>[] trees) {
-		return valuesOfTrees(trees, null).peek(l -> control(Utilities.isSafeInt(l), "Pb with a long")).mapToInt(l -> (int) l);
+		return valuesOfTrees(trees).peek(l -> control(Utilities.isSafeInt(l), "Pb with a long")).mapToInt(l -> (int) l);
 	}
 
 	@Override
@@ -503,77 +1029,53 @@ public final class SolutionChecker implements XCallbacks2 {
 		int[] tuple = solution.intValuesOf(list);
 		boolean found = Stream.of(tuples).parallel().anyMatch(t -> IntStream.range(0, t.length).allMatch(i -> t[i] == Constants.STAR || t[i] == tuple[i]));
 		// TODO dichotomic search instead of linear search ? compatible with * ?
-		controlConstraint(found == positive);
+		controlConstraint(found == positive, () -> "the tuple " + Arrays.toString(tuple) + (positive ? " is not supported" : " is forbidden"), () -> 1);
 	}
 
 	@Override
 	public void buildCtrExtension(String id, XVarInteger[] list, AbstractTuple[] tuples, boolean positive, Set<TypeFlag> flags) {
 		int[] tuple = solution.intValuesOf(list);
 		boolean found = Stream.of(tuples).parallel().anyMatch(t -> t.match(tuple));
-		controlConstraint(found == positive);
-	}
-
-	private void collectStates(String current, int i, XVarInteger[] list, Map<String, List<String>> map, Set<String> reached, Set<String> seen) {
-		String node = current + " " + i; // it is important to record the level
-		if (seen.contains(node))
-			return; // because already explored
-		seen.add(node);
-		List<String> nexts = map.get(current + ":" + solution.intValueOf(list[i]));
-		if (nexts != null)
-			for (String next : nexts)
-				if (i == list.length - 1)
-					reached.add(next);
-				else
-					collectStates(next, i + 1, list, map, reached, seen);
-	}
-
-	private Set<String> reachedStates(String startState, XVarInteger[] list, Transition[] transitions) {
-		Set<String> seen = new LinkedHashSet<>(), reached = new LinkedHashSet<>();
-		Map<String, List<String>> map = new LinkedHashMap<>();
-		for (Transition tr : transitions)
-			map.computeIfAbsent(tr.start + ":" + tr.value, r -> new ArrayList<String>()).add(tr.end);
-		collectStates(startState, 0, list, map, reached, seen);
-		return reached;
-	}
-
-	// private List<String> reachedStates(String startState, XVarInteger[] list, Transition[] transitions) {
-	// List<String> reached = new ArrayList<>();
-	// Map<String, String> map = new LinkedHashMap<>();
-	// Stream.of(transitions).forEach(tr -> map.put(tr.start + ":" + tr.value, tr.end + ""));
-	// String current = startState;
-	// for (XVarInteger x : list) {
-	// String next = map.get(current + ":" + solution.intValueOf(x));
-	// System.out.println("tra " + x + " " + solution.intValueOf(x) + " " + next);
-	// if (next == null)
-	// return null;
-	// else
-	// current = next;
-	// }
-	// reached.add(current);
-	// return reached;
-	// }
+		controlConstraint(found == positive, () -> "the tuple " + Arrays.toString(tuple) + (positive ? " is not supported" : " is forbidden"), () -> 1);
+	}
+
+	private String transitionFailure(TransitionTable table, String startState, XVarInteger[] list, int[] tuple, String[] finalStates) {
+		int i = table.firstFailure(startState, tuple, finalStates);
+		return i < tuple.length ? "no transition for the value " + tuple[i] + " of " + list[i] + " (at position " + i + ")" : "no final state is reached";
+	}
 
 	@Override
 	public void buildCtrRegular(String id, XVarInteger[] list, Transition[] transitions, String startState, String[] finalStates) {
-		Set<String> reached = reachedStates(startState, list, transitions);
-		controlConstraint(reached.size() > 0 && Arrays.stream(finalStates).anyMatch(v -> reached.stream().anyMatch(state -> v.equals(state))));
+		TransitionTable table = implem().transitionTableOf(transitions);
+		int[] tuple = solution.intValuesOf(list);
+		controlConstraint(table.reaches(startState, tuple, finalStates), () -> transitionFailure(table, startState, list, tuple, finalStates), () -> 1);
 	}
 
 	@Override
 	public void buildCtrMDD(String id, XVarInteger[] list, Transition[] transitions) {
-		Set<String> reached = reachedStates(transitions[0].start, list, transitions);
 		// The first state of the first transition MUST be the starting state
-		controlConstraint(reached.size() > 0);
+		TransitionTable table = implem().transitionTableOf(transitions);
+		int[] tuple = solution.intValuesOf(list);
+		controlConstraint(table.reaches(transitions[0].start, tuple, null), () -> transitionFailure(table, transitions[0].start, list, tuple, null), () -> 1);
 	}
 
 	@Override
 	public void buildCtrAllDifferent(String id, XVarInteger[] list) {
-		controlConstraint(IntStream.of(solution.intValuesOf(list)).distinct().count() == list.length);
+		int[] tuple = solution.intValuesOf(list);
+		long nDistinct = IntStream.of(tuple).distinct().count();
+		controlConstraint(nDistinct == list.length, () -> {
+			Map<Integer, Integer> firsts = new HashMap<>();
+			for (int i = 0;; i++) {
+				Integer j = firsts.putIfAbsent(tuple[i], i);
+				if (j != null)
+					return list[j] + " and " + list[i] + " are both assigned the value " + tuple[i];
+			}
+		}, () -> list.length - nDistinct);
 	}
 
 	@Override
 	public void buildCtrAllDifferent(String id, XNode<XVarInteger>[] trees) {
-		controlConstraint(valuesOfTrees(trees, null).distinct().count() == trees.length);
+		controlConstraint(valuesOfTrees(trees).distinct().count() == trees.length);
 	}
 
 	@Override
@@ -585,51 +1087,58 @@ public final class SolutionChecker implements XCallbacks2 {
 
 	@Override
 	public void buildCtrAllDifferentExcept(String id, XNode<XVarInteger>[] trees, int[] except) {
-		int[] sublist = valuesOfTrees(trees, null).mapToInt(v -> Utilities.safeInt(v)).filter(v -> !Utilities.contains(except, v)).toArray();
+		int[] sublist = valuesOfTrees(trees).mapToInt(v -> Utilities.safeInt(v)).filter(v -> !Utilities.contains(except, v)).toArray();
 		controlConstraint(IntStream.of(sublist).distinct().count() == sublist.length);
 	}
 
-	private boolean distinctVectors(int[] v1, int[] v2, int[][] except) {
-		assert v1.length == v2.length;
-		if (except != null)
-			for (int[] t : except)
-				if (lexComparatorInt.compare(v1, t) == 0 || lexComparatorInt.compare(v2, t) == 0)
-					return true;
-		return IntStream.range(0, v1.length).anyMatch(i -> v1[i] != v2[i]);
+	/**
+	 * Returns true if the specified vectors (of the same length) are all different, except for those belonging to the specified array (that may be null).
+	 * Vectors are sorted, and so it suffices to compare adjacent ones.
+	 */
+	private boolean distinctVectors(int[][] vectors, int[][] except) {
+		int[][] sortedExcept = except == null ? new int[0][] : Stream.of(except).sorted(lexComparatorInt).toArray(int[][]::new);
+		int[][] t = Stream.of(vectors).filter(v -> Arrays.binarySearch(sortedExcept, v, lexComparatorInt) < 0).sorted(lexComparatorInt).toArray(int[][]::new);
+		return IntStream.range(0, t.length - 1).allMatch(i -> lexComparatorInt.compare(t[i], t[i + 1]) != 0);
+	}
+
+	/** Returns true if the specified values are all different, except for those belonging to the specified array (that may be null). */
+	private boolean distinctValues(int[] values, int[] except) {
+		int[] t = except == null ? values.clone() : IntStream.of(values).filter(v -> !Utilities.contains(except, v)).toArray();
+		Arrays.sort(t);
+		return IntStream.range(0, t.length - 1).allMatch(i -> t[i] != t[i + 1]);
+	}
+
+	/** Returns the transpose of the specified (rectangular) matrix of values. */
+	private static int[][] transpose(int[][] m) {
+		int[][] t = new int[m.length == 0 ? 0 : m[0].length][m.length];
+		for (int i = 0; i < m.length; i++)
+			for (int j = 0; j < m[i].length; j++)
+				t[j][i] = m[i][j];
+		return t;
 	}
 
 	@Override
 	public void buildCtrAllDifferentList(String id, XVarInteger[][] lists) {
-		int[][] tuples = solution.intValuesOf(lists);
-		controlConstraint(IntStream.range(0, tuples.length)
-				.allMatch(i -> IntStream.range(i + 1, tuples.length).allMatch(j -> distinctVectors(tuples[i], tuples[j], null))));
+		controlConstraint(distinctVectors(solution.intValuesOf(lists), null));
 	}
 
 	@Override
 	public void buildCtrAllDifferentList(String id, XVarInteger[][] lists, int[][] except) {
-		int[][] tuples = solution.intValuesOf(lists);
-		controlConstraint(IntStream.range(0, tuples.length)
-				.allMatch(i -> IntStream.range(i + 1, tuples.length).allMatch(j -> distinctVectors(tuples[i], tuples[j], except))));
+		controlConstraint(distinctVectors(solution.intValuesOf(lists), except));
 	}
 
 	@Override
 	public void buildCtrAllDifferentMatrix(String id, XVarInteger[][] matrix) {
 		int[][] tuples = solution.intValuesOf(matrix);
-		controlConstraint(IntStream.range(0, tuples.length).allMatch(i -> IntStream.of(tuples[i]).distinct().count() == tuples[i].length)); // rows
-		int[][] transposedTuples = IntStream.range(0, tuples.length).mapToObj(i -> IntStream.range(0, tuples[0].length).map(j -> tuples[j][i]).toArray())
-				.toArray(int[][]::new);
-		controlConstraint(
-				IntStream.range(0, transposedTuples.length).allMatch(i -> IntStream.of(transposedTuples[i]).distinct().count() == transposedTuples[i].length)); // cols
+		controlConstraint(Stream.of(tuples).allMatch(t -> distinctValues(t, null))); // rows
+		controlConstraint(Stream.of(transpose(tuples)).allMatch(t -> distinctValues(t, null))); // cols
 	}
 
 	@Override
 	public void buildCtrAllDifferentMatrix(String id, XVarInteger[][] matrix, int[] except) {
-		for (XVarInteger[] row : matrix)
-			buildCtrAllDifferentExcept(id, row, except);
-		XVarInteger[][] transposed = IntStream.range(0, matrix.length)
-				.mapToObj(i -> IntStream.range(0, matrix[0].length).mapToObj(j -> matrix[j][i]).toArray(XVarInteger[]::new)).toArray(XVarInteger[][]::new);
-		for (XVarInteger[] col : transposed)
-			buildCtrAllDifferentExcept(id, col, except);
+		int[][] tuples = solution.intValuesOf(matrix);
+		controlConstraint(Stream.of(tuples).allMatch(t -> distinctValues(t, except))); // rows
+		controlConstraint(Stream.of(transpose(tuples)).allMatch(t -> distinctValues(t, except))); // cols
 	}
 
 	@Override
@@ -639,7 +1148,7 @@ public final class SolutionChecker implements XCallbacks2 {
 
 	@Override
 	public void buildCtrAllEqual(String id, XNode<XVarInteger>[] trees) {
-		controlConstraint(valuesOfTrees(trees, null).distinct().count() == 1);
+		controlConstraint(valuesOfTrees(trees).distinct().count() == 1);
 	}
 
 	@Override
@@ -650,7 +1159,7 @@ public final class SolutionChecker implements XCallbacks2 {
 
 	@Override
 	public void buildCtrAllEqualExcept(String id, XNode<XVarInteger>[] trees, int[] except) {
-		int[] sublist = valuesOfTrees(trees, null).mapToInt(v -> Utilities.safeInt(v)).filter(v -> !Utilities.contains(except, v)).toArray();
+		int[] sublist = valuesOfTrees(trees).mapToInt(v -> Utilities.safeInt(v)).filter(v -> !Utilities.contains(except, v)).toArray();
 		controlConstraint(IntStream.of(sublist).distinct().count() == 1);
 	}
 
@@ -673,6 +1182,14 @@ public final class SolutionChecker implements XCallbacks2 {
 		controlConstraint(IntStream.range(0, ls.length - 1).allMatch(i -> operator.isValidFor(ls[i] + lg[i], ls[i + 1])));
 	}
 
+	/**
+	 * Returns true if the specified vectors are ordered according to the specified operator. Because the lexicographic order is transitive, it suffices to
+	 * compare adjacent vectors.
+	 */
+	private boolean orderedVectors(int[][] vectors, TypeOperatorRel operator) {
+		return IntStream.range(0, vectors.length - 1).allMatch(i -> orderedVectors(vectors[i], vectors[i + 1], operator));
+	}
+
 	private boolean orderedVectors(int[] v1, int[] v2, TypeOperatorRel operator) {
 		assert v1.length == v2.length;
 		for (int i = 0; i < v1.length; i++) {
@@ -699,20 +1216,14 @@ public final class SolutionChecker implements XCallbacks2 {
 
 	@Override
 	public void buildCtrLex(String id, XVarInteger[][] lists, TypeOperatorRel operator) {
-		int[][] tuples = solution.intValuesOf(lists);
-		controlConstraint(IntStream.range(0, tuples.length)
-				.allMatch(i -> IntStream.range(i + 1, tuples.length).allMatch(j -> orderedVectors(tuples[i], tuples[j], operator))));
+		controlConstraint(orderedVectors(solution.intValuesOf(lists), operator));
 	}
 
 	@Override
 	public void buildCtrLexMatrix(String id, XVarInteger[][] matrix, TypeOperatorRel operator) {
 		int[][] tuples = solution.intValuesOf(matrix);
-		controlConstraint(IntStream.range(0, tuples.length)
-				.allMatch(i -> IntStream.range(i + 1, tuples.length).allMatch(j -> orderedVectors(tuples[i], tuples[j], operator))));
-		int[][] transposedTuples = IntStream.range(0, tuples[0].length).mapToObj(i -> IntStream.range(0, tuples.length).map(j -> tuples[j][i]).toArray())
-				.toArray(int[][]::new);
-		controlConstraint(IntStream.range(0, transposedTuples.length).allMatch(
-				i -> IntStream.range(i + 1, transposedTuples.length).allMatch(j -> orderedVectors(transposedTuples[i], transposedTuples[j], operator))));
+		controlConstraint(orderedVectors(tuples, operator)); // rows
+		controlConstraint(orderedVectors(transpose(tuples), operator)); // cols
 	}
 
 	@Override
@@ -731,70 +1242,106 @@ public final class SolutionChecker implements XCallbacks2 {
 	@Override
 	public void buildCtrPrecedence(String id, XVarInteger[] list, int[] values, boolean covered) {
 		int[] tuple = solution.intValuesOf(list);
+		Map<Integer, Integer> firsts = new HashMap<>(); // first index of each value in the tuple
+		for (int i = tuple.length - 1; i >= 0; i--)
+			firsts.put(tuple[i], i);
 		if (covered)
-			controlConstraint(Utilities.indexOf(values[values.length - 1], tuple) != -1);
+			controlConstraint(firsts.containsKey(values[values.length - 1]));
 		IntStream.range(0, values.length - 1).forEach(i -> {
-			int i1 = Utilities.indexOf(values[i], tuple);
-			int i2 = Utilities.indexOf(values[i + 1], tuple);
+			int i1 = firsts.getOrDefault(values[i], -1);
+			int i2 = firsts.getOrDefault(values[i + 1], -1);
 			controlConstraint(i2 == -1 || (i1 != -1 && i1 < i2));
 		});
 	}
 
-	protected boolean evaluateCondition(int value, Condition condition) {
+	protected boolean evaluateCondition(long value, Condition condition) {
 		if (condition instanceof ConditionVar)
 			return ((ConditionVar) condition).operator.isValidFor(value, solution.intValueOf((XVarInteger) ((ConditionVar) condition).x));
 		if (condition instanceof ConditionVal)
 			return ((ConditionVal) condition).operator.isValidFor(value, ((ConditionVal) condition).k);
+		if (!Utilities.isSafeInt(value)) // the value cannot belong to an interval or a set of ints
+			return ((ConditionSet) condition).operator == TypeConditionOperatorSet.NOTIN;
 		if (condition instanceof ConditionIntvl)
-			return ((ConditionIntvl) condition).operator.isValidFor(value, ((ConditionIntvl) condition).min, ((ConditionIntvl) condition).max);
+			return ((ConditionIntvl) condition).operator.isValidFor((int) value, ((ConditionIntvl) condition).min, ((ConditionIntvl) condition).max);
 		assert condition instanceof ConditionIntset;
-		return ((ConditionIntset) condition).operator.isValidFor(value, ((ConditionIntset) condition).t);
+		return ((ConditionIntset) condition).operator.isValidFor((int) value, ((ConditionIntset) condition).t);
+	}
+
+	/** Returns the difference a - b, or Long.MAX_VALUE (resp., Long.MIN_VALUE) in case of overflow. */
+	private static long gap(long a, long b) {
+		long d = a - b;
+		return ((a ^ b) & (a ^ d)) >= 0 ? d : a < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+	}
+
+	/** Returns |a - b|, saturated to Long.MAX_VALUE (see gap). */
+	private static long absGap(long a, long b) {
+		long d = gap(a, b);
+		return d == Long.MIN_VALUE ? Long.MAX_VALUE : Math.abs(d);
+	}
+
+	/** Returns the distance between the specified value and the set of values satisfying the specified condition (0 if the condition is satisfied). */
+	private long distance(long value, Condition condition) {
+		if (condition instanceof ConditionVar || condition instanceof ConditionVal) {
+			TypeConditionOperatorRel op = ((ConditionRel) condition).operator;
+			long k = condition instanceof ConditionVar ? solution.intValueOf((XVarInteger) ((ConditionVar) condition).x) : ((ConditionVal) condition).k;
+			if (op == NE)
+				return value == k ? 1 : 0;
+			if (op == EQ)
+				return absGap(value, k);
+			long d = op == LT || op == LE ? gap(value, k) : gap(k, value); // the distance is d (or d + 1 for a strict operator) when the condition is not satisfied
+			return Math.max(0, (op == LT || op == GT) && d != Long.MAX_VALUE ? d + 1 : d);
+		}
+		if (condition instanceof ConditionIntvl) {
+			ConditionIntvl c = (ConditionIntvl) condition;
+			if (c.operator == TypeConditionOperatorSet.IN)
+				return value < c.min ? gap(c.min, value) : value > c.max ? gap(value, c.max) : 0;
+			return value < c.min || value > c.max ? 0 : Math.min(value - c.min, c.max - value) + 1;
+		}
+		ConditionIntset c = (ConditionIntset) condition;
+		if (c.operator == TypeConditionOperatorSet.IN)
+			return IntStream.of(c.t).mapToLong(v -> absGap(value, v)).min().orElse(1);
+		return IntStream.of(c.t).anyMatch(v -> v == value) ? 1 : 0;
 	}
 
-	protected void checkCondition(int value, Condition condition) {
-		controlConstraint(evaluateCondition(value, condition));
+	protected void checkCondition(long value, Condition condition) {
+		checkCondition(value, condition, null);
+	}
+
+	/** Checks the specified condition with respect to the specified value; when building diagnostics, the specified offending part is used (if not null). */
+	private void checkCondition(long value, Condition condition, Supplier<String> offending) {
+		controlConstraint(evaluateCondition(value, condition),
+				offending != null ? offending : () -> "the computed value " + value + " does not satisfy the condition " + condition,
+				() -> Math.max(1, distance(value, condition)));
 	}
 
 	@Override
 	public void buildCtrSum(String id, XVarInteger[] list, Condition condition) {
-		checkCondition(IntStream.of(solution.intValuesOf(list)).sum(), condition);
+		checkCondition(Accumulator.sum(solution.intValuesOf(list), null).clampedValue(), condition);
 	}
 
 	@Override
 	public void buildCtrSum(String id, XVarInteger[] list, int[] coeffs, Condition condition) {
-		checkCondition(IntStream.range(0, list.length).map(i -> solution.intValueOf(list[i]) * coeffs[i]).sum(), condition);
+		checkCondition(Accumulator.sum(solution.intValuesOf(list), coeffs).clampedValue(), condition);
 	}
 
 	@Override
 	public void buildCtrSum(String id, XVarInteger[] list, XVarInteger[] coeffs, Condition condition) {
-		checkCondition(IntStream.range(0, list.length).map(i -> solution.intValueOf(list[i]) * solution.intValueOf(coeffs[i])).sum(), condition);
+		checkCondition(Accumulator.sum(solution.intValuesOf(list), solution.intValuesOf(coeffs)).clampedValue(), condition);
 	}
 
 	@Override
 	public void buildCtrSum(String id, XNode<XVarInteger>[] trees, Condition condition) {
-		BigInteger b = BigInteger.ZERO;
-		for (long v : valuesOfTrees(trees, null).toArray())
-			b = b.add(BigInteger.valueOf(v));
-		checkCondition(b.intValueExact(), condition);
+		checkCondition(Accumulator.sum(valuesOfTrees(trees).toArray(), null).clampedValue(), condition);
 	}
 
 	@Override
 	public void buildCtrSum(String id, XNode<XVarInteger>[] trees, int[] coeffs, Condition condition) {
-		BigInteger b = BigInteger.ZERO;
-		for (long v : valuesOfTrees(trees, coeffs).toArray())
-			b = b.add(BigInteger.valueOf(v));
-		checkCondition(b.intValueExact(), condition);
+		checkCondition(Accumulator.sum(valuesOfTrees(trees).toArray(), coeffs).clampedValue(), condition);
 	}
 
 	@Override
 	public void buildCtrSum(String id, XNode<XVarInteger>[] trees, XVarInteger[] coeffs, Condition condition) {
-		XVarInteger[][] scopes = Stream.of(trees).map(t -> t.vars()).toArray(XVarInteger[][]::new);
-		long[] t = IntStream.range(0, trees.length)
-				.mapToLong(i -> new TreeEvaluator(trees[i]).evaluate(solution.intValuesOf(scopes[i])) * solution.intValueOf(coeffs[i])).toArray();
-		BigInteger b = BigInteger.ZERO;
-		for (long v : t)
-			b = b.add(BigInteger.valueOf(v));
-		checkCondition(b.intValueExact(), condition);
+		checkCondition(Accumulator.sum(valuesOfTrees(trees).toArray(), solution.intValuesOf(coeffs)).clampedValue(), condition);
 	}
 
 	@Override
@@ -824,7 +1371,7 @@ public final class SolutionChecker implements XCallbacks2 {
 
 	@Override
 	public void buildCtrNValues(String id, XNode<XVarInteger>[] trees, Condition condition) {
-		checkCondition((int) valuesOfTrees(trees, null).distinct().count(), condition);
+		checkCondition((int) valuesOfTrees(trees).distinct().count(), condition);
 	}
 
 	@Override
@@ -871,7 +1418,7 @@ public final class SolutionChecker implements XCallbacks2 {
 
 	@Override
 	public void buildCtrMaximum(String id, XNode<XVarInteger>[] trees, Condition condition) {
-		checkCondition(Utilities.safeInt(valuesOfTrees(trees, null).max().getAsLong()), condition);
+		checkCondition(valuesOfTrees(trees).max().getAsLong(), condition);
 	}
 
 	@Override
@@ -881,7 +1428,7 @@ public final class SolutionChecker implements XCallbacks2 {
 
 	@Override
 	public void buildCtrMinimum(String id, XNode<XVarInteger>[] trees, Condition condition) {
-		checkCondition(Utilities.safeInt(valuesOfTrees(trees, null).min().getAsLong()), condition);
+		checkCondition(valuesOfTrees(trees).min().getAsLong(), condition);
 	}
 
 	private void checkArgKnownIndex(String id, int[] tuple, int startIndex, XVarInteger index, TypeRank rank, Condition condition, int value) {
@@ -1063,8 +1610,12 @@ public final class SolutionChecker implements XCallbacks2 {
 	public void buildCtrNoOverlap(String id, XVarInteger[] origins, int[] lengths, boolean zeroIgnored) {
 		int[] tuple = solution.intValuesOf(origins);
 		int[] sublist = IntStream.range(0, origins.length).filter(i -> !zeroIgnored || lengths[i] != 0).toArray();
-		controlConstraint(IntStream.range(0, sublist.length).allMatch(i -> IntStream.range(0, sublist.length).filter(j -> j > i)
-				.allMatch(j -> tuple[sublist[i]] + lengths[sublist[i]] <= tuple[sublist[j]] || tuple[sublist[j]] + lengths[sublist[j]] <= tuple[sublist[i]])));
+		int[] o = IntStream.of(sublist).map(i -> tuple[i]).toArray(), l = IntStream.of(sublist).map(i -> lengths[i]).toArray();
+		if (!Sweep.noOverlap(o, l)) {
+			int[] pair = new int[2];
+			long nPairs = withDiagnostics ? Sweep.overlappingPairs(o, l, pair) : 1;
+			controlConstraint(false, () -> "the tasks " + origins[sublist[pair[0]]] + " and " + origins[sublist[pair[1]]] + " overlap", () -> nPairs);
+		}
 	}
 
 	@Override
@@ -1076,10 +1627,13 @@ public final class SolutionChecker implements XCallbacks2 {
 	public void buildCtrNoOverlap(String id, XVarInteger[][] origins, int[][] lengths, boolean zeroIgnored) {
 		int[][] tuples = solution.intValuesOf(origins);
 		int[] sublist = IntStream.range(0, origins.length).filter(i -> !zeroIgnored || IntStream.of(lengths[i]).allMatch(l -> l != 0)).toArray();
-		controlConstraint(IntStream.range(0, sublist.length)
-				.allMatch(i -> IntStream.range(0, sublist.length).filter(j -> j > i).allMatch(
-						j -> IntStream.range(0, origins[0].length).anyMatch(k -> tuples[sublist[i]][k] + lengths[sublist[i]][k] <= tuples[sublist[j]][k]
-								|| tuples[sublist[j]][k] + lengths[sublist[j]][k] <= tuples[sublist[i]][k]))));
+		int[][] o = IntStream.of(sublist).mapToObj(i -> tuples[i]).toArray(int[][]::new), l = IntStream.of(sublist).mapToObj(i -> lengths[i]).toArray(int[][]::new);
+		if (!Sweep.noOverlap(o, l)) {
+			int[] pair = new int[2];
+			long nPairs = withDiagnostics ? Sweep.overlappingPairs(o, l, pair) : 1;
+			controlConstraint(false, () -> "the boxes " + Arrays.toString(origins[sublist[pair[0]]]) + " and " + Arrays.toString(origins[sublist[pair[1]]]) + " overlap",
+					() -> nPairs);
+		}
 	}
 
 	@Override
@@ -1090,11 +1644,13 @@ public final class SolutionChecker implements XCallbacks2 {
 	@Override
 	public void buildCtrCumulative(String id, XVarInteger[] origins, int[] lengths, int[] heights, Condition condition) {
 		int[] tuple = solution.intValuesOf(origins);
-		int min = IntStream.of(tuple).min().getAsInt(), max = IntStream.range(0, tuple.length).map(i -> tuple[i] + lengths[i]).max().getAsInt();
-		IntStream.rangeClosed(min, max).forEach(t -> {
-			int h = IntStream.range(0, tuple.length).filter(i -> tuple[i] <= t && t < tuple[i] + lengths[i]).map(i -> heights[i]).sum();
-			checkCondition(h, condition);
-		});
+		int[] times = withDiagnostics ? new int[2 * tuple.length + 1] : null;
+		long[] profile = Sweep.cumulativeProfile(tuple, lengths, heights, times);
+		for (int i = 0; i < profile.length; i++) {
+			int j = i;
+			checkCondition(profile[i], condition, () -> "the height " + profile[j] + " from time " + times[j] + (j + 1 < profile.length ? " to " + times[j + 1] : "")
+					+ " does not satisfy the condition " + condition);
+		}
 	}
 
 	@Override
@@ -1133,19 +1689,18 @@ public final class SolutionChecker implements XCallbacks2 {
 		buildCtrCumulative(id, origins, solution.intValuesOf(lengths), ends, solution.intValuesOf(heights), condition);
 	}
 
-	private Map<Integer, Integer> filling(int[] tuple, int[] sizes) {
-		Map<Integer, Integer> map = new LinkedHashMap<>();
-		for (int i = 0; i < tuple.length; i++) {
-			int b = tuple[i];
-			map.put(b, sizes[i] + map.getOrDefault(b, 0));
-		}
+	/** Returns the load of each bin (in order of first use); loads are summed on longs, which cannot overflow when adding less than 2^31 ints. */
+	private Map<Integer, Long> filling(int[] tuple, int[] sizes) {
+		Map<Integer, Long> map = new LinkedHashMap<>();
+		for (int i = 0; i < tuple.length; i++)
+			map.merge(tuple[i], (long) sizes[i], Long::sum);
 		return map;
 	}
 
 	@Override
 	public void buildCtrBinPacking(String id, XVarInteger[] list, int[] sizes, Condition condition) {
-		Map<Integer, Integer> map = filling(solution.intValuesOf(list), sizes);
-		for (int w : map.values())
+		Map<Integer, Long> map = filling(solution.intValuesOf(list), sizes);
+		for (long w : map.values())
 			checkCondition(w, condition);
 	}
 
@@ -1165,16 +1720,16 @@ public final class SolutionChecker implements XCallbacks2 {
 
 	@Override
 	public void buildCtrBinPacking(String id, XVarInteger[] list, int[] sizes, Condition[] conditions, int startIndex) {
-		Map<Integer, Integer> map = filling(solution.intValuesOf(list), sizes);
+		Map<Integer, Long> map = filling(solution.intValuesOf(list), sizes);
 		for (int i = startIndex; i < startIndex + conditions.length; i++)
-			checkCondition(map.getOrDefault(i, 0), conditions[i - startIndex]);
+			checkCondition(map.getOrDefault(i, 0L), conditions[i - startIndex]);
 	}
 
 	@Override
 	public void buildCtrKnapsack(String id, XVarInteger[] list, int[] weights, Condition wcondition, int[] profits, Condition pcondition) {
 		int[] tuple = solution.intValuesOf(list);
-		checkCondition(IntStream.range(0, list.length).map(i -> tuple[i] * weights[i]).sum(), wcondition);
-		checkCondition(IntStream.range(0, list.length).map(i -> tuple[i] * profits[i]).sum(), pcondition);
+		checkCondition(Accumulator.sum(tuple, weights).clampedValue(), wcondition);
+		checkCondition(Accumulator.sum(tuple, profits).clampedValue(), pcondition);
 	}
 
 	@Override
@@ -1192,7 +1747,7 @@ public final class SolutionChecker implements XCallbacks2 {
 			List<Var> s = succs[i], p = preds[i];
 			int[] t = solution.intValuesOf(Stream.concat(s.stream(), p.stream()).toArray(XVarInteger[]::new));
 			int[] coeffs = IntStream.range(0, s.size() + p.size()).map(j -> j < s.size() ? 1 : -1).toArray();
-			controlConstraint(IntStream.range(0, t.length).map(j -> t[j] * coeffs[j]).sum() == balance[i]);
+			controlConstraint(Accumulator.sum(t, coeffs).clampedValue() == balance[i]);
 		}
 	}
 
@@ -1278,31 +1833,28 @@ public final class SolutionChecker implements XCallbacks2 {
 		buildObjToMinimize(id, type, list, null);
 	}
 
-	private void computeObjective(String id, TypeObjective type, BigInteger[] list, int[] coeffs) {
-		BigInteger[] bis = coeffs == null ? list
-				: IntStream.range(0, list.length).mapToObj(i -> list[i].multiply(BigInteger.valueOf(coeffs[i]))).toArray(BigInteger[]::new);
-		if (type == NVALUES) {
-			controlObjective(BigInteger.valueOf(Stream.of(bis).distinct().count()));
+	private void computeObjective(String id, TypeObjective type, long[] values, int[] coeffs) {
+		assert type != LEX;
+		if (type == SUM)
+			controlObjective(Accumulator.sum(values, coeffs).toBigInteger());
+		else if (type == PRODUCT) {
+			Accumulator acc = new Accumulator(1);
+			for (int i = 0; i < values.length; i++)
+				acc.multiply(values[i]).multiply(coeffs == null ? 1 : coeffs[i]);
+			controlObjective(acc.toBigInteger());
 		} else {
-			assert type != LEX;
-			BigInteger computedCost = bis[0];
-			for (int i = 1; i < list.length; i++) {
-				if (type == SUM)
-					computedCost = computedCost.add(bis[i]);
-				if (type == PRODUCT)
-					computedCost = computedCost.multiply(bis[i]);
-				if (type == MINIMUM)
-					computedCost = computedCost.min(bis[i]);
-				if (type == MAXIMUM)
-					computedCost = computedCost.max(bis[i]);
-			}
-			controlObjective(computedCost);
+			BigInteger[] terms = IntStream.range(0, values.length)
+					.mapToObj(i -> new Accumulator(values[i]).multiply(coeffs == null ? 1 : coeffs[i]).toBigInteger()).toArray(BigInteger[]::new);
+			if (type == NVALUES)
+				controlObjective(BigInteger.valueOf(Stream.of(terms).distinct().count()));
+			else
+				controlObjective(Stream.of(terms).reduce(type == MINIMUM ? BigInteger::min : BigInteger::max).get());
 		}
 	}
 
 	@Override
 	public void buildObjToMinimize(String id, TypeObjective type, XVarInteger[] list, int[] coeffs) {
-		computeObjective(id, type, Stream.of(list).map(x -> BigInteger.valueOf(solution.intValueOf(x))).toArray(BigInteger[]::new), coeffs);
+		computeObjective(id, type, IntStream.of(solution.intValuesOf(list)).asLongStream().toArray(), coeffs);
 	}
 
 	@Override
@@ -1326,7 +1878,7 @@ public final class SolutionChecker implements XCallbacks2 {
 
 	@Override
 	public void buildObjToMinimize(String id, TypeObjective type, XNode<XVarInteger>[] trees, int[] coeffs) {
-		computeObjective(id, type, valuesOfTrees(trees, null).mapToObj(l -> BigInteger.valueOf(l)).toArray(BigInteger[]::new), coeffs);
+		computeObjective(id, type, valuesOfTrees(trees).toArray(), coeffs);
 	}
 
 	@Override
@@ -1367,7 +1919,7 @@ public final class SolutionChecker implements XCallbacks2 {
 		String[] tuple = solution.symbolicValuesOf(list);
 		boolean found = Stream.of(tuples).anyMatch(t -> IntStream.range(0, t.length).allMatch(i -> t[i].equals("*") || t[i].equals(tuple[i])));
 		// TODO dichotomic search instead of linear search ? compatible with * ?
-		controlConstraint(found == positive);
+		controlConstraint(found == positive, () -> "the tuple " + Arrays.toString(tuple) + (positive ? " is not supported" : " is forbidden"), () -> 1);
 	}
 
 	@Override
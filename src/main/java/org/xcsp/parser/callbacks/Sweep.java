@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.parser.callbacks;
+
+import java.util.Arrays;
+
+/**
+ * Sweep algorithms used for checking scheduling and packing constraints (cumulative, noOverlap). Events are sorted, and so the cost depends on the number of
+ * tasks (or boxes), and not on the length of the horizon.
+ */
+final class Sweep {
+
+	private Sweep() {
+	}
+
+	/** Returns a key allowing us to sort pairs (value,index) by value, the index being given by the 32 lowest bits. */
+	private static long key(long value, int index) {
+		return (value << 32) | index;
+	}
+
+	private static int index(long key) {
+		return (int) (key & 0xFFFFFFFFL);
+	}
+
+	private static int value(long key) {
+		return (int) (key >> 32);
+	}
+
+	/**
+	 * Returns the successive heights of the cumulative profile of the specified tasks, between the earliest origin and the latest end (included). A task i
+	 * contributes with heights[i] at any time t such that origins[i] &lt;= t &lt; origins[i] + lengths[i]. One height is given for each maximal interval where
+	 * the profile is constant, and the height 0 (reached at the latest end) is always present, except when the time window is empty. If times is not null
+	 * (and of length at least 2 * origins.length + 1), the time at which each interval starts is stored in it. Heights are summed on longs, which cannot
+	 * overflow (there are less than 2^31 tasks, each one with a height in the int range).
+	 */
+	static long[] cumulativeProfile(int[] origins, int[] lengths, int[] heights, int[] times) {
+		int n = origins.length;
+		long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+		for (int i = 0; i < n; i++) {
+			min = Math.min(min, origins[i]);
+			max = Math.max(max, (long) origins[i] + lengths[i]);
+		}
+		if (n == 0 || max < min)
+			return new long[0];
+		long[] starts = new long[n], ends = new long[n];
+		int nTasks = 0;
+		for (int i = 0; i < n; i++)
+			if (lengths[i] > 0) {
+				starts[nTasks] = key(origins[i], i);
+				ends[nTasks++] = key(Math.min((long) origins[i] + lengths[i], Integer.MAX_VALUE), i);
+			}
+		Arrays.sort(starts, 0, nTasks);
+		Arrays.sort(ends, 0, nTasks);
+		long[] profile = new long[2 * nTasks + 1];
+		long height = 0;
+		int size = 0, time = (int) Math.min(max, Integer.MAX_VALUE);
+		for (int s = 0, e = 0; s < nTasks || e < nTasks;) {
+			time = s == nTasks ? value(ends[e]) : e == nTasks ? value(starts[s]) : Math.min(value(starts[s]), value(ends[e]));
+			for (; e < nTasks && value(ends[e]) == time; e++)
+				height -= heights[index(ends[e])];
+			for (; s < nTasks && value(starts[s]) == time; s++)
+				height += heights[index(starts[s])];
+			if (s < nTasks || e < nTasks) { // otherwise, this is the end of the last task, where the height is 0
+				if (times != null)
+					times[size] = time;
+				profile[size++] = height;
+			}
+		}
+		if (times != null)
+			times[size] = time;
+		profile[size++] = 0;
+		return Arrays.copyOf(profile, size);
+	}
+
+	/** Returns true if the two specified boxes overlap, i.e., if for each dimension k, neither o1[k]+l1[k] &lt;= o2[k] nor o2[k]+l2[k] &lt;= o1[k]. */
+	private static boolean overlap(int[] o1, int[] l1, int[] o2, int[] l2) {
+		for (int k = 0; k < o1.length; k++)
+			if ((long) o1[k] + l1[k] <= o2[k] || (long) o2[k] + l2[k] <= o1[k])
+				return false;
+		return true;
+	}
+
+	/**
+	 * Returns the number of pairs of the specified boxes that overlap (see overlap), stopping at the first one if all is false. If first is not null, the
+	 * indexes of the first found pair are stored in it. Boxes are swept in increasing order of their origins on the first dimension: a box only needs to be
+	 * compared with the previous boxes that end (on the first dimension) after its origin. The cost is then O(n log n + p) where p is the number of pairs of
+	 * boxes that overlap on the first dimension.
+	 */
+	private static long sweep(int[][] origins, int[][] lengths, boolean all, int[] first) {
+		int n = origins.length;
+		long[] order = new long[n];
+		for (int i = 0; i < n; i++)
+			order[i] = key(origins[i][0], i);
+		Arrays.sort(order);
+		int[] active = new int[n];
+		int nActive = 0;
+		long nPairs = 0;
+		for (long key : order) {
+			int j = index(key), origin = origins[j][0];
+			for (int a = nActive - 1; a >= 0; a--) {
+				int i = active[a];
+				if ((long) origins[i][0] + lengths[i][0] <= origin) // box i can no more overlap the current box and the next ones
+					active[a] = active[--nActive];
+				else if (overlap(origins[i], lengths[i], origins[j], lengths[j])) {
+					if (nPairs++ == 0 && first != null) {
+						first[0] = Math.min(i, j);
+						first[1] = Math.max(i, j);
+					}
+					if (!all)
+						return nPairs;
+				}
+			}
+			active[nActive++] = j;
+		}
+		return nPairs;
+	}
+
+	/** Returns true if no two of the specified boxes overlap, i.e., if for any two boxes i and j, there is a dimension k where they do not overlap. */
+	static boolean noOverlap(int[][] origins, int[][] lengths) {
+		return sweep(origins, lengths, false, null) == 0;
+	}
+
+	/** Returns the number of pairs of the specified boxes that overlap; the indexes of the first found pair are stored in first (if not null). */
+	static long overlappingPairs(int[][] origins, int[][] lengths, int[] first) {
+		return sweep(origins, lengths, true, first);
+	}
+
+	/** Returns true if no two of the specified tasks overlap, i.e., if for any two tasks i and j, o_i + l_i &lt;= o_j or o_j + l_j &lt;= o_i. */
+	static boolean noOverlap(int[] origins, int[] lengths) {
+		return noOverlap(boxes(origins), boxes(lengths));
+	}
+
+	/** Returns the number of pairs of the specified tasks that overlap; the indexes of the first found pair are stored in first (if not null). */
+	static long overlappingPairs(int[] origins, int[] lengths, int[] first) {
+		return overlappingPairs(boxes(origins), boxes(lengths), first);
+	}
+
+	private static int[][] boxes(int[] t) {
+		int[][] m = new int[t.length][];
+		for (int i = 0; i < t.length; i++)
+			m[i] = new int[] { t[i] };
+		return m;
+	}
+}
@@ -13,21 +13,28 @@
  */
 package org.xcsp.parser.callbacks;
 
+import java.io.ByteArrayInputStream;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xcsp.common.BinaryFormat;
 import org.xcsp.common.Condition;
 import org.xcsp.common.Constants;
 import org.xcsp.common.Types.TypeArithmeticOperator;
 import org.xcsp.common.Types.TypeChild;
+import org.xcsp.common.Types.TypeClass;
 import org.xcsp.common.Types.TypeCombination;
 import org.xcsp.common.Types.TypeConditionOperatorRel;
 import org.xcsp.common.Types.TypeConditionOperatorSet;
@@ -51,7 +58,12 @@ import org.xcsp.common.predicates.XNodeLeaf;
 import org.xcsp.common.predicates.XNodeParent;
 import org.xcsp.common.structures.AbstractTuple;
 import org.xcsp.common.structures.Transition;
+import org.xcsp.common.structures.TransitionTable;
 import org.xcsp.parser.WrongTypeException;
+import org.xcsp.parser.XMetrics;
+import org.xcsp.parser.XMetrics.Cache;
+import org.xcsp.parser.XMetrics.Counter;
+import org.xcsp.parser.XMetrics.Phase;
 import org.xcsp.parser.XParser;
 import org.xcsp.parser.entries.ParsingEntry;
 import org.xcsp.parser.entries.ParsingEntry.AEntry;
@@ -122,6 +134,18 @@ public interface XCallbacks {
 		/** The cache used to avoid creating several times similar tables (arrays of tuples). */
 		public Map<Object, int[][]> cache4Tuples;
 
+		/** The cache used to avoid compiling several times the same transitions (arrays of transitions shared by several automatons or MDDs). */
+		public Map<Object, TransitionTable> cache4Transitions;
+
+		/** The listener notified of metrics (phase times, counts and cache hits) when loading; by default, nothing is recorded. */
+		public XMetrics.Listener metrics = XMetrics.NONE;
+
+		/**
+		 * The predicate used to discard some elements of <constraints> (constraints and blocks) before they are parsed, or null. This is complementary to
+		 * discarded classes.
+		 */
+		public Predicate<Element> discardedElements;
+
 		/** The map containing the current parameters that are used to pilot the parser. */
 		public final Map<XCallbacksParameters, Object> currParameters;
 
@@ -178,10 +202,23 @@ public interface XCallbacks {
 		public void resetStructures() {
 			cache4DomObject = new LinkedHashMap<>();
 			cache4Tuples = new LinkedHashMap<>();
+			cache4Transitions = new LinkedHashMap<>();
 			allIds = new LinkedHashSet<>();
 			postedRecognizedCtrs = new LinkedHashSet<>();
 		}
 
+		/**
+		 * Returns the compiled form of the specified transitions, which is built only once for all constraints (typically, from a group) sharing the same array
+		 * of transitions.
+		 */
+		public TransitionTable transitionTableOf(Transition[] transitions) {
+			TransitionTable table = cache4Transitions.get(transitions);
+			metrics.cache(Cache.TRANSITIONS, table != null);
+			if (table == null)
+				cache4Transitions.put(transitions, table = new TransitionTable(transitions));
+			return table;
+		}
+
 		/**
 		 * Builds the object that will be used during the process of loading an XCSP3 instance.
 		 * 
@@ -280,7 +317,26 @@ public interface XCallbacks {
 	 * @return the document corresponding to the XCSP3 file whose filename is given
 	 */
 	default Document loadDocument(String fileName) throws Exception {
-		return Utilities.loadDocument(fileName);
+		XMetrics.Listener metrics = implem().metrics;
+		if (BinaryFormat.isBinary(fileName)) { // tables are only attached to their elements, since the parser can use them directly
+			long[] mark = metrics.mark();
+			Document document = BinaryFormat.load(fileName);
+			metrics.ended(Phase.DOCUMENT, null, mark);
+			return document;
+		}
+		if (metrics == XMetrics.NONE)
+			return Utilities.loadDocument(fileName);
+		long[] mark = metrics.mark();
+		Document document = null;
+		if (fileName.endsWith("xml.bz2") || fileName.endsWith("xml.lzma")) { // decompression is separated from XML parsing, so as to measure both
+			byte[] bytes = Utilities.decompress(fileName);
+			metrics.ended(Phase.DECOMPRESSION, null, mark);
+			mark = metrics.mark();
+			document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(bytes));
+		} else
+			document = Utilities.loadDocument(fileName);
+		metrics.ended(Phase.DOCUMENT, null, mark);
+		return document;
 	}
 
 	/**
@@ -296,7 +352,7 @@ public interface XCallbacks {
 	 */
 	default void loadInstance(Document document, String... discardedClasses) throws Exception {
 		implem().resetStructures();
-		XParser parser = new XParser(document, discardedClasses);
+		XParser parser = new XParser(document, TypeClass.classesFor(discardedClasses), implem().discardedElements, implem().metrics);
 		beginInstance(parser.typeFramework);
 		beginVariables(parser.vEntries);
 		loadVariables(parser);
@@ -370,6 +426,7 @@ public interface XCallbacks {
 		if (v.degree == 0)
 			return;
 		Object domObject = implem().cache4DomObject.get(v.dom);
+		implem().metrics.cache(Cache.DOMAINS, domObject != null);
 		if (domObject == null) {
 			if (v.dom instanceof Dom) {
 				IntegerEntity[] pieces = (IntegerEntity[]) ((Dom) v.dom).values;
@@ -538,12 +595,16 @@ public interface XCallbacks {
 		CChild[] childs = c.childs;
 		Utilities.control(Stream.of(TypeChild.cost, TypeChild.set, TypeChild.mset).noneMatch(t -> t == childs[childs.length - 1].type),
 				"soft, set and mset currently not implemented");
+		XMetrics.Listener metrics = implem().metrics;
+		long[] mark = metrics.mark();
 		if (Stream.of(c.vars()).allMatch(x -> x instanceof XVarInteger)) {
 			implem().ctrLoaderInteger.load(c);
 		} else if (Stream.of(c.vars()).allMatch(x -> x instanceof XVarSymbolic)) {
 			implem().ctrLoaderSymbolic.load(c);
 		} else
 			unimplementedCase(c);
+		metrics.ended(Phase.LOADING, c.getType().name(), mark);
+		metrics.count(Counter.LOADED_CONSTRAINTS, 1);
 	}
 
 	/**
@@ -72,6 +72,12 @@ public class XVariables {
 		/** The degree of the variable. This is automatically computed after all constraints have been parsed. */
 		public int degree;
 
+		/**
+		 * The ordinal of the variable, i.e., its position in the sequence of all variables (stand-alone variables and variables of arrays) in the order they are
+		 * declared. This is automatically assigned when variables are parsed, and is -1 before.
+		 */
+		public int ordinal = -1;
+
 		/** Builds a variable with the specified id, type and domain. */
 		protected XVar(String id, TypeVar type, IDom dom) {
 			super(id, type);
@@ -239,6 +245,30 @@ public class XVariables {
 			return vars[flatIndexFor(indexes)];
 		}
 
+		/**
+		 * Returns the variable of this array whose id is specified (e.g., x[2][4]), or null if the specified string does not denote (the id of) a variable of
+		 * this array. The string is directly parsed (no map of ids is required).
+		 */
+		public XVar varWithId(String s) {
+			int pos = id.length();
+			if (s.length() <= pos || s.charAt(pos) != '[' || !s.startsWith(id))
+				return null;
+			int[] indexes = new int[size.length];
+			for (int i = 0; i < size.length; i++) {
+				if (pos >= s.length() || s.charAt(pos) != '[')
+					return null;
+				int start = ++pos, value = 0;
+				for (; pos < s.length() && Character.isDigit(s.charAt(pos)); pos++)
+					if ((value = value * 10 + (s.charAt(pos) - '0')) >= size[i])
+						return null;
+				if (pos == start || pos >= s.length() || s.charAt(pos) != ']' || (s.charAt(start) == '0' && pos - start > 1))
+					return null;
+				indexes[i] = value;
+				pos++;
+			}
+			return pos == s.length() ? vars[flatIndexFor(indexes)] : null;
+		}
+
 		public Dom domAt(boolean discardZeroDegreeVariables, int... indexes) {
 			XVar x = vars[flatIndexFor(indexes)];
 			return x == null ? null : (x.degree == 0 && discardZeroDegreeVariables) ? null : (Dom) x.dom;
@@ -39,6 +39,10 @@ import org.xcsp.common.predicates.XNodeLeaf;
 import org.xcsp.common.predicates.XNodeParent;
 import org.xcsp.common.structures.AbstractTuple;
 import org.xcsp.common.structures.Transition;
+import org.xcsp.parser.XMetrics;
+import org.xcsp.parser.XMetrics.Cache;
+import org.xcsp.parser.XMetrics.Counter;
+import org.xcsp.parser.XMetrics.Phase;
 import org.xcsp.parser.callbacks.XCallbacks;
 import org.xcsp.parser.entries.XConstraints.CChild;
 import org.xcsp.parser.entries.XConstraints.XCtr;
@@ -284,10 +288,14 @@ public class CtrLoaderInteger {
 		long size = XVarInteger.domainCartesianProductSize(scp);
 		if (size == -1 || size > spaceLimit)
 			return false;
+		XMetrics.Listener metrics = xc.implem().metrics;
+		long[] mark = metrics.mark();
 		int[][] domValues = Stream.of(scp).map(x -> IntegerEntity.toIntArray((IntegerEntity[]) ((Dom) x.dom).values, Integer.MAX_VALUE)).toArray(int[][]::new);
 		ModifiableBoolean b = new ModifiableBoolean(null); // later, maybe a control parameter
 		int[][] tuples = new TreeEvaluator(root).generateTuples(domValues, b);
 		assert b.value != null;
+		metrics.ended(Phase.CONVERSION, null, mark);
+		metrics.count(Counter.CONVERTED_TUPLES, tuples.length);
 		if (tuples.length == 0) { // special case because 0 tuple
 			if (b.value)
 				xc.buildCtrFalse(id, scp);
@@ -317,7 +325,10 @@ public class CtrLoaderInteger {
 		if (xc.implem().currParameters.get(RECOGNIZING_BEFORE_CONVERTING) == Boolean.FALSE) // we try first converting into extension
 			if (intensionToExtension(c.id, scope, root))
 				return;
-		if (recognizer.specificIntensionCases(c.id, root, scope.length)) // we try to recognize special forms of intension constraints
+		long[] mark = xc.implem().metrics.mark();
+		boolean recognized = recognizer.specificIntensionCases(c.id, root, scope.length); // we try to recognize special forms of intension constraints
+		xc.implem().metrics.ended(Phase.RECOGNITION, null, mark);
+		if (recognized)
 			return;
 		if (xc.implem().currParameters.get(RECOGNIZING_BEFORE_CONVERTING) == Boolean.TRUE) // we now try converting into extension
 			if (intensionToExtension(c.id, scope, root))
@@ -341,9 +352,11 @@ public class CtrLoaderInteger {
 				if (c1.value instanceof AbstractTuple[]) {
 					xc.buildCtrExtension(c.id, list, (AbstractTuple[]) c1.value, positive, c1.flags);
 				} else {
-					int[][] tuples = xc.implem().cache4Tuples.computeIfAbsent(c1.value, k -> trIntegers2D(c1.value));
-					// if (tuples == null)
-					// xc.implem().cache4Tuples.put(c1.value, tuples = trIntegers2D(c1.value));
+					int[][] tuples = xc.implem().cache4Tuples.get(c1.value);
+					xc.implem().metrics.cache(Cache.TUPLES, tuples != null);
+					if (tuples == null)
+						xc.implem().cache4Tuples.put(c1.value, tuples = trIntegers2D(c1.value));
+					xc.implem().metrics.count(Counter.TUPLES, tuples.length);
 					// control to insert later below ?
 					// for (int i = 0; i < tuples.length - 1; i++) if (Utilities.lexComparatorInt.compare(tuples[i],
 					// tuples[i + 1]) >= 0) {
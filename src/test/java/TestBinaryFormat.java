@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.w3c.dom.Document;
+import org.xcsp.common.BinaryFormat;
+import org.xcsp.common.Utilities;
+import org.xcsp.parser.XParser;
+import org.xcsp.parser.callbacks.SolutionChecker;
+import org.xcsp.parser.entries.XObjectives.OObjectiveExpr;
+import org.xcsp.parser.entries.XObjectives.OObjectiveSpecial;
+import org.xcsp.parser.entries.XVariables.XArray;
+import org.xcsp.parser.entries.XVariables.XVar;
+
+/**
+ * Checks that instances saved in binary form (see BinaryFormat) are parsed as their XML form, and that their solutions are still valid.
+ */
+@RunWith(Parameterized.class)
+public class TestBinaryFormat {
+
+	@Parameters(name = "{index}: {0}")
+	public static Collection<Object[]> data() {
+		return TestSolutions.data();
+	}
+
+	@Parameter(value = 0)
+	public String fileName;
+
+	@Parameter(value = 1)
+	public String solution;
+
+	private static String entries(XParser parser) {
+		String vars = parser.vEntries.stream().flatMap(e -> e instanceof XVar ? Stream.of((XVar) e) : Stream.of(((XArray) e).vars))
+				.map(x -> x == null ? "null" : x.id + " " + x.dom + " " + x.degree).collect(Collectors.joining("\n"));
+		String objs = parser.oEntries.stream()
+				.map(o -> o + " " + (o instanceof OObjectiveExpr ? ((OObjectiveExpr) o).rootNode : Utilities.join(((OObjectiveSpecial) o).terms) + " "
+						+ (((OObjectiveSpecial) o).coeffs == null ? "" : Utilities.join(((OObjectiveSpecial) o).coeffs))))
+				.collect(Collectors.joining("\n"));
+		return vars + "\n" + parser.cEntries + "\n" + objs + "\n" + parser.aEntries;
+	}
+
+	@Test
+	public void test() throws Exception {
+		System.out.println("file=" + fileName);
+		Document document = Utilities.loadDocument(TestSolutions.path + fileName + ".lzma");
+		File file = File.createTempFile(fileName, BinaryFormat.SUFFIX);
+		file.deleteOnExit();
+		try (OutputStream out = new FileOutputStream(file)) {
+			BinaryFormat.save(document, out);
+		}
+		String expected = entries(new XParser(document));
+		assertEquals(expected, entries(new XParser(BinaryFormat.load(file.getPath())))); // tables only attached to their elements
+		Document loaded = Utilities.loadDocument(file.getPath()); // tables also given in textual form
+		assertEquals(expected, entries(new XParser(loaded)));
+		StringWriter sw = new StringWriter();
+		Utilities.save(loaded, new PrintWriter(sw));
+		assertEquals(expected, entries(new XParser(new ByteArrayInputStream(sw.toString().getBytes(StandardCharsets.UTF_8)))));
+		SolutionChecker sc = new SolutionChecker(file.getPath(), new ByteArrayInputStream(solution.getBytes()), null, null, false);
+		assertEquals(sc.violatedCtrs.size(), 0);
+		assertEquals(sc.invalidObjs.size(), 0);
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.xcsp.common.Types.TypeArithmeticOperator;
+import org.xcsp.common.Types.TypeCombination;
+import org.xcsp.common.Types.TypeConditionOperatorRel;
+import org.xcsp.common.Types.TypeFlag;
+import org.xcsp.common.Types.TypeFramework;
+import org.xcsp.common.predicates.XNodeParent;
+import org.xcsp.modeler.Compiler;
+import org.xcsp.parser.callbacks.XCallbacks2;
+import org.xcsp.parser.entries.ParsingEntry.CEntry;
+import org.xcsp.parser.entries.ParsingEntry.OEntry;
+import org.xcsp.parser.entries.ParsingEntry.VEntry;
+import org.xcsp.parser.entries.XConstraints.XBlock;
+import org.xcsp.parser.entries.XConstraints.XGroup;
+import org.xcsp.parser.entries.XConstraints.XSlide;
+import org.xcsp.parser.entries.XVariables.XArray;
+import org.xcsp.parser.entries.XVariables.XVarInteger;
+
+/**
+ * Checks that loading a model into XCallbacks (see Compiler.load), directly or by handing over its document in memory, gives the same callbacks as loading
+ * the saved instance.
+ */
+@RunWith(Parameterized.class)
+public class TestCompiler {
+
+	@Parameters(name = "{index}: {0} {1}")
+	public static Collection<Object[]> data() {
+		Object[][] t = { { "Zebra", "", true }, { "Queens", "-data=8 -model=m2", true }, { "Queens", "-data=8 -model=m3", true },
+				{ "AllInterval", "-data=10", true }, { "Pic2", "", true }, { "MagicSequence", "-data=10", false }, { "Bibd", "-data=[6,50,25,3,10]", false },
+				{ "Sudoku", "-data=[9,null]", false } };
+		return Arrays.asList(t);
+	}
+
+	@Parameter(value = 0)
+	public String model;
+
+	@Parameter(value = 1)
+	public String options;
+
+	/** Indicates if the model can be directly loaded (see Compiler.load), i.e., without building a document. */
+	@Parameter(value = 2)
+	public boolean direct;
+
+	/** An object recording the callbacks: build methods are not implemented, and so each of them calls unimplementedCase() (with at least the id). */
+	private static class Recorder implements XCallbacks2 {
+		private Implem implem = new Implem(this);
+
+		@Override
+		public Implem implem() {
+			return implem;
+		}
+
+		private final List<String> calls = new ArrayList<>();
+
+		@Override
+		public Object unimplementedCase(Object... objects) {
+			calls.add(Thread.currentThread().getStackTrace()[2].getMethodName() + " " + Arrays.deepToString(objects));
+			return null;
+		}
+
+		// the following build methods are overridden so as to also record the arguments other than the id
+
+		@Override
+		public void buildVarInteger(XVarInteger x, int minValue, int maxValue) {
+			unimplementedCase(x, minValue, maxValue);
+		}
+
+		@Override
+		public void buildVarInteger(XVarInteger x, int[] values) {
+			unimplementedCase(x, values);
+		}
+
+		@Override
+		public void buildCtrIntension(String id, XVarInteger[] scope, XNodeParent<XVarInteger> tree) {
+			unimplementedCase(id, scope, tree);
+		}
+
+		@Override
+		public void buildCtrPrimitive(String id, XVarInteger x, TypeConditionOperatorRel op, int k) {
+			unimplementedCase(id, x, op, k);
+		}
+
+		@Override
+		public void buildCtrPrimitive(String id, XVarInteger x, TypeArithmeticOperator aop, XVarInteger y, TypeConditionOperatorRel op, int k) {
+			unimplementedCase(id, x, aop, y, op, k);
+		}
+
+		@Override
+		public void buildCtrExtension(String id, XVarInteger[] list, int[][] tuples, boolean positive, Set<TypeFlag> flags) {
+			unimplementedCase(id, list, tuples, positive, flags);
+		}
+
+		@Override
+		public void buildCtrAllDifferent(String id, XVarInteger[] list) {
+			unimplementedCase(id, list);
+		}
+
+		@Override
+		public void beginInstance(TypeFramework type) {
+			calls.add("beginInstance " + type);
+		}
+
+		@Override
+		public void endInstance() {
+			calls.add("endInstance");
+		}
+
+		@Override
+		public void beginVariables(List<VEntry> vEntries) {
+			calls.add("beginVariables " + vEntries.size());
+		}
+
+		@Override
+		public void beginArray(XArray a) {
+			calls.add("beginArray " + a.id);
+		}
+
+		@Override
+		public void beginConstraints(List<CEntry> cEntries) {
+			calls.add("beginConstraints " + cEntries.size());
+		}
+
+		@Override
+		public void beginBlock(XBlock b) {
+			calls.add("beginBlock");
+		}
+
+		@Override
+		public void beginGroup(XGroup g) {
+			calls.add("beginGroup " + g.argss.length);
+		}
+
+		@Override
+		public void beginSlide(XSlide s) {
+			calls.add("beginSlide");
+		}
+
+		@Override
+		public void beginObjectives(List<OEntry> oEntries, TypeCombination type) {
+			calls.add("beginObjectives " + oEntries.size());
+		}
+	}
+
+	private String[] args(String... others) {
+		List<String> args = new ArrayList<>(Arrays.asList("org.xcsp.modeler.problems." + model));
+		Stream.of(options.split(" ")).filter(s -> s.length() > 0).forEach(args::add);
+		args.addAll(Arrays.asList(others));
+		return args.toArray(new String[0]);
+	}
+
+	/**
+	 * Returns the specified calls, where ids generated for constraints (c_0, c_1, ...) are erased, and calls for constraints are sorted, because constraints
+	 * may be grouped (and so reordered) in files, but not when directly loaded.
+	 */
+	private static List<String> normalized(List<String> calls) {
+		int from = IntStream.range(0, calls.size()).filter(i -> calls.get(i).startsWith("beginConstraints")).findFirst().getAsInt();
+		int to = IntStream.range(0, calls.size()).filter(i -> calls.get(i).startsWith("beginObjectives")).findFirst().getAsInt();
+		List<String> list = new ArrayList<>(calls.subList(0, from));
+		calls.subList(from + 1, to).stream().filter(s -> !s.startsWith("beginGroup") && !s.startsWith("beginBlock") && !s.startsWith("beginSlide"))
+				.map(s -> s.replaceAll("\\bc_\\d+\\b", "c")).sorted().forEach(list::add);
+		list.addAll(calls.subList(to, calls.size()));
+		return list;
+	}
+
+	@Test
+	public void testLoad() throws Exception {
+		Recorder inMemory = new Recorder();
+		assertEquals(direct, Compiler.load(args(), inMemory));
+
+		File file = File.createTempFile(model, "");
+		Compiler.main(args("-output=" + file.getPath()));
+		File saved = new File(file.getPath() + ".xml");
+		Recorder fromFile = new Recorder();
+		try {
+			fromFile.loadInstance(saved.getPath());
+		} finally {
+			file.delete();
+			saved.delete();
+		}
+		assertTrue(inMemory.calls.size() > 4);
+		assertEquals(normalized(fromFile.calls), normalized(inMemory.calls));
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.xcsp.parser.callbacks.Diagnostics.Violation;
+import org.xcsp.parser.callbacks.SolutionChecker;
+
+/**
+ * Checks that invalid solutions are detected by the solution checker, on small instances given inline.
+ */
+public class TestSolutionChecker {
+
+	/** Returns the content of an instance file with the specified variables and constraints (and objectives, if any). */
+	private static String instance(String variables, String constraints, String objectives) {
+		return "<instance format='XCSP3' type='" + (objectives == null ? "CSP" : "COP") + "'>\n<variables>\n" + variables + "\n</variables>\n<constraints>\n"
+				+ constraints + "\n</constraints>\n" + (objectives == null ? "" : "<objectives>\n" + objectives + "\n</objectives>\n") + "</instance>\n";
+	}
+
+	/** Returns an instantiation of the specified variables with the specified values. */
+	private static String solution(String list, String values) {
+		return "<instantiation type='solution'> <list> " + list + " </list> <values> " + values + " </values> </instantiation>\n";
+	}
+
+	/** Returns the checker built for the specified instance file and solutions, with the specified options. */
+	private static SolutionChecker checkFile(String fileName, String solutions, int nThreads, boolean incremental, boolean withDiagnostics) throws Exception {
+		return new SolutionChecker(fileName, new ByteArrayInputStream(solutions.getBytes()), null, null, false, nThreads, incremental, withDiagnostics);
+	}
+
+	/** Writes the specified instance in a temporary file, and returns the checker built for the specified solutions with the specified options. */
+	private static SolutionChecker check(String instance, String solutions, int nThreads, boolean incremental, boolean withDiagnostics) throws Exception {
+		File file = File.createTempFile("instance", ".xml");
+		file.deleteOnExit();
+		Files.write(file.toPath(), instance.getBytes());
+		return checkFile(file.getPath(), solutions, nThreads, incremental, withDiagnostics);
+	}
+
+	private static SolutionChecker check(String instance, String solutions) throws Exception {
+		return check(instance, solutions, 1, false, false);
+	}
+
+	private static List<String> ids(List<String> violatedCtrs) {
+		return Arrays.asList(violatedCtrs.stream().map(s -> s.substring(0, s.indexOf(" : "))).toArray(String[]::new));
+	}
+
+	@Test
+	public void testCumulativeOverflow() throws Exception {
+		String instance = instance("<array id='s' size='[2]'> 0..10 </array>",
+				"<cumulative id='c'> <origins> s[] </origins> <lengths> 2 2 </lengths> <heights> 2000000000 2000000000 </heights> <condition> (le,2000000000) </condition> </cumulative>",
+				null);
+		assertEquals(Arrays.asList("c"), ids(check(instance, solution("s[]", "0 1")).violatedCtrs)); // the summed heights exceed the int range
+		assertEquals(Arrays.asList(), check(instance, solution("s[]", "0 2")).violatedCtrs);
+	}
+
+	@Test
+	public void testBinPackingOverflow() throws Exception {
+		String sizes = "<sizes> 2000000000 2000000000 </sizes>";
+		String instance = instance("<array id='b' size='[2]'> 0..1 </array>",
+				"<binPacking id='c1'> <list> b[] </list> " + sizes + " <condition> (le,2000000000) </condition> </binPacking>\n"
+						+ "<binPacking id='c2'> <list> b[] </list> " + sizes + " <limits> 2000000000 2000000000 </limits> </binPacking>",
+				null);
+		assertEquals(Arrays.asList("c1", "c2"), ids(check(instance, solution("b[]", "1 1")).violatedCtrs)); // the summed sizes exceed the int range
+		assertEquals(Arrays.asList(), check(instance, solution("b[]", "0 1")).violatedCtrs);
+	}
+
+	@Test
+	public void testParallelOrder() throws Exception {
+		int n = 200;
+		String constraints = IntStream.range(0, n - 1).mapToObj(i -> "<intension id='c" + i + "'> lt(x[" + i + "],x[" + (i + 1) + "]) </intension>")
+				.collect(Collectors.joining("\n")) + "\n<allDifferent id='d'> x[] </allDifferent>\n<sum id='s'> <list> x[] </list> <condition> (lt,0) </condition> </sum>";
+		String instance = instance("<array id='x' size='[" + n + "]'> 0..9 </array>", constraints, null);
+		Random random = new Random(0);
+		String sol = solution("x[]", IntStream.range(0, n).mapToObj(i -> String.valueOf(random.nextInt(10))).collect(Collectors.joining(" ")));
+		List<String> expected = check(instance, sol).violatedCtrs;
+		assertTrue(expected.size() > n / 4 && ids(expected).containsAll(Arrays.asList("d", "s")));
+		for (int nThreads : new int[] { 2, 4, 8 }) {
+			assertEquals(expected, check(instance, sol, nThreads, false, false).violatedCtrs);
+			assertEquals(expected, check(instance, sol, nThreads, false, true).violatedCtrs);
+		}
+	}
+
+	/** Returns the specified solution where k pairs of values (other than *) have been swapped. */
+	private static String perturb(String solution, Random random, int k) {
+		int start = solution.indexOf("<values>") + "<values>".length(), end = solution.indexOf("</values>");
+		String[] values = solution.substring(start, end).trim().split("\\s+");
+		int[] positions = IntStream.range(0, values.length).filter(i -> !values[i].equals("*")).toArray();
+		for (int q = 0; q < k; q++) {
+			int i = positions[random.nextInt(positions.length)], j = positions[random.nextInt(positions.length)];
+			String tmp = values[i];
+			values[i] = values[j];
+			values[j] = tmp;
+		}
+		return solution.substring(0, start) + " " + String.join(" ", values) + " " + solution.substring(end);
+	}
+
+	@Test
+	public void testIncremental() throws Exception {
+		Map<String, String> solutions = TestSolutions.data().stream().collect(Collectors.toMap(t -> (String) t[0], t -> (String) t[1]));
+		Random random = new Random(0);
+		for (String name : new String[] { "Zebra.xml", "AllInterval-005.xml", "Knapsack-30-100-00.xml", "QuadraticAssignment-bur26a.xml", "Ramsey-12.xml" }) {
+			String fileName = TestSolutions.path + name + ".lzma", sol = solutions.get(name);
+			sol = sol.substring(0, sol.indexOf("</instantiation>") + "</instantiation>".length()); // only the first solution is considered
+			for (int k = 1; k <= 3; k++) {
+				String bad;
+				SolutionChecker expected;
+				do { // we look for an invalid solution, checked from scratch
+					bad = perturb(sol, random, k);
+					expected = checkFile(fileName, bad, 1, false, false);
+				} while (expected.violatedCtrs.size() + expected.invalidObjs.size() == 0);
+				for (int nThreads : new int[] { 1, 4 }) {
+					SolutionChecker sc = checkFile(fileName, sol + bad, nThreads, true, false); // the perturbed solution is checked incrementally
+					assertEquals(name, expected.violatedCtrs, sc.violatedCtrs);
+					assertEquals(name, expected.invalidObjs, sc.invalidObjs);
+					sc = checkFile(fileName, sol + bad + sol, nThreads, true, false); // back to the valid solution
+					assertEquals(name, Arrays.asList(), sc.violatedCtrs);
+					assertEquals(name, Arrays.asList(), sc.invalidObjs);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testIncrementalCost() throws Exception {
+		String instance = instance("<array id='x' size='[3]'> 0..3 </array>", "<allDifferent id='d'> x[] </allDifferent>",
+				"<minimize type='sum'> <list> x[] </list> <coeffs> 1 2 3 </coeffs> </minimize>");
+		String first = solution("x[]", "0 1 2").replace("type='solution'", "type='solution' cost='8'");
+		String second = solution("x[]", "3 1 2").replace("type='solution'", "type='solution' cost='11'"); // the cost is updated from the change of x[0]
+		for (int nThreads : new int[] { 1, 4 }) {
+			SolutionChecker sc = check(instance, first + second, nThreads, true, false);
+			assertEquals(Arrays.asList(), sc.violatedCtrs);
+			assertEquals(Arrays.asList(), sc.invalidObjs);
+			sc = check(instance, first + second.replace("cost='11'", "cost='5'"), nThreads, true, false);
+			assertEquals(1, sc.invalidObjs.size());
+		}
+	}
+
+	@Test
+	public void testServer() throws Exception {
+		File file = File.createTempFile("instance", ".xml");
+		file.deleteOnExit();
+		Files.write(file.toPath(), instance("<array id='x' size='[3]'> 0..3 </array>", "<allDifferent id='d'> x[] </allDifferent>",
+				"<minimize type='sum'> x[] </minimize>").getBytes());
+		String requests = solution("x[]", "0 1 2") + solution("x[]", "0 1 1") + solution("x[]", "0 1 2").replace("type='solution'", "type='solution' cost='4'")
+				+ solution("x[]", "0 1 7") + solution("x[]", "2 1 0");
+		ByteArrayOutputStream answers = new ByteArrayOutputStream();
+		new SolutionChecker(file.getPath(), new ByteArrayInputStream(requests.getBytes()), new PrintStream(answers), null, null, 1);
+		assertEquals("OK\t3\nEND\n" + "INVALID\t2\n  Violated Constraint d\nEND\n" + "INVALID\t3\n  Invalid Objective o_0\nEND\n"
+				+ "ERROR\tWrong value for variable x[2]\nEND\n" + "OK\t3\nEND\n", answers.toString());
+	}
+
+	/** Checks that the single violation found for the specified solution has the specified id, offending part and degree. */
+	private static void assertViolation(String instance, String solution, String id, String offending, long degree) throws Exception {
+		for (int nThreads : new int[] { 1, 4 }) {
+			List<Violation> violations = check(instance, solution, nThreads, false, true).diagnostics.violations;
+			assertEquals(1, violations.size());
+			assertEquals(id, violations.get(0).id);
+			assertEquals(offending, violations.get(0).offending);
+			assertEquals(degree, violations.get(0).degree());
+		}
+	}
+
+	@Test
+	public void testDiagnostics() throws Exception {
+		String instance = instance("<array id='s' size='[3]'> 0..10 </array>", "<noOverlap id='o'> <origins> s[] </origins> <lengths> 3 3 3 </lengths> </noOverlap>",
+				null);
+		assertViolation(instance, solution("s[]", "4 0 2"), "o", "the tasks s[1] and s[2] overlap", 2); // two overlapping pairs
+
+		instance = instance("<array id='t' size='[3]'> 0..10 </array>",
+				"<cumulative id='c'> <origins> t[] </origins> <lengths> 2 2 2 </lengths> <heights> 1 2 1 </heights> <condition> (le,2) </condition> </cumulative>", null);
+		assertViolation(instance, solution("t[]", "0 1 5"), "c", "the height 3 from time 1 to 2 does not satisfy the condition (le,2)", 1);
+
+		instance = instance("<array id='y' size='[3]'> 0..1 </array>",
+				"<regular id='r'> <list> y[] </list> <transitions> (a,0,b)(b,1,a) </transitions> <start> a </start> <final> a </final> </regular>", null);
+		assertViolation(instance, solution("y[]", "0 0 1"), "r", "no transition for the value 0 of y[1] (at position 1)", 1);
+		assertViolation(instance, solution("y[]", "0 1 0"), "r", "no final state is reached", 1);
+
+		instance = instance("<array id='z' size='[4]'> 0..3 </array>", "<allDifferent id='d'> z[] </allDifferent>", null);
+		assertViolation(instance, solution("z[]", "1 2 1 1"), "d", "z[0] and z[2] are both assigned the value 1", 2); // two values too many
+
+		instance = instance("<array id='w' size='[2]'> 0..9 </array>", "<sum id='m'> <list> w[] </list> <condition> (in,{10,20}) </condition> </sum>", null);
+		assertViolation(instance, solution("w[]", "1 2"), "m", "the computed value 3 does not satisfy the condition (in,{10,20})", 7);
+
+		// the sum is beyond the long range (and so clamped): the distance must not wrap around
+		instance = instance("<array id='v' size='[2]'> -2000000000..2000000000 </array>",
+				"<sum id='m'> <list> mul(v[0],v[1]) mul(v[0],v[1]) mul(v[0],v[1]) </list> <condition> (in,{0,1}) </condition> </sum>", null);
+		assertViolation(instance, solution("v[]", "-2000000000 2000000000"), "m", "the computed value " + Long.MIN_VALUE + " does not satisfy the condition (in,{0,1})",
+				Long.MAX_VALUE);
+
+		// the total degree must not wrap around either
+		String sum = "<list> mul(v[0],v[1]) mul(v[0],v[1]) mul(v[0],v[1]) </list> <condition> (in,{0,1}) </condition>";
+		instance = instance("<array id='v' size='[2]'> -2000000000..2000000000 </array>", "<sum id='m1'> " + sum + " </sum>\n<sum id='m2'> " + sum + " </sum>", null);
+		assertEquals(Long.MAX_VALUE, check(instance, solution("v[]", "-2000000000 2000000000"), 1, false, true).diagnostics.totalDegree());
+	}
+}
@@ -14,12 +14,16 @@
  */
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -214,5 +218,29 @@ public class TestSolutions {
 		SolutionChecker sc = new SolutionChecker(path + fileName + ".lzma", new ByteArrayInputStream(solution.getBytes()), null, null, false);
 		assertEquals(sc.violatedCtrs.size(), 0);
 		assertEquals(sc.invalidObjs.size(), 0);
+
+		// with several threads and diagnostics; the second time, the solution is checked incrementally
+		String solutions = solution + solution;
+		sc = new SolutionChecker(path + fileName + ".lzma", new ByteArrayInputStream(solutions.getBytes()), null, null, false, 4, true, true);
+		assertEquals(sc.violatedCtrs.size(), 0);
+		assertEquals(sc.invalidObjs.size(), 0);
+		assertEquals(sc.diagnostics.violations.size(), 0);
+		assertEquals(sc.diagnostics.invalidObjectives.size(), 0);
+
+		// the solution is given as the output of a solver, with one token per v line
+		String log = "s SATISFIABLE\n"
+				+ Stream.of(solution.replace(">", "> ").split("\\s+")).filter(t -> t.length() > 0).map(t -> "v " + t + "\n").collect(Collectors.joining());
+		sc = new SolutionChecker(path + fileName + ".lzma", new ByteArrayInputStream(log.getBytes()), null, null, true);
+		assertEquals(sc.violatedCtrs.size(), 0);
+		assertEquals(sc.invalidObjs.size(), 0);
+
+		// the instance is loaded once, and the second solution is checked incrementally
+		String requests = solution + "\n" + solution;
+		ByteArrayOutputStream answers = new ByteArrayOutputStream();
+		new SolutionChecker(path + fileName + ".lzma", new ByteArrayInputStream(requests.getBytes()), new PrintStream(answers), null, null, 1);
+		String[] lines = answers.toString().split("\n");
+		assertEquals(lines.length, 4);
+		assertTrue(lines[0].startsWith("OK") && lines[2].equals(lines[0]));
+		assertTrue(lines[1].equals("END") && lines[3].equals("END"));
 	}
 }
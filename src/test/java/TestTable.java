@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.xcsp.common.Constants.STAR;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.xcsp.common.Utilities;
+import org.xcsp.common.structures.Table;
+import org.xcsp.common.structures.TableSymbolic;
+
+/**
+ * Checks the operations on tables (sorting, removing duplicates, expanding stars) against naive implementations, on randomly generated tables.
+ */
+public class TestTable {
+
+	private static final int N_RUNS = 300;
+
+	/** Values used in random tuples: small values (so as to have duplicates), extreme values, and STAR. */
+	private static final int[] VALUES = { -3, -2, -1, 0, 1, 2, 3, 255, 256, -256, 1 << 16, Integer.MIN_VALUE, Integer.MAX_VALUE, STAR };
+
+	private static int randomValue(Random random) {
+		return random.nextInt(4) == 0 ? random.nextInt() : VALUES[random.nextInt(VALUES.length)];
+	}
+
+	private static int[][] randomTable(Random random, int arity, int size) {
+		return IntStream.range(0, size).mapToObj(i -> IntStream.range(0, arity).map(j -> randomValue(random)).toArray()).toArray(int[][]::new);
+	}
+
+	/** Returns the specified tuples in lexicographic order, and without any duplicates, computed naively. */
+	private static int[][] naiveClean(int[][] tuples) {
+		int[][] m = tuples.clone();
+		Arrays.sort(m, Utilities.lexComparatorInt);
+		return IntStream.range(0, m.length).filter(i -> i == 0 || !Arrays.equals(m[i - 1], m[i])).mapToObj(i -> m[i]).toArray(int[][]::new);
+	}
+
+	@Test
+	public void testClean() {
+		Random random = new Random(1);
+		for (int run = 0; run < N_RUNS; run++) {
+			int[][] tuples = randomTable(random, 1 + random.nextInt(4), random.nextInt(60));
+			int[][] expected = naiveClean(tuples);
+			assertArrayEquals(expected, Table.clean(tuples.clone()));
+			assertArrayEquals(expected, new Table().add(tuples).toArray());
+			assertArrayEquals(expected, Table.clean(expected)); // already clean
+		}
+		for (int run = 0; run < 5; run++) { // large tables, so that the buffer grows
+			int[][] tuples = randomTable(random, 1 + random.nextInt(4), 5000);
+			assertArrayEquals(naiveClean(tuples), Table.clean(tuples.clone()));
+		}
+		assertArrayEquals(new int[0][], Table.clean(new int[0][]));
+		assertArrayEquals(new int[0][], new Table().toArray());
+	}
+
+	@Test
+	public void testCleanAfterModification() {
+		Random random = new Random(2);
+		for (int run = 0; run < N_RUNS; run++) {
+			int arity = 1 + random.nextInt(3);
+			int[][] tuples1 = randomTable(random, arity, random.nextInt(20)), tuples2 = randomTable(random, arity, random.nextInt(20));
+			Table table = new Table().add(tuples1);
+			assertArrayEquals(naiveClean(tuples1), table.toArray());
+			table.add(tuples2); // the cached sorted tuples must be discarded
+			assertArrayEquals(naiveClean(Stream.concat(Stream.of(tuples1), Stream.of(tuples2)).toArray(int[][]::new)), table.toArray());
+		}
+	}
+
+	@Test
+	public void testCleanSymbolic() {
+		Random random = new Random(3);
+		String[] symbols = { "a", "b", "ab", "B", "z", "a1", "a10", "a2", "" };
+		for (int run = 0; run < N_RUNS; run++) {
+			int arity = 1 + random.nextInt(4);
+			String[][] tuples = IntStream.range(0, random.nextInt(60))
+					.mapToObj(i -> IntStream.range(0, arity).mapToObj(j -> symbols[random.nextInt(symbols.length)]).toArray(String[]::new))
+					.toArray(String[][]::new);
+			String[][] m = tuples.clone();
+			Arrays.sort(m, Utilities.lexComparatorString);
+			String[][] expected = IntStream.range(0, m.length).filter(i -> i == 0 || !Arrays.equals(m[i - 1], m[i])).mapToObj(i -> m[i])
+					.toArray(String[][]::new);
+			assertArrayEquals(expected, TableSymbolic.clean(tuples.clone()));
+			assertArrayEquals(expected, new TableSymbolic().add(tuples).toArray());
+		}
+	}
+
+	/** Adds to the specified list the tuples obtained by replacing each star of t (from position i) by any value of the corresponding column. */
+	private static void naiveExpand(int[] t, int i, int[][] values, List<int[]> list) {
+		if (i == t.length)
+			list.add(t.clone());
+		else if (t[i] != STAR)
+			naiveExpand(t, i + 1, values, list);
+		else {
+			for (int v : values[i]) {
+				t[i] = v;
+				naiveExpand(t, i + 1, values, list);
+			}
+			t[i] = STAR;
+		}
+	}
+
+	@Test
+	public void testToOrdinaryTable() {
+		Random random = new Random(4);
+		for (int run = 0; run < N_RUNS; run++) {
+			int arity = 1 + random.nextInt(4);
+			// values of columns, possibly negative; some columns may have no value at all
+			int[][] values = IntStream.range(0, arity)
+					.mapToObj(i -> random.nextInt(10) == 0 ? new int[0] : IntStream.range(0, 1 + random.nextInt(4)).map(j -> random.nextInt(11) - 5).distinct().toArray())
+					.toArray(int[][]::new);
+			int[][] shortTable = IntStream.range(0, random.nextInt(15)).mapToObj(
+					i -> IntStream.range(0, arity).map(j -> random.nextInt(3) == 0 || values[j].length == 0 ? STAR : values[j][random.nextInt(values[j].length)]).toArray())
+					.toArray(int[][]::new);
+			List<int[]> list = new ArrayList<>();
+			for (int[] t : shortTable)
+				naiveExpand(t.clone(), 0, values, list);
+			assertArrayEquals(naiveClean(list.toArray(new int[0][])), Table.toOrdinaryTable(shortTable, values));
+			int[] nValues = IntStream.range(0, arity).map(i -> random.nextInt(4)).toArray();
+			int[][] ranges = IntStream.of(nValues).mapToObj(n -> IntStream.range(0, n).toArray()).toArray(int[][]::new);
+			list.clear();
+			for (int[] t : shortTable)
+				naiveExpand(t.clone(), 0, ranges, list);
+			assertArrayEquals(naiveClean(list.toArray(new int[0][])), Table.toOrdinaryTable(shortTable, nValues));
+		}
+		assertArrayEquals(new int[0][], Table.toOrdinaryTable(new int[0][], new int[0][]));
+	}
+
+	private static int[][] randomShortTable(Random random, int arity, int size) {
+		IntUnaryOperator value = j -> random.nextInt(3) == 0 ? STAR : random.nextInt(6) == 0 ? Integer.MAX_VALUE : random.nextInt(5) - 2;
+		return IntStream.range(0, size).mapToObj(i -> IntStream.range(0, arity).map(value).toArray()).toArray(int[][]::new);
+	}
+
+	/** Returns the intersection of the two specified (short) tables, computed naively by considering all pairs of tuples. */
+	private static int[][] naiveIntersection(int[][] m1, int[][] m2) {
+		List<int[]> list = new ArrayList<>();
+		for (int[] t1 : m1)
+			for (int[] t2 : m2)
+				if (IntStream.range(0, t1.length).allMatch(i -> t1[i] == t2[i] || t1[i] == STAR || t2[i] == STAR))
+					list.add(IntStream.range(0, t1.length).map(i -> t1[i] == STAR ? t2[i] : t1[i]).toArray());
+		return naiveClean(list.toArray(new int[0][]));
+	}
+
+	@Test
+	public void testIntersectionWith() {
+		Random random = new Random(5);
+		for (int run = 0; run < N_RUNS; run++) {
+			int arity = 1 + random.nextInt(4);
+			int[][] m1 = randomShortTable(random, arity, random.nextInt(25)), m2 = randomShortTable(random, arity, random.nextInt(25));
+			int[][] expected = naiveIntersection(m1, m2);
+			assertArrayEquals(expected, new Table().add(m1).intersectionWith(new Table().add(m2)).toArray());
+			assertArrayEquals(expected, new Table().add(m2).intersectionWith(new Table().add(m1)).toArray());
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016 XCSP3 Team (contact@xcsp.org)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.xcsp.common.predicates;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.xcsp.common.IVar;
+import org.xcsp.common.Types.TypeExpr;
+import org.xcsp.parser.XParser;
+import org.xcsp.parser.entries.XVariables.XArray;
+
+/**
+ * Checks that the canonization of random trees is the same when the rules are selected through the index (by type and arity of nodes) as when all rules
+ * are tried in order.
+ */
+public class TestCanonization {
+
+	private static final TypeExpr[] OPERATORS = { TypeExpr.ADD, TypeExpr.SUB, TypeExpr.MUL, TypeExpr.DIV, TypeExpr.MOD, TypeExpr.ABS, TypeExpr.NEG,
+			TypeExpr.MIN, TypeExpr.MAX, TypeExpr.DIST, TypeExpr.LT, TypeExpr.LE, TypeExpr.GE, TypeExpr.GT, TypeExpr.EQ, TypeExpr.NE, TypeExpr.NOT, TypeExpr.AND,
+			TypeExpr.OR, TypeExpr.XOR, TypeExpr.IMP, TypeExpr.IFF, TypeExpr.IF };
+
+	/** Returns a random tree (whose root is a parent node) built from the specified variables, with small integers so that rules often apply. */
+	private static XNodeParent<IVar> randomTree(Random random, List<IVar> vars, int depth) {
+		TypeExpr type = OPERATORS[random.nextInt(OPERATORS.length)];
+		int arity = Math.max(type.arityMin, Math.min(type.arityMax, 1 + random.nextInt(4)));
+		List<XNode<IVar>> sons = new ArrayList<>();
+		for (int i = 0; i < arity; i++)
+			if (depth > 1 && random.nextInt(3) > 0)
+				sons.add(randomTree(random, vars, depth - 1));
+			else if (random.nextBoolean())
+				sons.add(new XNodeLeaf<>(TypeExpr.VAR, vars.get(random.nextInt(vars.size()))));
+			else
+				sons.add(new XNodeLeaf<>(TypeExpr.LONG, (long) (random.nextInt(9) - 3)));
+		return new XNodeParent<>(type, sons);
+	}
+
+	@Test
+	public void testIndex() throws Exception {
+		String instance = "<instance format='XCSP3' type='CSP'> <variables> <array id='b' size='[2]'> 0..1 </array> <array id='x' size='[2]'> 0..3 </array>"
+				+ " <array id='y' size='[2]'> -2..8 </array> </variables> <constraints/> </instance>";
+		List<IVar> vars = new ArrayList<>();
+		new XParser(new ByteArrayInputStream(instance.getBytes())).vEntries.forEach(a -> vars.addAll(Arrays.asList(((XArray) a).vars)));
+		for (int seed = 0; seed < 5000; seed++) {
+			// canonization may modify leaves of the tree, so two identical trees are built
+			XNodeParent<IVar> tree1 = randomTree(new Random(seed), vars, 1 + seed % 4), tree2 = randomTree(new Random(seed), vars, 1 + seed % 4);
+			String s = tree1.toString(), indexed, scanned;
+			try {
+				indexed = tree1.canonization(true).toString();
+			} catch (RuntimeException e) {
+				indexed = e.getClass().getName();
+			}
+			try {
+				scanned = tree2.canonization(false).toString();
+			} catch (RuntimeException e) {
+				scanned = e.getClass().getName();
+			}
+			assertEquals(s, scanned, indexed);
+		}
+	}
+}